@@ -0,0 +1,21 @@
+package benchmark;
+
+public interface BenchCase {
+
+    /**
+     * Descripción: Prepara el estado que consumirá el siguiente lote medido (no se cronometra).
+     * Pre: batch debe ser positivo.
+     * Pos: Quedan listos los objetos para ejecutar batch operaciones.
+     * @param batch Cantidad de operaciones del lote.
+     */
+    void prepare(int batch);
+
+    /**
+     * Descripción: Ejecuta el lote medido de operaciones.
+     * Pre: Se debe haber llamado a prepare con el mismo batch.
+     * Pos: Se ejecutan batch operaciones; el resultado se acumula para evitar eliminación de código muerto.
+     * @param batch Cantidad de operaciones del lote.
+     * @return long valor acumulado de las operaciones.
+     */
+    long run(int batch);
+}
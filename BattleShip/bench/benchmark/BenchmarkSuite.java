@@ -0,0 +1,288 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+import model.BatchSimulator;
+import model.Board;
+import model.Boat;
+import model.Controller;
+import model.Coordinate;
+import model.Player;
+import model.SimulationResult;
+import model.TypeBoat;
+import model.TypePlayer;
+
+public class BenchmarkSuite {
+    private static final Coordinate TARGET = new Coordinate(1, 1);
+    private static final Coordinate WATER = new Coordinate(Board.SIZE, Board.SIZE);
+
+    /**
+     * Descripción: Ejecuta la batería de benchmarks de Board, Boat y Controller.
+     * Pre: Argumentos opcionales: fill=0,50,90 (porcentaje de tablero atacado), warmup=ms, time=ms, batch=n.
+     * Pos: Se imprime el rendimiento y la tasa de asignación de cada caso.
+     * @param args Argumentos de la línea de comandos.
+     */
+
+    public static void main(String[] args) {
+
+        int[] fills = {0, 50, 90};
+        long warmup = 1_000;
+        long time = 2_000;
+        int batch = 1_000;
+
+        for (int i = 0; i < args.length; i++) {
+
+            String[] pair = args[i].split("=");
+
+            if (pair[0].equals("fill")) {
+
+                String[] values = pair[1].split(",");
+                fills = new int[values.length];
+
+                for (int j = 0; j < values.length; j++) {
+                    fills[j] = Integer.parseInt(values[j]);
+                }
+
+            } else if (pair[0].equals("warmup")) {
+                warmup = Long.parseLong(pair[1]);
+            } else if (pair[0].equals("time")) {
+                time = Long.parseLong(pair[1]);
+            } else if (pair[0].equals("batch")) {
+                batch = Integer.parseInt(pair[1]);
+            }
+        }
+
+        Harness harness = new Harness(warmup, time, batch);
+
+        harness.measure("Board.placeBoat", new PlaceBoatCase());
+        harness.measure("Boat.containsCoordinate", new ContainsCoordinateCase());
+
+        for (int f = 0; f < fills.length; f++) {
+
+            int fill = fills[f];
+
+            harness.measure("Board.receiveAttack hit fill=" + fill, new ReceiveAttackCase(TypeBoat.PORTAAVIONES, TARGET, fill));
+            harness.measure("Board.receiveAttack sink fill=" + fill, new ReceiveAttackCase(TypeBoat.LANCHA, TARGET, fill));
+            harness.measure("Board.receiveAttack miss fill=" + fill, new ReceiveAttackCase(TypeBoat.LANCHA, WATER, fill));
+            harness.measure("Board.generateRandomAttack fill=" + fill, new RandomAttackCase(fill));
+        }
+
+        harness.measure("Controller.setupMachineStandardBoats", new MachineSetupCase(1));
+        harness.measure("Controller.setupMachineCustomBoats", new MachineSetupCase(2));
+        harness.measure("Juego completo estándar", new FullGameCase(1));
+        harness.measure("Juego completo personalizado", new FullGameCase(2));
+
+        System.out.println("sink=" + harness.getSink());
+    }
+
+    /**
+     * Descripción: Construye un tablero con un único barco en (1,1) y un porcentaje de casillas ya atacadas.
+     * Pre: fillCells debe excluir las casillas del barco y la casilla objetivo.
+     * Pos: Retorna el tablero listo para recibir el ataque medido.
+     * @param type Tipo del barco colocado en (1,1).
+     * @param fillCells Casillas a atacar previamente.
+     * @return Board preparado.
+     */
+
+    static Board boardWithFill(TypeBoat type, ArrayList<Coordinate> fillCells) {
+
+        Board board = new Board();
+        Boat boat = new Boat();
+        boat.initializeStandardBoat(type, 1, 1);
+        board.placeBoat(boat);
+
+        for (int i = 0; i < fillCells.size(); i++) {
+
+            board.receiveAttack(fillCells.get(i));
+        }
+        return board;
+    }
+
+    /**
+     * Descripción: Elige de forma reproducible las casillas que se atacan antes de medir.
+     * Pre: fill debe estar entre 0 y 100.
+     * Pos: Retorna fill% de las casillas fuera de la columna 1 y distintas de la casilla de agua objetivo.
+     * @param fill Porcentaje del tablero a atacar.
+     * @return ArrayList<Coordinate> con las casillas a atacar.
+     */
+
+    static ArrayList<Coordinate> fillCells(int fill) {
+
+        ArrayList<Coordinate> candidates = new ArrayList<>();
+
+        for (int y = 1; y <= Board.SIZE; y++) {
+
+            for (int x = 2; x <= Board.SIZE; x++) {
+
+                if (x != WATER.getX() || y != WATER.getY()) {
+
+                    candidates.add(new Coordinate(x, y));
+                }
+            }
+        }
+
+        Collections.shuffle(candidates, new Random(42));
+
+        int count = Math.min(candidates.size(), Board.SIZE * Board.SIZE * fill / 100);
+
+        return new ArrayList<>(candidates.subList(0, count));
+    }
+
+    private static class PlaceBoatCase implements BenchCase {
+        private Board[] boards;
+        private Boat boat;
+
+        PlaceBoatCase() {
+            boat = new Boat();
+            boat.initializeStandardBoat(TypeBoat.PORTAAVIONES, 3, 3);
+        }
+
+        public void prepare(int batch) {
+            boards = new Board[batch];
+            for (int i = 0; i < batch; i++) {
+                boards[i] = new Board();
+            }
+        }
+
+        public long run(int batch) {
+            long sum = 0;
+            for (int i = 0; i < batch; i++) {
+                if (boards[i].placeBoat(boat)) {
+                    sum++;
+                }
+            }
+            return sum;
+        }
+    }
+
+    private static class ContainsCoordinateCase implements BenchCase {
+        private Boat boat;
+        private Coordinate last;
+        private Coordinate outside;
+
+        ContainsCoordinateCase() {
+            boat = new Boat();
+            boat.initializeStandardBoat(TypeBoat.PORTAAVIONES, 3, 3);
+            last = new Coordinate(3, 7);
+            outside = new Coordinate(4, 7);
+        }
+
+        public void prepare(int batch) {
+        }
+
+        public long run(int batch) {
+            long sum = 0;
+            for (int i = 0; i < batch; i++) {
+                if (boat.containsCoordinate((i & 1) == 0 ? last : outside)) {
+                    sum++;
+                }
+            }
+            return sum;
+        }
+    }
+
+    private static class ReceiveAttackCase implements BenchCase {
+        private final TypeBoat type;
+        private final Coordinate target;
+        private final ArrayList<Coordinate> fill;
+        private Board[] boards;
+
+        ReceiveAttackCase(TypeBoat type, Coordinate target, int fillPercent) {
+            this.type = type;
+            this.target = target;
+            this.fill = fillCells(fillPercent);
+        }
+
+        public void prepare(int batch) {
+            boards = new Board[batch];
+            for (int i = 0; i < batch; i++) {
+                boards[i] = boardWithFill(type, fill);
+            }
+        }
+
+        public long run(int batch) {
+            long sum = 0;
+            for (int i = 0; i < batch; i++) {
+                sum += boards[i].receiveAttack(target);
+            }
+            return sum;
+        }
+    }
+
+    private static class RandomAttackCase implements BenchCase {
+        private Board board;
+
+        RandomAttackCase(int fillPercent) {
+            Controller controller = new Controller();
+            Player player = new Player("Benchmark", TypePlayer.MACHINE);
+            TypeBoat[] types = TypeBoat.getStandardBoats();
+            for (int i = 0; i < types.length; i++) {
+                controller.placeRandomStandardBoat(player, types[i]);
+            }
+            board = player.getBoard();
+            ArrayList<Coordinate> cells = fillCells(fillPercent);
+            for (int i = 0; i < cells.size(); i++) {
+                board.receiveAttack(cells.get(i));
+            }
+        }
+
+        public void prepare(int batch) {
+        }
+
+        public long run(int batch) {
+            long sum = 0;
+            for (int i = 0; i < batch; i++) {
+                sum += board.generateRandomAttack().getX();
+            }
+            return sum;
+        }
+    }
+
+    private static class MachineSetupCase implements BenchCase {
+        private final int gameType;
+        private Controller[] controllers;
+
+        MachineSetupCase(int gameType) {
+            this.gameType = gameType;
+        }
+
+        public void prepare(int batch) {
+            controllers = new Controller[batch];
+            for (int i = 0; i < batch; i++) {
+                controllers[i] = new Controller();
+            }
+        }
+
+        public long run(int batch) {
+            for (int i = 0; i < batch; i++) {
+                if (gameType == 1) {
+                    controllers[i].setupMachineStandardBoats();
+                } else {
+                    controllers[i].setupMachineCustomBoats();
+                }
+            }
+            return batch;
+        }
+    }
+
+    private static class FullGameCase implements BenchCase {
+        private final int gameType;
+        private SimulationResult result;
+
+        FullGameCase(int gameType) {
+            this.gameType = gameType;
+            this.result = new SimulationResult();
+        }
+
+        public void prepare(int batch) {
+        }
+
+        public long run(int batch) {
+            for (int i = 0; i < batch; i++) {
+                BatchSimulator.playGame(gameType, result);
+            }
+            return result.getTotalGames();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package benchmark;
+
+import java.lang.management.ManagementFactory;
+
+public class Harness {
+    private final com.sun.management.ThreadMXBean threads;
+    private final long warmupNanos;
+    private final long measureNanos;
+    private final int batch;
+    private long sink;
+
+    public Harness(long warmupMillis, long measureMillis, int batch) {
+        this.threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        this.warmupNanos = warmupMillis * 1_000_000L;
+        this.measureNanos = measureMillis * 1_000_000L;
+        this.batch = batch;
+    }
+
+    /**
+     * Descripción: Mide el rendimiento y la tasa de asignación de un caso de benchmark.
+     * Pre: benchCase debe estar inicializado.
+     * Pos: Se imprime una línea con operaciones por segundo, ns por operación y bytes asignados por operación.
+     * @param name Nombre del caso medido.
+     * @param benchCase Caso a medir.
+     */
+
+    public void measure(String name, BenchCase benchCase) {
+
+        loop(benchCase, warmupNanos);
+
+        long threadId = Thread.currentThread().threadId();
+        long ops = 0;
+        long timed = 0;
+        long allocated = 0;
+        long deadline = System.nanoTime() + measureNanos;
+
+        while (System.nanoTime() < deadline) {
+
+            benchCase.prepare(batch);
+
+            long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+
+            sink += benchCase.run(batch);
+
+            timed += System.nanoTime() - start;
+            allocated += threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+            ops += batch;
+        }
+
+        double opsPerSecond = ops * 1e9 / timed;
+        double nanosPerOp = (double) timed / ops;
+        double bytesPerOp = (double) allocated / ops;
+        double allocRate = allocated / 1048576.0 / (timed / 1e9);
+
+        System.out.println(String.format("%-40s %14.0f ops/s %10.1f ns/op %10.1f B/op %10.1f MB/s",
+                name, opsPerSecond, nanosPerOp, bytesPerOp, allocRate));
+    }
+
+    /**
+     * Descripción: Devuelve el acumulado de resultados para que la JVM no descarte el trabajo medido.
+     * Pre: Ninguna.
+     * Pos: Retorna el valor acumulado.
+     * @return long con el acumulado.
+     */
+
+    public long getSink() {
+
+        return sink;
+    }
+
+    private void loop(BenchCase benchCase, long nanos) {
+
+        long deadline = System.nanoTime() + nanos;
+
+        while (System.nanoTime() < deadline) {
+
+            benchCase.prepare(batch);
+            sink += benchCase.run(batch);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package model;
+
+public class AttackResult {
+    private static final TypeAttackResult[] TYPES = TypeAttackResult.values();
+    private static final TypeBoat[] BOATS = TypeBoat.values();
+
+    private static final int TYPE_BITS = 3;
+    private static final int TYPE_MASK = (1 << TYPE_BITS) - 1;
+    private static final int BOAT_SHIFT = TYPE_BITS;
+    private static final int BOAT_MASK = 0xF;
+    private static final int SIZE_SHIFT = 8;
+
+    public static final int MISS = TypeAttackResult.MISS.ordinal();
+    public static final int HIT = TypeAttackResult.HIT.ordinal();
+    public static final int ALREADY_ATTACKED = TypeAttackResult.ALREADY_ATTACKED.ordinal();
+    public static final int OUT_OF_BOUNDS = TypeAttackResult.OUT_OF_BOUNDS.ordinal();
+    public static final int NOT_IN_PLAY = TypeAttackResult.NOT_IN_PLAY.ordinal();
+
+    private AttackResult() {
+    }
+
+    /**
+     * Descripción: Codifica el resultado de un barco hundido en un entero compacto.
+     * Pre: boat no debe ser null y size debe ser positivo.
+     * Pos: Retorna un código con el tipo SUNK, el tipo de barco y su tamaño.
+     * @param boat Tipo del barco hundido.
+     * @param size Tamaño del barco hundido.
+     * @return int Código del resultado.
+     */
+
+    public static int sunk(TypeBoat boat, int size) {
+
+        return TypeAttackResult.SUNK.ordinal() | (boat.ordinal() << BOAT_SHIFT) | (size << SIZE_SHIFT);
+    }
+
+    /**
+     * Descripción: Obtiene el tipo de resultado de un código de ataque.
+     * Pre: code debe provenir de Board.receiveAttack.
+     * Pos: Retorna el tipo de resultado sin crear objetos.
+     * @param code Código del resultado.
+     * @return TypeAttackResult del ataque.
+     */
+
+    public static TypeAttackResult getType(int code) {
+
+        return TYPES[code & TYPE_MASK];
+    }
+
+    /**
+     * Descripción: Indica si el ataque impactó en un barco (incluye el impacto que lo hunde).
+     * Pre: code debe provenir de Board.receiveAttack.
+     * Pos: Retorna true para HIT y SUNK.
+     * @param code Código del resultado.
+     * @return boolean indicando si hubo impacto.
+     */
+
+    public static boolean isHit(int code) {
+
+        int type = code & TYPE_MASK;
+
+        return type == HIT || type == TypeAttackResult.SUNK.ordinal();
+    }
+
+    /**
+     * Descripción: Indica si el ataque hundió un barco.
+     * Pre: code debe provenir de Board.receiveAttack.
+     * Pos: Retorna true solo para SUNK.
+     * @param code Código del resultado.
+     * @return boolean indicando si se hundió un barco.
+     */
+
+    public static boolean isSunk(int code) {
+
+        return (code & TYPE_MASK) == TypeAttackResult.SUNK.ordinal();
+    }
+
+    /**
+     * Descripción: Indica si el ataque fue válido, es decir, dentro del tablero y sobre una casilla no atacada.
+     * Pre: code debe provenir de Board.receiveAttack.
+     * Pos: Retorna true para MISS, HIT y SUNK; NOT_IN_PLAY indica que la partida no admitía disparos.
+     * @param code Código del resultado.
+     * @return boolean indicando si el disparo contó.
+     */
+
+    public static boolean isResolved(int code) {
+
+        int type = code & TYPE_MASK;
+
+        return type != ALREADY_ATTACKED && type != OUT_OF_BOUNDS && type != NOT_IN_PLAY;
+    }
+
+    /**
+     * Descripción: Obtiene el tipo del barco hundido.
+     * Pre: code debe provenir de Board.receiveAttack.
+     * Pos: Retorna el tipo del barco si el resultado es SUNK.
+     * @param code Código del resultado.
+     * @return TypeBoat del barco hundido, o null si no se hundió ninguno.
+     */
+
+    public static TypeBoat getSunkBoat(int code) {
+
+        if (!isSunk(code)) {
+
+            return null;
+        }
+
+        return BOATS[(code >>> BOAT_SHIFT) & BOAT_MASK];
+    }
+
+    /**
+     * Descripción: Obtiene el tamaño del barco hundido, útil para barcos personalizados.
+     * Pre: code debe provenir de Board.receiveAttack.
+     * Pos: Retorna el tamaño si el resultado es SUNK.
+     * @param code Código del resultado.
+     * @return int Tamaño del barco hundido, o 0 si no se hundió ninguno.
+     */
+
+    public static int getSunkSize(int code) {
+
+        if (!isSunk(code)) {
+
+            return 0;
+        }
+
+        return code >>> SIZE_SHIFT;
+    }
+}
@@ -0,0 +1,37 @@
+package model;
+
+public interface AttackStrategy {
+
+    /**
+     * Descripción: Prepara la estrategia para una nueva partida contra el tablero indicado.
+     * Pre: El tablero objetivo debe tener sus barcos colocados.
+     * Pos: Se descarta cualquier estado de la partida anterior.
+     * @param target Tablero que se va a atacar.
+     */
+    void startGame(Board target);
+
+    /**
+     * Descripción: Elige la próxima casilla a atacar.
+     * Pre: Se debe haber llamado a startGame.
+     * Pos: Retorna una casilla sin atacar del tablero objetivo.
+     * @return int Índice de la casilla elegida, o -1 si no quedan casillas sin atacar.
+     */
+    int nextAttackCell();
+
+    /**
+     * Descripción: Informa a la estrategia del resultado de un disparo.
+     * Pre: result debe ser el código devuelto por Board.receiveAttack para la casilla cell.
+     * Pos: La estrategia actualiza su estado interno.
+     * @param cell Índice de la casilla atacada.
+     * @param result Código de AttackResult del disparo.
+     */
+    void recordResult(int cell, int result);
+
+    /**
+     * Descripción: Obtiene el nombre de la estrategia para reportes.
+     * Pre: Ninguna.
+     * Pos: Retorna un nombre corto.
+     * @return String con el nombre de la estrategia.
+     */
+    String getName();
+}
@@ -0,0 +1,324 @@
+package model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class BatchSimulator {
+    private static final int MIN_CHUNK = 1_000;
+
+    private ForkJoinPool pool;
+    private int boardWidth;
+    private int boardHeight;
+    private GameJournalWriter journal;
+    private long seed;
+
+    public BatchSimulator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchSimulator(int threads) {
+        this(threads, Board.SIZE, Board.SIZE);
+    }
+
+    public BatchSimulator(int threads, int boardWidth, int boardHeight) {
+        pool = new ForkJoinPool(threads);
+        this.boardWidth = boardWidth;
+        this.boardHeight = boardHeight;
+        this.seed = ThreadLocalRandom.current().nextLong();
+    }
+
+    /**
+     * Descripción: Juega un lote de partidas máquina contra máquina repartidas entre todos los núcleos.
+     * Pre: games debe ser positivo; gameType 1 estándar, 2 personalizado, 0 alterna ambos modos.
+     * Pos: Se juegan todas las partidas con las reglas de Controller y Board. La partida i del lote usa la semilla
+     * getSeed() + i, sin importar qué hilo la juegue, y al terminar la semilla avanza games posiciones para que el
+     * próximo lote no repita partidas.
+     * @param games Cantidad de partidas a jugar.
+     * @param gameType Modo de las partidas simuladas.
+     * @return SimulationResult con el rendimiento, victorias y distribución de disparos.
+     */
+
+    public SimulationResult run(long games, int gameType) {
+
+        long chunk = Math.max(MIN_CHUNK, games / (pool.getParallelism() * 8L));
+
+        long start = System.nanoTime();
+
+        SimulationResult result = pool.invoke(new GameBatch(0, games, chunk, gameType, boardWidth, boardHeight,
+                journal, seed));
+
+        seed += games;
+
+        result.setElapsedNanos(System.nanoTime() - start);
+
+        return result;
+    }
+
+    /**
+     * Descripción: Archiva en un diario todas las partidas de los próximos lotes.
+     * Pre: Ninguna.
+     * Pos: Cada hilo registra sus partidas por separado y las agrega completas al diario; null deja de archivar.
+     * @param journal Diario de partidas, o null.
+     */
+
+    public void setJournal(GameJournalWriter journal) {
+
+        this.journal = journal;
+    }
+
+    /**
+     * Descripción: Fija la semilla del próximo lote.
+     * Pre: Ninguna.
+     * Pos: Dos lotes con la misma semilla, tamaño y modo juegan exactamente las mismas partidas; una partida reportada
+     * se repite con Controller.newGame(seed + i).
+     * @param seed Semilla de la primera partida del lote.
+     */
+
+    public void setSeed(long seed) {
+
+        this.seed = seed;
+    }
+
+    public long getSeed() {
+
+        return seed;
+    }
+
+    /**
+     * Descripción: Libera los hilos del simulador.
+     * Pre: Ninguna.
+     * Pos: El pool de hilos queda apagado.
+     * @return void, apaga el pool de hilos.
+     */
+
+    public void shutdown() {
+
+        pool.shutdown();
+    }
+
+    /**
+     * Descripción: Juega una partida completa sin consola entre dos jugadores automáticos.
+     * Pre: gameType debe ser 1 (estándar) o 2 (personalizado).
+     * Pos: La partida termina y su resultado queda registrado en result.
+     * @param gameType Modo de la partida.
+     * @param result Acumulador donde se registra la partida.
+     */
+
+    public static void playGame(int gameType, SimulationResult result) {
+
+        playGame(gameType, Board.SIZE, Board.SIZE, result);
+    }
+
+    /**
+     * Descripción: Juega una partida completa sin consola sobre tableros de las dimensiones indicadas.
+     * Pre: gameType debe ser 1 (estándar) o 2 (personalizado); las dimensiones deben ser válidas para Board.
+     * Pos: La partida termina y su resultado queda registrado en result.
+     * @param gameType Modo de la partida.
+     * @param width Ancho de los tableros.
+     * @param height Alto de los tableros.
+     * @param result Acumulador donde se registra la partida.
+     */
+
+    public static void playGame(int gameType, int width, int height, SimulationResult result) {
+
+        playGame(gameType, width, height, result, null);
+    }
+
+    /**
+     * Descripción: Juega una partida completa sin consola y la registra para el diario de partidas.
+     * Pre: gameType debe ser 1 (estándar) o 2 (personalizado); las dimensiones deben ser válidas para Board.
+     * Pos: La partida termina, su resultado queda en result y, si record no es null, record contiene la partida
+     * completa lista para GameJournalWriter.write.
+     * @param gameType Modo de la partida.
+     * @param width Ancho de los tableros.
+     * @param height Alto de los tableros.
+     * @param result Acumulador donde se registra la partida.
+     * @param record Registro de la partida, o null para no registrarla.
+     */
+
+    public static void playGame(int gameType, int width, int height, SimulationResult result, GameRecord record) {
+
+        Controller controller = new Controller(width, height);
+
+        playGame(controller, recordingCursor(controller, record), gameType, controller.getGameSeed(), result, record);
+    }
+
+    /**
+     * Descripción: Juega una partida completa sin consola reutilizando un controlador de partidas anteriores.
+     * Pre: gameType debe ser 1 (estándar) o 2 (personalizado); cursor debe leer los eventos del controlador si record
+     * no es null.
+     * Pos: Los tableros se vacían con newGame(seed) antes de empezar, de modo que una serie de partidas sobre el mismo
+     * controlador reutiliza tableros, barcos y arreglos de trabajo sin generar basura por partida, y la partida
+     * depende solo de la semilla. Si alguna flota no cabe en el tablero la partida se cuenta como inviable y no entra
+     * en las tasas de victoria ni en los disparos.
+     * @param controller Controlador de la partida.
+     * @param cursor Lector de los eventos del controlador, o null si no se registra la partida.
+     * @param gameType Modo de la partida.
+     * @param seed Semilla de la partida.
+     * @param result Acumulador donde se registra la partida.
+     * @param record Registro de la partida, o null para no registrarla.
+     * @return boolean true si se jugó la partida, false si fue inviable.
+     */
+
+    static boolean playGame(Controller controller, BoardEventCursor cursor, int gameType, long seed,
+            SimulationResult result, GameRecord record) {
+
+        controller.newGame(seed);
+
+        if (cursor != null) {
+
+            record.begin(controller.getBoardWidth(), controller.getBoardHeight(), gameType);
+        }
+
+        boolean placed;
+
+        if (gameType == 1) {
+
+            placed = controller.setupHumanRandomStandardBoats() && controller.setupMachineStandardBoats();
+
+        } else {
+
+            placed = controller.setupHumanRandomCustomBoats() && controller.setupMachineCustomBoats();
+        }
+
+        if (!placed) {
+
+            result.recordInfeasible(gameType);
+            return false;
+        }
+
+        if (cursor != null) {
+
+            cursor.drain(record, Integer.MAX_VALUE);
+        }
+
+        int humanShots = 0;
+        int machineShots = 0;
+
+        while (!controller.isGameOver()) {
+
+            controller.autoHumanAttack();
+            humanShots++;
+
+            if (controller.isGameOver()) break;
+
+            controller.machineAttack();
+            machineShots++;
+
+            if (cursor != null) {
+
+                cursor.drain(record, Integer.MAX_VALUE);
+            }
+        }
+
+        if (cursor != null) {
+
+            cursor.drain(record, Integer.MAX_VALUE);
+        }
+
+        boolean humanWon = controller.isHumanWinner();
+
+        if (humanWon) {
+
+            result.recordGame(gameType, true, humanShots);
+
+        } else {
+
+            result.recordGame(gameType, false, machineShots);
+        }
+        return true;
+    }
+
+    private static BoardEventCursor recordingCursor(Controller controller, GameRecord record) {
+
+        if (record == null) {
+
+            return null;
+        }
+
+        BoardEventBuffer buffer = new BoardEventBuffer();
+
+        controller.setEventBuffer(buffer);
+        return buffer.newCursor();
+    }
+
+    private static class GameBatch extends RecursiveTask<SimulationResult> {
+        private static final long serialVersionUID = 1L;
+
+        private final long from;
+        private final long to;
+        private final long chunk;
+        private final int gameType;
+        private final int width;
+        private final int height;
+        private final transient GameJournalWriter journal;
+        private final long seed;
+
+        GameBatch(long from, long to, long chunk, int gameType, int width, int height, GameJournalWriter journal,
+                long seed) {
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.gameType = gameType;
+            this.width = width;
+            this.height = height;
+            this.journal = journal;
+            this.seed = seed;
+        }
+
+        @Override
+        protected SimulationResult compute() {
+
+            if (to - from <= chunk) {
+
+                SimulationResult result = new SimulationResult();
+                GameRecord record = journal == null ? null : new GameRecord();
+                Controller controller = new Controller(width, height);
+                BoardEventCursor cursor = recordingCursor(controller, record);
+
+                for (long i = from; i < to; i++) {
+
+                    int type = gameType;
+
+                    if (type == 0) {
+
+                        type = (int) (i & 1) + 1;
+                    }
+
+                    if (playGame(controller, cursor, type, seed + i, result, record) && record != null) {
+
+                        write(record);
+                    }
+                }
+                return result;
+            }
+
+            long mid = (from + to) >>> 1;
+
+            GameBatch left = new GameBatch(from, mid, chunk, gameType, width, height, journal, seed);
+            GameBatch right = new GameBatch(mid, to, chunk, gameType, width, height, journal, seed);
+
+            left.fork();
+
+            SimulationResult result = right.compute();
+            result.merge(left.join());
+
+            return result;
+        }
+
+        private void write(GameRecord record) {
+
+            try {
+
+                journal.write(record);
+
+            } catch (IOException e) {
+
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
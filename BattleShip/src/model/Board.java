@@ -1,34 +1,129 @@
 package model;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Random;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class Board {
     public static final int SIZE = 10;
-    private int[][] grid;
+    public static final int MAX_SIZE = 100_000;
+    public static final long DENSE_MAX_CELLS = 1L << 16;
+
+    private static final int ATTACKED = 1;
+    private static final int BOAT_STATE_BYTES = 14;
+    private static final TypeBoat[] BOAT_TYPES = TypeBoat.values();
+
+    private final int width;
+    private final int height;
+    private final long cellCount;
+    private final boolean sparse;
+    private final int words;
+
+    private long[] occupied;
+    private long[] hit;
+    private long[] sunk;
+    private int[] boatAt;
+    private int[] unattacked;
+    private int[] unattackedPos;
+    private int unattackedCount;
+
+    private LongIntHashMap sparseCells;
+    private long attackedCount;
+
     private ArrayList<Boat> boats;
+    private ArrayList<Boat> spareBoats;
+    private int sunkBoats;
+    private long version;
+    private BoardEventBuffer events;
+    private int eventSource;
+    private GameRandom random;
 
     public Board() {
-        grid = new int[SIZE][SIZE];
+        this(SIZE, SIZE);
+    }
+
+    /**
+     * Descripción: Crea un tablero de las dimensiones indicadas.
+     * Pre: width y height deben estar entre 1 y MAX_SIZE.
+     * Pos: Hasta DENSE_MAX_CELLS casillas se usan capas de bits densas; en tableros mayores solo se guardan las
+     * casillas con barco o atacadas, de modo que la memoria crece con los barcos y disparos y no con el área.
+     * @param width Ancho del tablero (coordenada X de 1 a width).
+     * @param height Alto del tablero (coordenada Y de 1 a height).
+     */
+
+    public Board(int width, int height) {
+        if (width < 1 || width > MAX_SIZE || height < 1 || height > MAX_SIZE) {
+            throw new IllegalArgumentException("Dimensiones de tablero inválidas: " + width + "x" + height);
+        }
+
+        this.width = width;
+        this.height = height;
+        this.cellCount = (long) width * height;
+        this.sparse = cellCount > DENSE_MAX_CELLS;
+        this.words = sparse ? 0 : (int) ((cellCount + 63) / 64);
+
+        if (sparse) {
+            sparseCells = new LongIntHashMap();
+        } else {
+            int cells = (int) cellCount;
+            occupied = new long[words];
+            hit = new long[words];
+            sunk = new long[words];
+            boatAt = new int[cells];
+            unattacked = new int[cells];
+            unattackedPos = new int[cells];
+        }
+
+        random = new GameRandom(ThreadLocalRandom.current().nextLong());
         boats = new ArrayList<>();
+        spareBoats = new ArrayList<>();
         initializeGrid();
     }
 
     /**
      * Descripción: Inicializa el tablero configurando todas las casillas como agua (0).
      * Pre: El tablero debe ser creado, pero no inicializado.
-     * Pos: Se establece un tablero con todas las casillas vacías (agua).
-     * @return void, esto mostrará el tablero con los ceros.
+     * Pos: Se retiran los barcos, que quedan disponibles para obtainBoat, se limpian las capas de ocupación, impactos
+     * y hundidos y el índice de barcos por casilla con rellenos en bloque, y todas las casillas vuelven a estar sin
+     * atacar. No se reserva memoria nueva, de modo que jugar partidas seguidas sobre el mismo tablero no genera basura.
+     * @return void, esto dejará el tablero con todas las casillas en agua.
      */
     public void initializeGrid() {
 
-        for (int i = 0; i < SIZE; i++) {
+        for (int i = 0; i < boats.size(); i++) {
 
-            for (int j = 0; j < SIZE; j++) {
+            spareBoats.add(boats.get(i));
+        }
 
-                grid[i][j] = 0; 
-            }
+        boats.clear();
+        sunkBoats = 0;
+        version++;
+
+        if (events != null) {
+
+            events.publish(BoardEvent.boardCleared(eventSource));
+        }
+
+        if (sparse) {
+
+            sparseCells.clear();
+            attackedCount = 0;
+            return;
         }
+
+        Arrays.fill(occupied, 0L);
+        Arrays.fill(hit, 0L);
+        Arrays.fill(sunk, 0L);
+        Arrays.fill(boatAt, 0);
+
+        for (int cell = 0; cell < unattacked.length; cell++) {
+
+            unattacked[cell] = cell;
+            unattackedPos[cell] = cell;
+        }
+
+        unattackedCount = unattacked.length;
     }
 
     /**
@@ -40,198 +135,919 @@ public class Board {
      */
 
     public boolean placeBoat(Boat boat) {
-        ArrayList<Coordinate> coords = boat.getCoordinates();
+        int size = boat.getSize();
+        int x = boat.getX();
+        int y = boat.getY();
+        boolean isVertical = boat.isVertical();
 
-       
-        for (int i = 0; i < coords.size(); i++) {
-            Coordinate coord = coords.get(i);
-            if (coord.getX() < 1 || coord.getX() > SIZE || coord.getY() < 1 || coord.getY() > SIZE) {
-                return false;
-            }
+        if (size < 1 || !canPlaceBoat(x, y, size, isVertical)) {
+            return false;
         }
 
-       
-        for (int i = 0; i < coords.size(); i++) {
+        int id = boats.size();
+        long step = isVertical ? width : 1;
+        long first = key(x, y);
 
-            Coordinate coord = coords.get(i);
-            
-            if (grid[coord.getY() - 1][coord.getX() - 1] != 0) {
-                return false;
+        for (int i = 0; i < size; i++) {
+
+            long cell = first + i * step;
+
+            if (sparse) {
+
+                sparseCells.put(cell, (id + 1) << 1);
+
+            } else {
+
+                occupied[(int) (cell >>> 6)] |= 1L << cell;
+                boatAt[(int) cell] = id + 1;
             }
         }
 
-        
-        for (int i = 0; i < coords.size(); i++) {
+        boats.add(boat);
+        version++;
 
-            Coordinate coord = coords.get(i);
+        if (events != null) {
 
-            grid[coord.getY() - 1][coord.getX() - 1] = 1; 
+            events.publish(BoardEvent.boatPlaced(eventSource, x, y, boat.getType(), size, isVertical));
         }
+        return true;
+    }
 
-        boats.add(boat);
+    /**
+     * Descripción: Verifica si un barco cabría en una posición sin crear el barco.
+     * Pre: size debe ser positivo.
+     * Pos: Devuelve si todas las casillas del barco están dentro del tablero, libres y sin atacar; un barco sobre una
+     * casilla ya atacada no se podría hundir.
+     * @param x Coordenada X de la posición inicial del barco.
+     * @param y Coordenada Y de la posición inicial del barco.
+     * @param size Tamaño del barco.
+     * @param isVertical Orientación del barco.
+     * @return boolean Devuelve true si el barco cabe.
+     */
+
+    public boolean canPlaceBoat(int x, int y, int size, boolean isVertical) {
+
+        for (int i = 0; i < size; i++) {
+
+            int cx = isVertical ? x : x + i;
+            int cy = isVertical ? y + i : y;
+
+            if (!isInside(cx, cy) || isOccupied(key(cx, cy)) || isAttacked(key(cx, cy))) {
+
+                return false;
+            }
+        }
         return true;
     }
 
     /**
-     * Descripción: Recibe un ataque en una coordenada dada.
-     * Pre: Las coordenadas del ataque deben estar dentro de los límites del tablero.
-     * Pos: El tablero se actualiza si el ataque impacta en un barco.
+     * Descripción: Recibe un ataque en una coordenada dada y lo resuelve en una sola pasada.
+     * Pre: El tablero debe estar configurado.
+     * Pos: La casilla queda marcada como atacada y el tablero se actualiza si el ataque impacta en un barco.
      * @param coord Coordenada en la que se realiza el ataque.
-     * @return boolean Devuelve true si el ataque impacta en un barco, false si no.
+     * @return int Código de AttackResult: MISS, HIT, SUNK (con el tipo y tamaño del barco), ALREADY_ATTACKED
+     * u OUT_OF_BOUNDS.
      */
 
-    public boolean receiveAttack(Coordinate coord) {
+    public int receiveAttack(Coordinate coord) {
 
-        int x = coord.getX() - 1;
-        int y = coord.getY() - 1;
+        if (!isInside(coord.getX(), coord.getY())) {
 
-        if (x < 0 || x >= SIZE || y < 0 || y >= SIZE) {
+            return AttackResult.OUT_OF_BOUNDS;
+        }
 
-            return false;
+        return attack(key(coord.getX(), coord.getY()));
+    }
+
+    /**
+     * Descripción: Recibe un ataque sobre una casilla indicada por su índice empaquetado, sin crear objetos.
+     * Pre: El tablero debe ser denso (ver isSparse).
+     * Pos: La casilla queda marcada como atacada y el tablero se actualiza si el ataque impacta en un barco.
+     * @param cell Índice de la casilla atacada (ver cellOf).
+     * @return int Código de AttackResult con el resultado del disparo.
+     */
+
+    public int receiveAttack(int cell) {
+
+        if (cell < 0 || cell >= cellCount) {
+
+            return AttackResult.OUT_OF_BOUNDS;
         }
 
-        if (grid[y][x] == 1) { 
+        return attack(cell);
+    }
 
-            grid[y][x] = 2; 
+    /**
+     * Descripción: Verifica si una coordenada ha sido atacada previamente.
+     * Pre: El tablero debe estar configurado.
+     * Pos: Devuelve si la coordenada ha sido atacada.
+     * @param coord Coordenada que se verifica.
+     * @return boolean Devuelve true si la coordenada fue atacada, false si no.
+     */
 
-            for (int i = 0; i < boats.size(); i++) {
+    public boolean isCoordinateAttacked(Coordinate coord) {
 
-                Boat boat = boats.get(i);
+        if (!isInside(coord.getX(), coord.getY())) {
 
-                if (boat.containsCoordinate(coord)) {
+            return false;
+        }
 
-                    boolean allHit = true;
+        return isAttacked(key(coord.getX(), coord.getY()));
+    }
 
-                    ArrayList<Coordinate> boatCoords = boat.getCoordinates();
+    /**
+     * Descripción: Verifica si una casilla, indicada por su índice empaquetado, ha sido atacada previamente.
+     * Pre: El tablero debe estar configurado.
+     * Pos: Devuelve si la casilla ha sido atacada.
+     * @param cell Índice de la casilla (ver cellOf).
+     * @return boolean Devuelve true si la casilla fue atacada, false si no o si está fuera del tablero.
+     */
 
-                    for (int j = 0; j < boatCoords.size(); j++) {
+    public boolean isCoordinateAttacked(int cell) {
 
-                        Coordinate boatCoord = boatCoords.get(j);
+        if (cell < 0 || cell >= cellCount) {
 
-                        if (grid[boatCoord.getY() - 1][boatCoord.getX() - 1] != 2) {
+            return false;
+        }
 
-                            allHit = false;
+        return isAttacked(cell);
+    }
 
-                            break;
-                        }
-                    }
+    /**
+     * Descripción: Verifica si todos los barcos han sido hundidos.
+     * Pre: Los barcos deben estar correctamente colocados en el tablero.
+     * Pos: Devuelve los barcos que han sido hundidos.
+     * @return boolean Devuelve true si todos los barcos están hundidos, false si no.
+     */
 
-                    if (allHit) {
+    public boolean allBoatsSunk() {
 
-                        boat.setSunk(true);
+        return sunkBoats == boats.size();
+    }
 
-                        for (int j = 0; j < boatCoords.size(); j++) {
+    /**
+     * Descripción: Genera un ataque aleatorio para la máquina.
+     * Pre: El tablero debe estar configurado y la máquina debe estar lista para atacar.
+     * Pos: En tableros densos devuelve una coordenada uniforme entre las no atacadas con un único sorteo; en tableros
+     * dispersos sortea casillas hasta dar con una no atacada, lo que es rápido mientras el tablero esté poco atacado.
+     * @return Coordinate Coordenada generada aleatoriamente para un ataque, o null si ya se atacaron todas las casillas.
+     */
 
-                            Coordinate boatCoord = boatCoords.get(j);
+    public Coordinate generateRandomAttack() {
 
-                            grid[boatCoord.getY() - 1][boatCoord.getX() - 1] = 3;
+        if (sparse) {
 
-                        }
-                    }
+            if (attackedCount >= cellCount) {
 
-                    break;
-                }
+                return null;
             }
-            return true;
+
+            int x;
+            int y;
+
+            do {
+
+                x = random.nextInt(width) + 1;
+                y = random.nextInt(height) + 1;
+
+            } while (isAttacked(key(x, y)));
+
+            return Coordinate.of(x, y);
         }
 
-        return false;
+        int cell = generateRandomAttackCell();
+
+        if (cell < 0) {
+
+            return null;
+        }
+
+        return coordinateOf(cell);
     }
 
     /**
-     * Descripción: Verifica si una coordenada ha sido atacada previamente.
+     * Descripción: Genera un ataque aleatorio para la máquina como índice empaquetado de casilla.
+     * Pre: El tablero debe ser denso.
+     * Pos: Devuelve una casilla elegida uniformemente entre las no atacadas, con un único sorteo.
+     * @return int Índice de la casilla, o -1 si ya se atacaron todas las casillas o el tablero es disperso.
+     */
+
+    public int generateRandomAttackCell() {
+
+        if (sparse || unattackedCount == 0) {
+
+            return -1;
+        }
+
+        return unattacked[random.nextInt(unattackedCount)];
+    }
+
+    /**
+     * Descripción: Obtiene el generador aleatorio de los disparos contra este tablero.
+     * Pre: Ninguna.
+     * Pos: Lo usan generateRandomAttack y las estrategias que atacan el tablero, de modo que una partida depende solo
+     * de la semilla con que Controller lo reinicia. Sin semilla, cada tablero arranca con una al azar.
+     * @return GameRandom Generador del tablero.
+     */
+
+    public GameRandom getRandom() {
+
+        return random;
+    }
+
+    /**
+     * Descripción: Obtiene la cantidad de casillas que todavía no han sido atacadas.
      * Pre: El tablero debe estar configurado.
-     * Pos: Devuelve si la coordenada ha sido atacada.
-     * @param coord Coordenada que se verifica.
-     * @return boolean Devuelve true si la coordenada fue atacada, false si no.
+     * Pos: Devuelve el tamaño del conjunto de casillas disponibles para atacar.
+     * @return long Cantidad de casillas sin atacar.
      */
 
-    public boolean isCoordinateAttacked(Coordinate coord) {
+    public long getUnattackedCount() {
+
+        if (sparse) {
+
+            return cellCount - attackedCount;
+        }
+
+        return unattackedCount;
+    }
+
+    /**
+     * Descripción: Verifica si una casilla contiene un impacto sobre un barco, hundido o no.
+     * Pre: cell debe estar dentro del tablero.
+     * Pos: Devuelve la información visible para el atacante sobre la casilla.
+     * @param cell Índice de la casilla (ver cellOf).
+     * @return boolean Devuelve true si la casilla fue impactada.
+     */
+
+    public boolean isCellHit(int cell) {
+
+        if (sparse) {
+
+            int state = sparseCells.get(cell);
+
+            return (state & ATTACKED) != 0 && state > ATTACKED;
+        }
+
+        return (hit[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Descripción: Verifica si una casilla pertenece a un barco hundido.
+     * Pre: cell debe estar dentro del tablero.
+     * Pos: Devuelve la información visible para el atacante sobre la casilla.
+     * @param cell Índice de la casilla (ver cellOf).
+     * @return boolean Devuelve true si la casilla pertenece a un barco hundido.
+     */
+
+    public boolean isCellSunk(int cell) {
+
+        if (sparse) {
+
+            int state = sparseCells.get(cell);
+
+            return state > ATTACKED && boats.get((state >>> 1) - 1).isSunk();
+        }
+
+        return (sunk[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Descripción: Obtiene los barcos colocados en el tablero.
+     * Pre: El tablero debe estar configurado.
+     * Pos: Devuelve la lista de barcos en el orden en que fueron colocados.
+     * @return ArrayList<Boat> Lista de barcos del tablero.
+     */
+
+    public ArrayList<Boat> getBoats() {
+
+        return boats;
+    }
+
+    /**
+     * Descripción: Obtiene el estado actual del tablero.
+     * Pre: El tablero debe ser denso; un tablero disperso no cabe en una matriz.
+     * Pos: Construye bajo demanda una matriz con el estado actual del tablero
+     * (0 agua, 1 barco, 2 impacto, 3 hundido) a partir de las capas de bits.
+     * @return int[][] Matriz que representa el estado del tablero, indexada [y - 1][x - 1].
+     */
+
+    public int[][] getGrid() {
+
+        if (sparse) {
+
+            throw new IllegalStateException("El tablero " + width + "x" + height + " es disperso y no tiene matriz");
+        }
+
+        int[][] grid = new int[height][width];
+
+        for (int cell = 0; cell < cellCount; cell++) {
+
+            int w = cell >>> 6;
+            long bit = 1L << cell;
+
+            if ((sunk[w] & bit) != 0) {
 
-        int x = coord.getX() - 1;
-        int y = coord.getY() - 1;
+                grid[cell / width][cell % width] = 3;
 
-        if (x < 0 || x >= SIZE || y < 0 || y >= SIZE) {
+            } else if ((hit[w] & bit) != 0) {
+
+                grid[cell / width][cell % width] = 2;
+
+            } else if ((occupied[w] & bit) != 0) {
+
+                grid[cell / width][cell % width] = 1;
+            }
+        }
+
+        return grid;
+    }
+
+    /**
+     * Descripción: Conecta el tablero a un anillo de eventos.
+     * Pre: El anillo solo debe recibir eventos de un hilo a la vez; los dos tableros de una partida pueden compartirlo.
+     * Pos: placeBoat publica BOAT_PLACED y receiveAttack publica SHOT_RESOLVED, BOAT_SUNK y GAME_OVER, codificados en
+     * un long y sin crear objetos. Con null se dejan de publicar eventos.
+     * @param buffer Anillo donde se publican los eventos, o null.
+     * @param source Identificador del tablero en los eventos (BoardEvent.SOURCE_HUMAN o SOURCE_MACHINE).
+     */
+
+    public void setEventBuffer(BoardEventBuffer buffer, int source) {
+
+        events = buffer;
+        eventSource = source;
+    }
+
+    /**
+     * Descripción: Toma una foto compacta del tablero: capas de bits de ocupación, ataques, impactos y hundidos.
+     * Pre: El tablero debe ser denso.
+     * Pos: Se escribe en out, reutilizando sus arreglos, sin recorrer los barcos.
+     * @param out Foto de las mismas dimensiones que el tablero.
+     * @return boolean true si se tomó la foto, false si el tablero es disperso o out no coincide.
+     */
+
+    public boolean snapshot(BoardSnapshot out) {
+
+        if (sparse || out.getWidth() != width || out.getHeight() != height) {
 
             return false;
         }
 
-        if (grid[y][x] == 2) {
+        long[] attacked = out.attackedLayer();
+
+        System.arraycopy(occupied, 0, out.occupiedLayer(), 0, words);
+        System.arraycopy(hit, 0, out.hitLayer(), 0, words);
+        System.arraycopy(sunk, 0, out.sunkLayer(), 0, words);
+
+        for (int w = 0; w < words; w++) {
 
-            return true;
+            attacked[w] = 0L;
         }
 
-        if (grid[y][x] == 3) {
+        for (int cell = 0; cell < cellCount; cell++) {
 
-            return true;
+            if (unattackedPos[cell] < 0) {
+
+                attacked[cell >>> 6] |= 1L << cell;
+            }
         }
 
-        return false;
+        out.setVersion(version);
+        return true;
     }
 
     /**
-     * Descripción: Verifica si todos los barcos han sido hundidos.
-     * Pre: Los barcos deben estar correctamente colocados en el tablero.
-     * Pos: Devuelve los barcos que han sido hundidos.
-     * @return boolean Devuelve true si todos los barcos están hundidos, false si no.
+     * Descripción: Marca de una vez las casillas atacadas de una posición guardada, sin repetir los disparos.
+     * Pre: El tablero debe ser denso, con sus barcos colocados y sin disparos; attacked tiene un bit por casilla.
+     * Pos: Los impactos, los barcos hundidos y las casillas sin atacar quedan como si se hubieran resuelto los
+     * disparos uno a uno, en tiempo proporcional al área del tablero y no a la cantidad de disparos.
+     * @param attacked Capa de bits de las casillas atacadas.
      */
 
-    public boolean allBoatsSunk() {
+    void restoreAttacked(long[] attacked) {
+
+        for (int w = 0; w < words; w++) {
+
+            hit[w] = attacked[w] & occupied[w];
+        }
+
+        Arrays.fill(unattackedPos, -1);
+        unattackedCount = 0;
+
+        for (int w = 0; w < words; w++) {
+
+            long free = ~attacked[w];
+
+            if (w == words - 1 && (cellCount & 63) != 0) {
+
+                free &= (1L << cellCount) - 1;
+            }
+
+            while (free != 0) {
+
+                int cell = (w << 6) + Long.numberOfTrailingZeros(free);
+
+                unattacked[unattackedCount] = cell;
+                unattackedPos[cell] = unattackedCount++;
+                free &= free - 1;
+            }
+        }
+
+        for (int id = 0; id < boats.size(); id++) {
+
+            Boat boat = boats.get(id);
+            int first = (int) key(boat.getX(), boat.getY());
+            int step = boat.isVertical() ? width : 1;
+            int remaining = boat.getSize();
+
+            for (int i = 0; i < boat.getSize(); i++) {
+
+                int c = first + i * step;
+
+                if ((hit[c >>> 6] & (1L << c)) != 0) {
+
+                    remaining = boat.registerHit(i);
+                }
+            }
+
+            if (remaining == 0) {
+
+                markSunk(boat);
+                boat.setSunk(true);
+                sunkBoats++;
+            }
+        }
+
+        version++;
+    }
+
+    /**
+     * Descripción: Calcula cuántos bytes ocupa el estado del tablero en writeState.
+     * Pre: Ninguna.
+     * Pos: Sirve para reservar el búfer antes de guardar.
+     * @return int Bytes del estado.
+     */
+
+    int getStateSize() {
+
+        int attacked = sparse ? 4 + 8 * (int) attackedCount : 8 * words;
+
+        return 12 + boats.size() * BOAT_STATE_BYTES + attacked;
+    }
+
+    /**
+     * Descripción: Escribe el estado completo del tablero en formato binario compacto.
+     * Pre: out debe tener al menos getStateSize() bytes libres.
+     * Pos: Se escriben las dimensiones, cada barco con su tipo, origen, tamaño, orientación y estado de hundido, y
+     * las casillas atacadas: una capa de bits en tableros densos o la lista de casillas en tableros dispersos.
+     * @param out Búfer de destino.
+     */
+
+    void writeState(ByteBuffer out) {
+
+        out.putInt(width);
+        out.putInt(height);
+        out.putInt(boats.size());
 
         for (int i = 0; i < boats.size(); i++) {
 
             Boat boat = boats.get(i);
 
-            if (!boat.isSunk()) {
+            out.put((byte) boat.getType().ordinal());
+            out.putInt(boat.getX());
+            out.putInt(boat.getY());
+            out.putInt(boat.getSize());
+            out.put((byte) ((boat.isVertical() ? 1 : 0) | (boat.isSunk() ? 2 : 0)));
+        }
+
+        if (sparse) {
 
-                return false;
+            out.putInt((int) attackedCount);
+
+            for (int slot = 0; slot < sparseCells.getCapacity(); slot++) {
+
+                if ((sparseCells.valueAt(slot) & ATTACKED) != 0) {
+
+                    out.putLong(sparseCells.keyAt(slot));
+                }
+            }
+            return;
+        }
+
+        for (int w = 0; w < words; w++) {
+
+            long bits = 0L;
+            int base = w << 6;
+            int end = (int) Math.min(64, cellCount - base);
+
+            for (int i = 0; i < end; i++) {
 
+                if (unattackedPos[base + i] < 0) {
+
+                    bits |= 1L << i;
+                }
             }
 
+            out.putLong(bits);
         }
-        return true;
     }
 
     /**
-     * Descripción: Genera un ataque aleatorio para la máquina.
-     * Pre: El tablero debe estar configurado y la máquina debe estar lista para atacar.
-     * Pos: Devuelve una coordenada aleatoria no atacada previamente.
-     * @return Coordinate Coordenada generada aleatoriamente para un ataque.
+     * Descripción: Reconstruye un tablero a partir de lo escrito por writeState.
+     * Pre: in debe estar posicionado al inicio del estado de un tablero.
+     * Pos: Los barcos se vuelven a colocar en el mismo orden y los disparos se aplican de una vez; el tablero queda
+     * sin anillo de eventos conectado.
+     * @param in Búfer de origen.
+     * @return Board reconstruido, o null si los datos no son un tablero válido.
      */
 
-    public Coordinate generateRandomAttack() {
+    static Board readState(ByteBuffer in) {
+
+        int width = in.getInt();
+        int height = in.getInt();
+
+        if (width < 1 || width > MAX_SIZE || height < 1 || height > MAX_SIZE) {
+
+            return null;
+        }
+
+        Board board = new Board(width, height);
+        int boatCount = in.getInt();
+
+        if (boatCount < 0 || (long) boatCount * BOAT_STATE_BYTES > in.remaining()) {
+
+            return null;
+        }
+
+        boolean[] sunkFlags = new boolean[boatCount];
+
+        for (int i = 0; i < boatCount; i++) {
+
+            int type = in.get();
+            int x = in.getInt();
+            int y = in.getInt();
+            int size = in.getInt();
+            int flags = in.get();
+
+            if (type < 0 || type >= BOAT_TYPES.length || size < 1 || size > Math.max(width, height)) {
+
+                return null;
+            }
+
+            if (!board.placeBoat(board.createBoat(BOAT_TYPES[type], x, y, size, (flags & 1) != 0))) {
+
+                return null;
+            }
+
+            sunkFlags[i] = (flags & 2) != 0;
+        }
+
+        if (board.sparse) {
+
+            int attacked = in.getInt();
 
-        Random random = new Random();
+            for (int i = 0; i < attacked; i++) {
 
-        int x = 0;
+                long cell = in.getLong();
 
-        int y = 0;
+                if (cell < 0 || cell >= board.cellCount || !AttackResult.isResolved(board.attack(cell))) {
 
-        Coordinate coord = null;
+                    return null;
+                }
+            }
 
-        do {
+        } else {
 
-            x = random.nextInt(SIZE) + 1;
+            long[] attacked = new long[board.words];
 
-            y = random.nextInt(SIZE) + 1;
+            for (int w = 0; w < attacked.length; w++) {
 
-            coord = new Coordinate(x, y);
+                attacked[w] = in.getLong();
+            }
 
-        } while (isCoordinateAttacked(coord));
+            board.restoreAttacked(attacked);
+        }
 
-        return coord;
+        for (int i = 0; i < boatCount; i++) {
 
+            if (board.boats.get(i).isSunk() != sunkFlags[i]) {
+
+                return null;
+            }
+        }
+        return board;
     }
 
     /**
-     * Descripción: Obtiene el estado actual del tablero.
-     * Pre: El tablero debe estar configurado.
-     * Pos: Devuelve una matriz con el estado actual del tablero.
-     * @return int[][] Matriz que representa el estado del tablero.
+     * Descripción: Obtiene un barco sin colocar, reutilizando los que retiró initializeGrid.
+     * Pre: El barco que se obtiene no debe estar colocado en ningún tablero.
+     * Pos: El barco queda sin hundir y listo para inicializarse con initializeStandardBoat o initializeCustomBoat, que
+     * borran sus impactos.
+     * @return Boat reutilizado, o nuevo si no hay barcos retirados.
      */
 
-    public int[][] getGrid() {
+    public Boat obtainBoat() {
 
-        return grid;
+        if (spareBoats.isEmpty()) {
+
+            return new Boat();
+        }
+
+        Boat boat = spareBoats.remove(spareBoats.size() - 1);
+
+        boat.setSunk(false);
+        return boat;
+    }
+
+    /**
+     * Descripción: Crea un barco a partir de su tipo, origen, tamaño y orientación.
+     * Pre: size debe ser positivo.
+     * Pos: Si el tamaño y la orientación son los del tipo se crea como barco estándar; si no, como personalizado.
+     * @param type Tipo del barco.
+     * @param x Coordenada X del origen.
+     * @param y Coordenada Y del origen.
+     * @param size Tamaño del barco.
+     * @param isVertical Orientación del barco.
+     * @return Boat listo para colocar, obtenido con obtainBoat.
+     */
+
+    Boat createBoat(TypeBoat type, int x, int y, int size, boolean isVertical) {
+
+        Boat boat = obtainBoat();
+
+        if (type != TypeBoat.PERSONALIZADO && type.getDefaultSize() == size
+                && (size == 1 || type.isDefaultVertical() == isVertical)) {
+
+            boat.initializeStandardBoat(type, x, y);
+
+        } else {
+
+            boat.initializeCustomBoat(x, y, size, isVertical);
+        }
+        return boat;
+    }
+
+    /**
+     * Descripción: Obtiene la versión del tablero.
+     * Pre: Ninguna.
+     * Pos: La versión solo cambia cuando placeBoat coloca un barco, receiveAttack resuelve un disparo nuevo o se
+     * reinicia el tablero; sirve para invalidar vistas precalculadas.
+     * @return long Versión actual del tablero.
+     */
+
+    public long getVersion() {
+
+        return version;
+    }
+
+    public int getWidth() {
+
+        return width;
+    }
+
+    public int getHeight() {
+
+        return height;
+    }
+
+    /**
+     * Descripción: Indica si el tablero usa almacenamiento disperso.
+     * Pre: Ninguna.
+     * Pos: Los tableros dispersos no ofrecen matriz ni índices empaquetados de tipo int.
+     * @return boolean true si el tablero supera DENSE_MAX_CELLS casillas.
+     */
+
+    public boolean isSparse() {
+
+        return sparse;
+    }
+
+    /**
+     * Descripción: Calcula el índice de casilla empaquetado para una coordenada.
+     * Pre: El tablero debe ser denso.
+     * Pos: Devuelve la posición de la casilla dentro de las capas de bits.
+     * @param x Coordenada X de la casilla.
+     * @param y Coordenada Y de la casilla.
+     * @return int Índice de la casilla, de 0 a width * height - 1, o -1 si está fuera del tablero.
+     */
+
+    public int cellOf(int x, int y) {
+
+        if (sparse || !isInside(x, y)) {
+
+            return -1;
+        }
+
+        return (int) key(x, y);
+    }
+
+    /**
+     * Descripción: Obtiene la coordenada de una casilla a partir de su índice empaquetado.
+     * Pre: cell debe estar dentro del tablero.
+     * Pos: Retorna la coordenada compartida si está en la caché de Coordinate.
+     * @param cell Índice de la casilla.
+     * @return Coordinate de la casilla.
+     */
+
+    public Coordinate coordinateOf(int cell) {
+
+        return Coordinate.of(cell % width + 1, cell / width + 1);
+    }
+
+    /**
+     * Descripción: Obtiene la cantidad de palabras de 64 bits de cada capa.
+     * Pre: El tablero debe ser denso.
+     * Pos: Devuelve el largo de los arreglos que aceptan copyBlocked y PlacementTable.
+     * @return int Palabras por capa.
+     */
+
+    int getWords() {
+
+        return words;
+    }
+
+    /**
+     * Descripción: Copia las casillas donde ya no se puede colocar un barco.
+     * Pre: El tablero debe ser denso y out debe tener getWords() posiciones.
+     * Pos: out contiene un bit encendido por cada casilla ocupada por un barco o ya atacada, las mismas que rechaza
+     * canPlaceBoat.
+     * @param out Arreglo donde se copian las casillas bloqueadas.
+     */
+
+    void copyBlocked(long[] out) {
+
+        System.arraycopy(occupied, 0, out, 0, words);
+
+        if (unattackedCount == cellCount) {
+
+            return;
+        }
+
+        for (int cell = 0; cell < cellCount; cell++) {
+
+            if (unattackedPos[cell] < 0) {
+
+                out[cell >>> 6] |= 1L << cell;
+            }
+        }
+    }
+
+    private boolean isInside(int x, int y) {
+
+        return x >= 1 && x <= width && y >= 1 && y <= height;
+    }
+
+    private long key(int x, int y) {
+
+        return (long) (y - 1) * width + (x - 1);
+    }
+
+    private boolean isOccupied(long cell) {
+
+        if (sparse) {
+
+            return sparseCells.get(cell) > ATTACKED;
+        }
+
+        return (occupied[(int) (cell >>> 6)] & (1L << cell)) != 0;
+    }
+
+    private boolean isAttacked(long cell) {
+
+        if (sparse) {
+
+            return (sparseCells.get(cell) & ATTACKED) != 0;
+        }
+
+        return unattackedPos[(int) cell] < 0;
+    }
+
+    /**
+     * Descripción: Resuelve un ataque sobre una casilla válida.
+     * Pre: cell debe estar dentro del tablero.
+     * Pos: La casilla queda atacada; si completa un barco, sus casillas pasan a hundidas.
+     * @param cell Índice de la casilla atacada.
+     * @return int Código de AttackResult con el resultado del disparo.
+     */
+
+    private int attack(long cell) {
+
+        int id;
+
+        if (sparse) {
+
+            int state = sparseCells.get(cell);
+
+            if ((state & ATTACKED) != 0) {
+
+                return AttackResult.ALREADY_ATTACKED;
+            }
+
+            sparseCells.put(cell, state | ATTACKED);
+            attackedCount++;
+            id = (state >>> 1) - 1;
+
+        } else {
+
+            int c = (int) cell;
+
+            if (unattackedPos[c] < 0) {
+
+                return AttackResult.ALREADY_ATTACKED;
+            }
+
+            markAttacked(c);
+            id = boatAt[c] - 1;
+
+            if (id >= 0) {
+
+                hit[c >>> 6] |= 1L << c;
+            }
+        }
+
+        version++;
+
+        if (id < 0) {
+
+            publishShot(cell, AttackResult.MISS);
+            return AttackResult.MISS;
+        }
+
+        Boat boat = boats.get(id);
+        long offset = boat.isVertical() ? cell / width - (boat.getY() - 1) : cell % width - (boat.getX() - 1);
+
+        if (boat.registerHit((int) offset) > 0) {
+
+            publishShot(cell, AttackResult.HIT);
+            return AttackResult.HIT;
+        }
+
+        if (!sparse) {
+
+            markSunk(boat);
+        }
+
+        boat.setSunk(true);
+        sunkBoats++;
+
+        int result = AttackResult.sunk(boat.getType(), boat.getSize());
+
+        if (events != null) {
+
+            publishShot(cell, result);
+            events.publish(BoardEvent.boatSunk(eventSource, boat.getX(), boat.getY(), result, boat.isVertical()));
+
+            if (allBoatsSunk()) {
+
+                events.publish(BoardEvent.gameOver(eventSource));
+            }
+        }
+
+        return result;
+    }
+
+    private void publishShot(long cell, int result) {
+
+        if (events != null) {
+
+            events.publish(BoardEvent.shotResolved(eventSource, (int) (cell % width) + 1, (int) (cell / width) + 1,
+                    result));
+        }
+    }
+
+    private void markSunk(Boat boat) {
+
+        int first = (int) key(boat.getX(), boat.getY());
+        int step = boat.isVertical() ? width : 1;
+
+        for (int i = 0; i < boat.getSize(); i++) {
+
+            int c = first + i * step;
+
+            sunk[c >>> 6] |= 1L << c;
+        }
+    }
+
+    /**
+     * Descripción: Retira una casilla del conjunto de casillas sin atacar en tiempo constante.
+     * Pre: cell debe ser un índice válido del tablero.
+     * Pos: La última casilla del conjunto ocupa el hueco de la retirada; si ya estaba atacada no cambia nada.
+     * @param cell Índice de la casilla atacada.
+     */
+
+    private void markAttacked(int cell) {
+
+        int pos = unattackedPos[cell];
+
+        if (pos < 0) {
+
+            return;
+        }
+
+        int last = unattacked[--unattackedCount];
+
+        unattacked[pos] = last;
+        unattackedPos[last] = pos;
+        unattackedPos[cell] = -1;
     }
 }
@@ -0,0 +1,215 @@
+package model;
+
+public class BoardEvent {
+    public static final long NONE = 0L;
+
+    public static final int SOURCE_HUMAN = 0;
+    public static final int SOURCE_MACHINE = 1;
+
+    private static final TypeBoardEvent[] TYPES = TypeBoardEvent.values();
+    private static final TypeBoat[] BOATS = TypeBoat.values();
+
+    private static final int TYPE_MASK = 0x7;
+    private static final int SOURCE_SHIFT = 3;
+    private static final int X_SHIFT = 4;
+    private static final int Y_SHIFT = 21;
+    private static final int DATA_SHIFT = 38;
+    private static final long COORD_MASK = (1L << 17) - 1;
+
+    private static final int BOAT_MASK = 0xF;
+    private static final int VERTICAL_BIT = 1 << 4;
+    private static final int SIZE_SHIFT = 5;
+    private static final int SUNK_VERTICAL_BIT = 1 << 25;
+    private static final int RESULT_MASK = SUNK_VERTICAL_BIT - 1;
+
+    private BoardEvent() {
+    }
+
+    /**
+     * Descripción: Codifica la colocación de un barco en un long.
+     * Pre: x e y deben estar entre 1 y Board.MAX_SIZE.
+     * Pos: Retorna el evento sin crear objetos.
+     * @param source Tablero que emite el evento (SOURCE_HUMAN o SOURCE_MACHINE).
+     * @param x Coordenada X de la primera casilla del barco.
+     * @param y Coordenada Y de la primera casilla del barco.
+     * @param boat Tipo del barco.
+     * @param size Tamaño del barco.
+     * @param isVertical Orientación del barco.
+     * @return long Evento codificado.
+     */
+
+    public static long boatPlaced(int source, int x, int y, TypeBoat boat, int size, boolean isVertical) {
+
+        int data = boat.ordinal() | (size << SIZE_SHIFT);
+
+        if (isVertical) {
+
+            data |= VERTICAL_BIT;
+        }
+
+        return encode(TypeBoardEvent.BOAT_PLACED, source, x, y, data);
+    }
+
+    /**
+     * Descripción: Codifica un disparo resuelto en un long.
+     * Pre: result debe ser un código de AttackResult de un disparo resuelto.
+     * Pos: Retorna el evento sin crear objetos.
+     * @param source Tablero que recibió el disparo.
+     * @param x Coordenada X del disparo.
+     * @param y Coordenada Y del disparo.
+     * @param result Código de AttackResult del disparo.
+     * @return long Evento codificado.
+     */
+
+    public static long shotResolved(int source, int x, int y, int result) {
+
+        return encode(TypeBoardEvent.SHOT_RESOLVED, source, x, y, result);
+    }
+
+    /**
+     * Descripción: Codifica el hundimiento de un barco en un long.
+     * Pre: result debe ser el código SUNK del disparo que lo hundió.
+     * Pos: El evento lleva la primera casilla y la orientación del barco, de modo que junto con el tamaño del código
+     * alcanza para marcar todas sus casillas sin conocer el tablero.
+     * @param source Tablero al que pertenece el barco.
+     * @param x Coordenada X de la primera casilla del barco.
+     * @param y Coordenada Y de la primera casilla del barco.
+     * @param result Código SUNK de AttackResult.
+     * @param isVertical Orientación del barco.
+     * @return long Evento codificado.
+     */
+
+    public static long boatSunk(int source, int x, int y, int result, boolean isVertical) {
+
+        int data = result;
+
+        if (isVertical) {
+
+            data |= SUNK_VERTICAL_BIT;
+        }
+
+        return encode(TypeBoardEvent.BOAT_SUNK, source, x, y, data);
+    }
+
+    /**
+     * Descripción: Codifica el fin de la partida de un tablero, cuando se hunde su último barco.
+     * Pre: Ninguna.
+     * Pos: Retorna el evento sin crear objetos.
+     * @param source Tablero que perdió toda su flota.
+     * @return long Evento codificado.
+     */
+
+    public static long gameOver(int source) {
+
+        return encode(TypeBoardEvent.GAME_OVER, source, 0, 0, 0);
+    }
+
+    /**
+     * Descripción: Codifica el vaciado de un tablero al empezar una partida nueva.
+     * Pre: Ninguna.
+     * Pos: Retorna el evento sin crear objetos; los consumidores descartan todo lo que sabían del tablero.
+     * @param source Tablero vaciado.
+     * @return long Evento codificado.
+     */
+
+    public static long boardCleared(int source) {
+
+        return encode(TypeBoardEvent.BOARD_CLEARED, source, 0, 0, 0);
+    }
+
+    public static TypeBoardEvent getType(long event) {
+
+        return TYPES[(int) (event & TYPE_MASK)];
+    }
+
+    public static int getSource(long event) {
+
+        return (int) (event >>> SOURCE_SHIFT) & 1;
+    }
+
+    public static int getX(long event) {
+
+        return (int) ((event >>> X_SHIFT) & COORD_MASK);
+    }
+
+    public static int getY(long event) {
+
+        return (int) ((event >>> Y_SHIFT) & COORD_MASK);
+    }
+
+    /**
+     * Descripción: Obtiene el código de AttackResult de un evento SHOT_RESOLVED o BOAT_SUNK.
+     * Pre: El evento debe ser de disparo o de hundimiento.
+     * Pos: El código se decodifica con AttackResult.
+     * @param event Evento codificado.
+     * @return int Código de AttackResult.
+     */
+
+    public static int getResult(long event) {
+
+        return (int) (event >>> DATA_SHIFT) & RESULT_MASK;
+    }
+
+    public static TypeBoat getBoat(long event) {
+
+        if (getType(event) == TypeBoardEvent.BOAT_SUNK) {
+
+            return AttackResult.getSunkBoat(getResult(event));
+        }
+        return BOATS[(int) (event >>> DATA_SHIFT) & BOAT_MASK];
+    }
+
+    public static int getBoatSize(long event) {
+
+        if (getType(event) == TypeBoardEvent.BOAT_SUNK) {
+
+            return AttackResult.getSunkSize(getResult(event));
+        }
+        return (int) (event >>> DATA_SHIFT) >>> SIZE_SHIFT;
+    }
+
+    public static boolean isBoatVertical(long event) {
+
+        if (getType(event) == TypeBoardEvent.BOAT_SUNK) {
+
+            return ((int) (event >>> DATA_SHIFT) & SUNK_VERTICAL_BIT) != 0;
+        }
+        return ((int) (event >>> DATA_SHIFT) & VERTICAL_BIT) != 0;
+    }
+
+    /**
+     * Descripción: Describe un evento en texto, para registros y depuración.
+     * Pre: event no debe ser NONE.
+     * Pos: Crea un String; no se usa en el camino del juego.
+     * @param event Evento codificado.
+     * @return String con la descripción del evento.
+     */
+
+    public static String toString(long event) {
+
+        TypeBoardEvent type = getType(event);
+        String text = type + " source=" + getSource(event);
+
+        if (type == TypeBoardEvent.BOAT_PLACED || type == TypeBoardEvent.BOAT_SUNK) {
+
+            return text + " (" + getX(event) + "," + getY(event) + ") " + getBoat(event).getName()
+                    + " size=" + getBoatSize(event) + (isBoatVertical(event) ? " vertical" : " horizontal");
+        }
+
+        if (type == TypeBoardEvent.GAME_OVER || type == TypeBoardEvent.BOARD_CLEARED) {
+
+            return text;
+        }
+
+        return text + " (" + getX(event) + "," + getY(event) + ") " + AttackResult.getType(getResult(event));
+    }
+
+    private static long encode(TypeBoardEvent type, int source, int x, int y, int data) {
+
+        return type.ordinal()
+                | ((long) (source & 1) << SOURCE_SHIFT)
+                | ((x & COORD_MASK) << X_SHIFT)
+                | ((y & COORD_MASK) << Y_SHIFT)
+                | ((long) data << DATA_SHIFT);
+    }
+}
@@ -0,0 +1,94 @@
+package model;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class BoardEventBuffer {
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final long[] events;
+    private final int mask;
+    private final AtomicLong published;
+
+    public BoardEventBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public BoardEventBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+
+        events = new long[size];
+        mask = size - 1;
+        published = new AtomicLong();
+    }
+
+    /**
+     * Descripción: Publica un evento en el anillo.
+     * Pre: Solo un hilo publica a la vez (el hilo de la partida, o bajo el bloqueo de su sesión).
+     * Pos: El evento queda visible para todos los cursores. El escritor nunca espera a los lectores: si un lector
+     * se atrasa más que la capacidad, sus eventos más viejos se sobrescriben y su cursor lo detecta. La barrera
+     * storeStore ordena la escritura de la casilla después de la publicación anterior, de modo que un lector que
+     * ve la casilla sobrescrita también ve avanzar published y descarta la lectura.
+     * @param event Evento codificado con BoardEvent.
+     */
+
+    public void publish(long event) {
+
+        long sequence = published.get();
+
+        VarHandle.storeStoreFence();
+        events[(int) sequence & mask] = event;
+        published.lazySet(sequence + 1);
+    }
+
+    /**
+     * Descripción: Crea un cursor que lee los eventos publicados a partir de ahora.
+     * Pre: Ninguna.
+     * Pos: Cada consumidor usa su propio cursor, desde su propio hilo.
+     * @return BoardEventCursor nuevo.
+     */
+
+    public BoardEventCursor newCursor() {
+
+        return new BoardEventCursor(this, published.get());
+    }
+
+    public int getCapacity() {
+
+        return events.length;
+    }
+
+    /**
+     * Descripción: Obtiene la cantidad total de eventos publicados.
+     * Pre: Ninguna.
+     * Pos: Es la secuencia que tendrá el próximo evento.
+     * @return long Eventos publicados desde la creación del anillo.
+     */
+
+    public long getPublished() {
+
+        return published.get();
+    }
+
+    /**
+     * Descripción: Lee el evento de una secuencia si todavía no fue sobrescrito.
+     * Pre: sequence debe ser menor que getPublished().
+     * Pos: La lectura se valida después de copiar el valor; la barrera acquire impide que la nueva lectura de
+     * published se adelante a la copia, por lo que nunca devuelve un evento sobrescrito.
+     * @param sequence Secuencia del evento.
+     * @return long Evento, o BoardEvent.NONE si el escritor ya reutilizó la casilla.
+     */
+
+    long read(long sequence) {
+
+        long event = events[(int) sequence & mask];
+
+        VarHandle.acquireFence();
+
+        if (published.get() - sequence > mask) {
+
+            return BoardEvent.NONE;
+        }
+        return event;
+    }
+}
@@ -0,0 +1,119 @@
+package model;
+
+public class BoardEventCursor {
+    private final BoardEventBuffer buffer;
+    private long next;
+    private long missed;
+
+    BoardEventCursor(BoardEventBuffer buffer, long next) {
+        this.buffer = buffer;
+        this.next = next;
+    }
+
+    /**
+     * Descripción: Lee el próximo evento sin bloquear.
+     * Pre: El cursor se usa desde un único hilo.
+     * Pos: Si el cursor quedó atrás más que la capacidad del anillo, salta al evento más viejo disponible y suma los
+     * eventos perdidos en getMissed.
+     * @return long Próximo evento, o BoardEvent.NONE si no hay eventos nuevos.
+     */
+
+    public long poll() {
+
+        while (true) {
+
+            long published = buffer.getPublished();
+
+            if (next >= published) {
+
+                return BoardEvent.NONE;
+            }
+
+            long oldest = published - buffer.getCapacity() + 1;
+
+            if (next < oldest) {
+
+                missed += oldest - next;
+                next = oldest;
+            }
+
+            long event = buffer.read(next);
+
+            if (event != BoardEvent.NONE) {
+
+                next++;
+                return event;
+            }
+        }
+    }
+
+    /**
+     * Descripción: Entrega a un oyente los eventos disponibles.
+     * Pre: listener no debe ser null.
+     * Pos: Se entregan a lo sumo max eventos, en el hilo que llama.
+     * @param listener Oyente que recibe los eventos.
+     * @param max Cantidad máxima de eventos a entregar.
+     * @return int Eventos entregados.
+     */
+
+    public int drain(BoardEventListener listener, int max) {
+
+        int count = 0;
+
+        while (count < max) {
+
+            long event = poll();
+
+            if (event == BoardEvent.NONE) {
+
+                break;
+            }
+
+            listener.onEvent(event);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Descripción: Obtiene cuántos eventos se perdió el cursor por quedar atrás.
+     * Pre: Ninguna.
+     * Pos: Un valor positivo indica que el consumidor debe reconstruir su estado desde el tablero.
+     * @return long Eventos sobrescritos antes de ser leídos.
+     */
+
+    public long getMissed() {
+
+        return missed;
+    }
+
+    /**
+     * Descripción: Obtiene cuántos eventos publicados faltan por leer.
+     * Pre: Ninguna.
+     * Pos: Retorna el atraso actual del consumidor.
+     * @return long Eventos pendientes.
+     */
+
+    public long getLag() {
+
+        return buffer.getPublished() - next;
+    }
+
+    long getPosition() {
+
+        return next;
+    }
+
+    /**
+     * Descripción: Mueve el cursor a una secuencia del anillo.
+     * Pre: sequence debe provenir de BoardEventBuffer.getPublished, por ejemplo junto con una foto del tablero.
+     * Pos: El próximo poll lee desde sequence y los eventos perdidos vuelven a cero.
+     * @param sequence Secuencia desde la que leer.
+     */
+
+    void seek(long sequence) {
+
+        next = sequence;
+        missed = 0;
+    }
+}
@@ -0,0 +1,12 @@
+package model;
+
+public interface BoardEventListener {
+
+    /**
+     * Descripción: Recibe un evento de tablero.
+     * Pre: event no es BoardEvent.NONE.
+     * Pos: Se ejecuta en el hilo del consumidor que drena su cursor, nunca en el hilo de la partida.
+     * @param event Evento codificado con BoardEvent.
+     */
+    void onEvent(long event);
+}
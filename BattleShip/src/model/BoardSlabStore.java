@@ -0,0 +1,639 @@
+package model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+
+public class BoardSlabStore {
+    public static final int CHUNK_BYTES = 1 << 30;
+
+    private static final TypeBoat[] BOAT_TYPES = TypeBoat.values();
+
+    private static final int BOAT_COUNT = 0;
+    private static final int SUNK_BOATS = 4;
+    private static final int ATTACKED_COUNT = 8;
+    private static final int NEXT_FREE = 12;
+    private static final int VERSION = 16;
+    private static final int HEADER_BYTES = 24;
+
+    private static final int BOAT_START = 0;
+    private static final int BOAT_SIZE = 4;
+    private static final int BOAT_REMAINING = 8;
+    private static final int BOAT_TYPE = 12;
+    private static final int BOAT_FLAGS = 13;
+    private static final int BOAT_BYTES = 16;
+
+    private static final int FLAG_VERTICAL = 1;
+    private static final int FLAG_SUNK = 2;
+
+    private final int width;
+    private final int height;
+    private final int cells;
+    private final int words;
+    private final int maxBoats;
+    private final int capacity;
+    private final int slotBytes;
+    private final int slotsPerChunk;
+    private final int occupiedOffset;
+    private final int hitOffset;
+    private final int sunkOffset;
+    private final int attackedOffset;
+    private final int boatsOffset;
+    private final ByteBuffer[] chunks;
+
+    private int freeHead;
+    private int nextUnused;
+    private int usedSlots;
+
+    /**
+     * Descripción: Crea un almacén fuera del heap para tableros densos de unas dimensiones fijas.
+     * Pre: Las dimensiones deben corresponder a un tablero denso (a lo sumo Board.DENSE_MAX_CELLS casillas).
+     * Pos: Cada tablero ocupa una ranura de tamaño fijo con una cabecera, las capas de bits de ocupación, impactos,
+     * hundidos y ataques, y la tabla de barcos. Las ranuras viven en bloques directos de hasta CHUNK_BYTES que se
+     * reservan al usarse por primera vez, de modo que el heap no crece con la cantidad de tableros.
+     * @param width Ancho de los tableros.
+     * @param height Alto de los tableros.
+     * @param maxBoats Máximo de barcos por tablero.
+     * @param capacity Cantidad máxima de tableros.
+     */
+
+    public BoardSlabStore(int width, int height, int maxBoats, int capacity) {
+        if (width < 1 || height < 1 || (long) width * height > Board.DENSE_MAX_CELLS) {
+            throw new IllegalArgumentException("Dimensiones inválidas para el almacén: " + width + "x" + height);
+        }
+
+        if (maxBoats < 1 || capacity < 1) {
+            throw new IllegalArgumentException("Capacidad inválida: " + maxBoats + " barcos, " + capacity + " tableros");
+        }
+
+        this.width = width;
+        this.height = height;
+        this.cells = width * height;
+        this.words = (cells + 63) >>> 6;
+        this.maxBoats = maxBoats;
+        this.capacity = capacity;
+        this.occupiedOffset = HEADER_BYTES;
+        this.hitOffset = occupiedOffset + 8 * words;
+        this.sunkOffset = hitOffset + 8 * words;
+        this.attackedOffset = sunkOffset + 8 * words;
+        this.boatsOffset = attackedOffset + 8 * words;
+        this.slotBytes = boatsOffset + BOAT_BYTES * maxBoats;
+        this.slotsPerChunk = CHUNK_BYTES / slotBytes;
+        this.chunks = new ByteBuffer[(capacity + slotsPerChunk - 1) / slotsPerChunk];
+        this.freeHead = -1;
+    }
+
+    public int getWidth() {
+
+        return width;
+    }
+
+    public int getHeight() {
+
+        return height;
+    }
+
+    public int getCapacity() {
+
+        return capacity;
+    }
+
+    public int getSlotBytes() {
+
+        return slotBytes;
+    }
+
+    public synchronized int getUsedSlots() {
+
+        return usedSlots;
+    }
+
+    /**
+     * Descripción: Obtiene la memoria directa reservada hasta ahora.
+     * Pre: Ninguna.
+     * Pos: Cuenta los bloques completos reservados, usados o no.
+     * @return long Bytes fuera del heap.
+     */
+
+    public synchronized long getOffHeapBytes() {
+
+        long bytes = 0;
+
+        for (int i = 0; i < chunks.length; i++) {
+
+            if (chunks[i] != null) {
+
+                bytes += chunks[i].capacity();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Descripción: Reserva una ranura vacía para un tablero.
+     * Pre: Ninguna.
+     * Pos: Se reutilizan primero las ranuras liberadas, encadenadas dentro del propio bloque; la ranura queda sin
+     * barcos ni disparos.
+     * @return int Índice de la ranura, o -1 si el almacén está lleno.
+     */
+
+    public synchronized int allocate() {
+
+        int slot;
+
+        if (freeHead >= 0) {
+
+            slot = freeHead;
+            freeHead = chunk(slot).getInt(offset(slot) + NEXT_FREE);
+
+        } else if (nextUnused < capacity) {
+
+            slot = nextUnused++;
+
+            int index = slot / slotsPerChunk;
+
+            if (chunks[index] == null) {
+
+                int slots = Math.min(slotsPerChunk, capacity - index * slotsPerChunk);
+
+                chunks[index] = ByteBuffer.allocateDirect(slots * slotBytes).order(ByteOrder.nativeOrder());
+            }
+
+        } else {
+
+            return -1;
+        }
+
+        usedSlots++;
+        clear(slot);
+        return slot;
+    }
+
+    /**
+     * Descripción: Libera una ranura para que allocate la reutilice.
+     * Pre: slot debe haber sido obtenida con allocate y no estar liberada.
+     * Pos: La ranura queda al frente de la lista de libres.
+     * @param slot Ranura a liberar.
+     */
+
+    public synchronized void free(int slot) {
+
+        chunk(slot).putInt(offset(slot) + NEXT_FREE, freeHead);
+        freeHead = slot;
+        usedSlots--;
+    }
+
+    /**
+     * Descripción: Deja una ranura sin barcos ni disparos.
+     * Pre: slot debe estar reservada.
+     * Pos: Se ponen en cero la cabecera y las capas; la tabla de barcos no hace falta borrarla porque solo se leen
+     * las primeras getBoatCount entradas.
+     * @param slot Ranura a limpiar.
+     */
+
+    public void clear(int slot) {
+
+        ByteBuffer buffer = chunk(slot);
+        int base = offset(slot);
+
+        for (int i = 0; i < boatsOffset; i += 8) {
+
+            buffer.putLong(base + i, 0L);
+        }
+    }
+
+    /**
+     * Descripción: Verifica si un barco cabría en una ranura.
+     * Pre: slot debe estar reservada.
+     * Pos: Devuelve si todas las casillas del barco están dentro del tablero, libres y sin atacar, igual que Board.
+     * @param slot Ranura del tablero.
+     * @param x Coordenada X del origen.
+     * @param y Coordenada Y del origen.
+     * @param size Tamaño del barco.
+     * @param isVertical Orientación del barco.
+     * @return boolean Devuelve true si el barco cabe.
+     */
+
+    public boolean canPlaceBoat(int slot, int x, int y, int size, boolean isVertical) {
+
+        int endX = isVertical ? x : x + size - 1;
+        int endY = isVertical ? y + size - 1 : y;
+
+        if (size < 1 || x < 1 || y < 1 || endX > width || endY > height) {
+
+            return false;
+        }
+
+        ByteBuffer buffer = chunk(slot);
+        int base = offset(slot);
+        int first = (y - 1) * width + (x - 1);
+        int step = isVertical ? width : 1;
+
+        for (int i = 0; i < size; i++) {
+
+            int cell = first + i * step;
+
+            if (test(buffer, base + occupiedOffset, cell) || test(buffer, base + attackedOffset, cell)) {
+
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Descripción: Coloca un barco directamente en una ranura.
+     * Pre: slot debe estar reservada.
+     * Pos: Si el barco cabe y hay lugar en la tabla, se marcan sus casillas y se agrega a la tabla de barcos.
+     * @param slot Ranura del tablero.
+     * @param type Tipo del barco.
+     * @param x Coordenada X del origen.
+     * @param y Coordenada Y del origen.
+     * @param size Tamaño del barco.
+     * @param isVertical Orientación del barco.
+     * @return boolean Devuelve true si el barco se colocó.
+     */
+
+    public boolean placeBoat(int slot, TypeBoat type, int x, int y, int size, boolean isVertical) {
+
+        ByteBuffer buffer = chunk(slot);
+        int base = offset(slot);
+        int count = buffer.getInt(base + BOAT_COUNT);
+
+        if (count == maxBoats || !canPlaceBoat(slot, x, y, size, isVertical)) {
+
+            return false;
+        }
+
+        boolean vertical = size > 1 && isVertical;
+        int first = (y - 1) * width + (x - 1);
+        int step = vertical ? width : 1;
+
+        for (int i = 0; i < size; i++) {
+
+            set(buffer, base + occupiedOffset, first + i * step);
+        }
+
+        int entry = base + boatsOffset + count * BOAT_BYTES;
+
+        buffer.putInt(entry + BOAT_START, first);
+        buffer.putInt(entry + BOAT_SIZE, size);
+        buffer.putInt(entry + BOAT_REMAINING, size);
+        buffer.put(entry + BOAT_TYPE, (byte) type.ordinal());
+        buffer.put(entry + BOAT_FLAGS, (byte) (vertical ? FLAG_VERTICAL : 0));
+        buffer.putInt(base + BOAT_COUNT, count + 1);
+        buffer.putLong(base + VERSION, buffer.getLong(base + VERSION) + 1);
+        return true;
+    }
+
+    /**
+     * Descripción: Recibe un ataque en una coordenada de una ranura.
+     * Pre: slot debe estar reservada.
+     * Pos: Igual que Board.receiveAttack, pero resuelto sobre los bytes de la ranura.
+     * @param slot Ranura del tablero.
+     * @param x Coordenada X del ataque.
+     * @param y Coordenada Y del ataque.
+     * @return int Código de AttackResult con el resultado del disparo.
+     */
+
+    public int receiveAttack(int slot, int x, int y) {
+
+        if (x < 1 || x > width || y < 1 || y > height) {
+
+            return AttackResult.OUT_OF_BOUNDS;
+        }
+
+        return receiveAttack(slot, (y - 1) * width + (x - 1));
+    }
+
+    /**
+     * Descripción: Recibe un ataque sobre una casilla de una ranura, sin inflarla en objetos Board ni Boat.
+     * Pre: slot debe estar reservada.
+     * Pos: La casilla queda atacada; un impacto busca su barco en la tabla con aritmética sobre origen y tamaño, y si
+     * lo completa marca sus casillas como hundidas. Los códigos coinciden con los de Board para la misma flota.
+     * @param slot Ranura del tablero.
+     * @param cell Índice de la casilla, (y - 1) * ancho + (x - 1).
+     * @return int Código de AttackResult con el resultado del disparo.
+     */
+
+    public int receiveAttack(int slot, int cell) {
+
+        if (cell < 0 || cell >= cells) {
+
+            return AttackResult.OUT_OF_BOUNDS;
+        }
+
+        ByteBuffer buffer = chunk(slot);
+        int base = offset(slot);
+
+        if (test(buffer, base + attackedOffset, cell)) {
+
+            return AttackResult.ALREADY_ATTACKED;
+        }
+
+        set(buffer, base + attackedOffset, cell);
+        buffer.putInt(base + ATTACKED_COUNT, buffer.getInt(base + ATTACKED_COUNT) + 1);
+        buffer.putLong(base + VERSION, buffer.getLong(base + VERSION) + 1);
+
+        if (!test(buffer, base + occupiedOffset, cell)) {
+
+            return AttackResult.MISS;
+        }
+
+        set(buffer, base + hitOffset, cell);
+
+        int entry = findBoat(buffer, base, cell);
+        int remaining = buffer.getInt(entry + BOAT_REMAINING) - 1;
+
+        buffer.putInt(entry + BOAT_REMAINING, remaining);
+
+        if (remaining > 0) {
+
+            return AttackResult.HIT;
+        }
+
+        int first = buffer.getInt(entry + BOAT_START);
+        int size = buffer.getInt(entry + BOAT_SIZE);
+        int flags = buffer.get(entry + BOAT_FLAGS);
+        int step = (flags & FLAG_VERTICAL) != 0 ? width : 1;
+
+        for (int i = 0; i < size; i++) {
+
+            set(buffer, base + sunkOffset, first + i * step);
+        }
+
+        buffer.put(entry + BOAT_FLAGS, (byte) (flags | FLAG_SUNK));
+        buffer.putInt(base + SUNK_BOATS, buffer.getInt(base + SUNK_BOATS) + 1);
+
+        return AttackResult.sunk(BOAT_TYPES[buffer.get(entry + BOAT_TYPE)], size);
+    }
+
+    public boolean isAttacked(int slot, int cell) {
+
+        return cell >= 0 && cell < cells && test(chunk(slot), offset(slot) + attackedOffset, cell);
+    }
+
+    public boolean isCellHit(int slot, int cell) {
+
+        return cell >= 0 && cell < cells && test(chunk(slot), offset(slot) + hitOffset, cell);
+    }
+
+    public boolean isCellSunk(int slot, int cell) {
+
+        return cell >= 0 && cell < cells && test(chunk(slot), offset(slot) + sunkOffset, cell);
+    }
+
+    public boolean allBoatsSunk(int slot) {
+
+        ByteBuffer buffer = chunk(slot);
+        int base = offset(slot);
+
+        return buffer.getInt(base + SUNK_BOATS) == buffer.getInt(base + BOAT_COUNT);
+    }
+
+    public int getBoatCount(int slot) {
+
+        return chunk(slot).getInt(offset(slot) + BOAT_COUNT);
+    }
+
+    public int getUnattackedCount(int slot) {
+
+        return cells - chunk(slot).getInt(offset(slot) + ATTACKED_COUNT);
+    }
+
+    public long getVersion(int slot) {
+
+        return chunk(slot).getLong(offset(slot) + VERSION);
+    }
+
+    /**
+     * Descripción: Elige al azar una casilla sin atacar de una ranura.
+     * Pre: slot debe estar reservada.
+     * Pos: La casilla es uniforme entre las no atacadas; se ubica contando bits de la capa de ataques, sin la lista
+     * de casillas libres que mantiene Board.
+     * @param slot Ranura del tablero.
+     * @param random Generador de la partida.
+     * @return int Índice de la casilla, o -1 si ya se atacaron todas.
+     */
+
+    public int generateRandomAttackCell(int slot, GameRandom random) {
+
+        int free = getUnattackedCount(slot);
+
+        if (free == 0) {
+
+            return -1;
+        }
+
+        ByteBuffer buffer = chunk(slot);
+        int layer = offset(slot) + attackedOffset;
+        int rank = random.nextInt(free);
+
+        for (int w = 0; w < words; w++) {
+
+            long bits = ~buffer.getLong(layer + 8 * w);
+
+            if (w == words - 1 && (cells & 63) != 0) {
+
+                bits &= (1L << cells) - 1;
+            }
+
+            int count = Long.bitCount(bits);
+
+            if (rank < count) {
+
+                for (int i = 0; i < rank; i++) {
+
+                    bits &= bits - 1;
+                }
+                return (w << 6) + Long.numberOfTrailingZeros(bits);
+            }
+
+            rank -= count;
+        }
+        return -1;
+    }
+
+    /**
+     * Descripción: Copia las capas de una ranura en una foto, para mostrarla sin inflar el tablero.
+     * Pre: slot debe estar reservada.
+     * Pos: out queda con la ocupación, los ataques, los impactos y los hundidos de la ranura.
+     * @param slot Ranura del tablero.
+     * @param out Foto de las mismas dimensiones que el almacén.
+     * @return boolean true si se copió, false si las dimensiones no coinciden.
+     */
+
+    public boolean snapshot(int slot, BoardSnapshot out) {
+
+        if (out.getWidth() != width || out.getHeight() != height) {
+
+            return false;
+        }
+
+        ByteBuffer buffer = chunk(slot);
+        int base = offset(slot);
+
+        readLayer(buffer, base + occupiedOffset, out.occupiedLayer());
+        readLayer(buffer, base + attackedOffset, out.attackedLayer());
+        readLayer(buffer, base + hitOffset, out.hitLayer());
+        readLayer(buffer, base + sunkOffset, out.sunkLayer());
+        out.setVersion(buffer.getLong(base + VERSION));
+        return true;
+    }
+
+    /**
+     * Descripción: Guarda un tablero en una ranura, para liberar sus objetos del heap.
+     * Pre: slot debe estar reservada.
+     * Pos: La ranura queda con la misma flota y los mismos disparos que el tablero, que no se modifica.
+     * @param slot Ranura de destino.
+     * @param board Tablero a guardar.
+     * @return boolean true si se guardó, false si el tablero no coincide en dimensiones o tiene demasiados barcos.
+     */
+
+    public boolean store(int slot, Board board) {
+
+        ArrayList<Boat> boats = board.getBoats();
+
+        if (board.getWidth() != width || board.getHeight() != height || boats.size() > maxBoats) {
+
+            return false;
+        }
+
+        BoardSnapshot layers = new BoardSnapshot(width, height);
+
+        board.snapshot(layers);
+
+        ByteBuffer buffer = chunk(slot);
+        int base = offset(slot);
+        int sunkBoats = 0;
+        int attackedCount = 0;
+
+        writeLayer(buffer, base + occupiedOffset, layers.occupiedLayer());
+        writeLayer(buffer, base + attackedOffset, layers.attackedLayer());
+        writeLayer(buffer, base + hitOffset, layers.hitLayer());
+        writeLayer(buffer, base + sunkOffset, layers.sunkLayer());
+
+        for (int w = 0; w < words; w++) {
+
+            attackedCount += Long.bitCount(layers.attackedLayer()[w]);
+        }
+
+        for (int i = 0; i < boats.size(); i++) {
+
+            Boat boat = boats.get(i);
+            int entry = base + boatsOffset + i * BOAT_BYTES;
+            int flags = (boat.isVertical() ? FLAG_VERTICAL : 0) | (boat.isSunk() ? FLAG_SUNK : 0);
+
+            buffer.putInt(entry + BOAT_START, (boat.getY() - 1) * width + (boat.getX() - 1));
+            buffer.putInt(entry + BOAT_SIZE, boat.getSize());
+            buffer.putInt(entry + BOAT_REMAINING, boat.getSize() - boat.getHitCount());
+            buffer.put(entry + BOAT_TYPE, (byte) boat.getType().ordinal());
+            buffer.put(entry + BOAT_FLAGS, (byte) flags);
+
+            if (boat.isSunk()) {
+
+                sunkBoats++;
+            }
+        }
+
+        buffer.putInt(base + BOAT_COUNT, boats.size());
+        buffer.putInt(base + SUNK_BOATS, sunkBoats);
+        buffer.putInt(base + ATTACKED_COUNT, attackedCount);
+        buffer.putLong(base + VERSION, layers.getVersion());
+        return true;
+    }
+
+    /**
+     * Descripción: Reconstruye un tablero a partir de una ranura, para volver a jugarlo con estrategias y eventos.
+     * Pre: slot debe estar reservada.
+     * Pos: Se coloca la flota y se marcan los disparos de una vez con restoreAttacked; la ranura no se modifica.
+     * @param slot Ranura de origen.
+     * @return Board con la partida de la ranura.
+     */
+
+    public Board load(int slot) {
+
+        ByteBuffer buffer = chunk(slot);
+        int base = offset(slot);
+        int count = buffer.getInt(base + BOAT_COUNT);
+        Board board = new Board(width, height);
+        long[] attacked = new long[words];
+
+        for (int i = 0; i < count; i++) {
+
+            int entry = base + boatsOffset + i * BOAT_BYTES;
+            int first = buffer.getInt(entry + BOAT_START);
+            boolean vertical = (buffer.get(entry + BOAT_FLAGS) & FLAG_VERTICAL) != 0;
+
+            board.placeBoat(board.createBoat(BOAT_TYPES[buffer.get(entry + BOAT_TYPE)], first % width + 1,
+                    first / width + 1, buffer.getInt(entry + BOAT_SIZE), vertical));
+        }
+
+        readLayer(buffer, base + attackedOffset, attacked);
+        board.restoreAttacked(attacked);
+        return board;
+    }
+
+    private int findBoat(ByteBuffer buffer, int base, int cell) {
+
+        int count = buffer.getInt(base + BOAT_COUNT);
+
+        for (int i = 0; i < count; i++) {
+
+            int entry = base + boatsOffset + i * BOAT_BYTES;
+            int offset = cell - buffer.getInt(entry + BOAT_START);
+            int size = buffer.getInt(entry + BOAT_SIZE);
+
+            if ((buffer.get(entry + BOAT_FLAGS) & FLAG_VERTICAL) != 0) {
+
+                if (offset >= 0 && offset % width == 0 && offset / width < size) {
+
+                    return entry;
+                }
+
+            } else if (offset >= 0 && offset < size) {
+
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    private ByteBuffer chunk(int slot) {
+
+        return chunks[slot / slotsPerChunk];
+    }
+
+    private int offset(int slot) {
+
+        return (slot % slotsPerChunk) * slotBytes;
+    }
+
+    private static boolean test(ByteBuffer buffer, int layer, int cell) {
+
+        return (buffer.getLong(layer + ((cell >>> 6) << 3)) & (1L << cell)) != 0;
+    }
+
+    private static void set(ByteBuffer buffer, int layer, int cell) {
+
+        int index = layer + ((cell >>> 6) << 3);
+
+        buffer.putLong(index, buffer.getLong(index) | (1L << cell));
+    }
+
+    private void readLayer(ByteBuffer buffer, int layer, long[] out) {
+
+        for (int w = 0; w < words; w++) {
+
+            out[w] = buffer.getLong(layer + 8 * w);
+        }
+    }
+
+    private void writeLayer(ByteBuffer buffer, int layer, long[] in) {
+
+        for (int w = 0; w < words; w++) {
+
+            buffer.putLong(layer + 8 * w, in[w]);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package model;
+
+import java.util.Arrays;
+
+public class BoardSnapshot {
+    private final int width;
+    private final int height;
+    private final int cells;
+    private long version;
+    private long[] occupied;
+    private long[] attacked;
+    private long[] hit;
+    private long[] sunk;
+
+    public BoardSnapshot(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.cells = width * height;
+
+        int words = (cells + 63) / 64;
+
+        occupied = new long[words];
+        attacked = new long[words];
+        hit = new long[words];
+        sunk = new long[words];
+    }
+
+    public int getWidth() {
+
+        return width;
+    }
+
+    public int getHeight() {
+
+        return height;
+    }
+
+    /**
+     * Descripción: Obtiene la versión del tablero en el momento de la foto.
+     * Pre: Ninguna.
+     * Pos: Las fotos mantenidas con apply no actualizan la versión.
+     * @return long Versión del tablero, ver Board.getVersion.
+     */
+
+    public long getVersion() {
+
+        return version;
+    }
+
+    /**
+     * Descripción: Obtiene el estado de una casilla con la misma convención que Board.getGrid.
+     * Pre: x e y deben estar dentro del tablero.
+     * Pos: No se crea ningún objeto.
+     * @param x Coordenada X.
+     * @param y Coordenada Y.
+     * @return int 0 agua, 1 barco, 2 impacto, 3 hundido.
+     */
+
+    public int getState(int x, int y) {
+
+        int cell = (y - 1) * width + (x - 1);
+
+        if (test(sunk, cell)) {
+
+            return 3;
+        }
+        if (test(hit, cell)) {
+
+            return 2;
+        }
+        if (test(occupied, cell)) {
+
+            return 1;
+        }
+        return 0;
+    }
+
+    public boolean isAttacked(int x, int y) {
+
+        return test(attacked, (y - 1) * width + (x - 1));
+    }
+
+    /**
+     * Descripción: Aplica un evento de tablero sobre la foto, para mantenerla al día sin volver a pedir el tablero.
+     * Pre: event debe provenir del mismo tablero y ser posterior a la foto.
+     * Pos: BOAT_PLACED marca las casillas del barco, SHOT_RESOLVED la casilla atacada y BOAT_SUNK todas las casillas
+     * del barco hundido; el costo es proporcional al tamaño del barco, no al del tablero. BOARD_CLEARED vacía la
+     * foto.
+     * @param event Evento codificado con BoardEvent.
+     */
+
+    public void apply(long event) {
+
+        TypeBoardEvent type = BoardEvent.getType(event);
+        int x = BoardEvent.getX(event);
+        int y = BoardEvent.getY(event);
+
+        if (type == TypeBoardEvent.SHOT_RESOLVED) {
+
+            int cell = (y - 1) * width + (x - 1);
+
+            set(attacked, cell);
+
+            if (AttackResult.isHit(BoardEvent.getResult(event))) {
+
+                set(hit, cell);
+            }
+
+        } else if (type == TypeBoardEvent.BOARD_CLEARED) {
+
+            Arrays.fill(occupied, 0L);
+            Arrays.fill(attacked, 0L);
+            Arrays.fill(hit, 0L);
+            Arrays.fill(sunk, 0L);
+
+        } else if (type == TypeBoardEvent.BOAT_PLACED || type == TypeBoardEvent.BOAT_SUNK) {
+
+            long[] layer = type == TypeBoardEvent.BOAT_PLACED ? occupied : sunk;
+            int step = BoardEvent.isBoatVertical(event) ? width : 1;
+            int cell = (y - 1) * width + (x - 1);
+
+            for (int k = 0; k < BoardEvent.getBoatSize(event); k++) {
+
+                set(layer, cell + k * step);
+            }
+        }
+    }
+
+    /**
+     * Descripción: Copia en esta foto el contenido de otra del mismo tamaño.
+     * Pre: other debe tener las mismas dimensiones.
+     * Pos: Se reutilizan los arreglos de esta foto.
+     * @param other Foto de origen.
+     */
+
+    public void copyFrom(BoardSnapshot other) {
+
+        version = other.version;
+        System.arraycopy(other.occupied, 0, occupied, 0, occupied.length);
+        System.arraycopy(other.attacked, 0, attacked, 0, attacked.length);
+        System.arraycopy(other.hit, 0, hit, 0, hit.length);
+        System.arraycopy(other.sunk, 0, sunk, 0, sunk.length);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        BoardSnapshot that = (BoardSnapshot) obj;
+        return width == that.width && height == that.height && Arrays.equals(occupied, that.occupied)
+                && Arrays.equals(attacked, that.attacked) && Arrays.equals(hit, that.hit)
+                && Arrays.equals(sunk, that.sunk);
+    }
+
+    @Override
+    public int hashCode() {
+
+        return 31 * Arrays.hashCode(attacked) + Arrays.hashCode(occupied);
+    }
+
+    long[] occupiedLayer() {
+
+        return occupied;
+    }
+
+    long[] attackedLayer() {
+
+        return attacked;
+    }
+
+    long[] hitLayer() {
+
+        return hit;
+    }
+
+    long[] sunkLayer() {
+
+        return sunk;
+    }
+
+    void setVersion(long version) {
+
+        this.version = version;
+    }
+
+    private static boolean test(long[] layer, int cell) {
+
+        return (layer[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    private static void set(long[] layer, int cell) {
+
+        layer[cell >>> 6] |= 1L << cell;
+    }
+}
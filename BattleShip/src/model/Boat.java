@@ -1,46 +1,43 @@
 package model;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.List;
 
 public class Boat {
     private TypeBoat type;
-    private ArrayList<Coordinate> coordinates;
+    private int x;
+    private int y;
+    private int size;
+    private boolean isVertical;
+    private long hits;
+    private long[] wideHits;
+    private int hitCount;
     private boolean isSunk;
+    private List<Coordinate> coordinates;
 
     public Boat() {
-        
-        this.coordinates = new ArrayList<>();
+
         this.isSunk = false;
     }
 
     /**
      * Descripción: Inicializa un barco estándar basado en un tipo y posición inicial.
      * Pre: El tipo debe estar definido y debe haber una posición válida para el barco.
-     * Pos: Se genera un barco estándar con sus coordenadas en una orientación predeterminada.
+     * Pos: Se genera un barco estándar con su origen, tamaño y orientación predeterminada, sin impactos.
      * @param type Tipo del barco.
      * @param x Coordenada X de la posición inicial del barco.
      * @param y Coordenada Y de la posición inicial del barco.
      */
 
     public void initializeStandardBoat(TypeBoat type, int x, int y) {
-        this.type = type;
-        this.coordinates.clear();
-        this.coordinates.add(new Coordinate(x, y));
-        
-        for (int i = 1; i < type.getDefaultSize(); i++) {
-            if (type.isDefaultVertical()) {
-                this.coordinates.add(new Coordinate(x, y + i));
-            } else {
-                this.coordinates.add(new Coordinate(x + i, y));
-            }
-        }
+        initialize(type, x, y, type.getDefaultSize(), type.isDefaultVertical());
      }
 
 
      /**
      * Descripción: Inicializa un barco personalizado con tamaño y orientación definidos por el usuario.
      * Pre: Las coordenadas iniciales deben ser válidas, y el tamaño y orientación deben ser especificados.
-     * Pos: Se genera un barco con las coordenadas correspondientes al tamaño y orientación proporcionados.
+     * Pos: Se genera un barco con el origen, tamaño y orientación proporcionados, sin impactos.
      * @param x Coordenada X de la posición inicial del barco.
      * @param y Coordenada Y de la posición inicial del barco.
      * @param size Tamaño del barco.
@@ -48,17 +45,16 @@ public class Boat {
      */
 
     public void initializeCustomBoat(int x, int y, int size, boolean isVertical) {
-        this.type = TypeBoat.PERSONALIZADO;
-        this.coordinates.clear();
-        this.coordinates.add(new Coordinate(x, y));
-        
-        for (int i = 1; i < size; i++) {
-            if (isVertical) {
-                this.coordinates.add(new Coordinate(x, y + i));
-            } else {
-                this.coordinates.add(new Coordinate(x + i, y));
-            }
-        }
+        initialize(TypeBoat.PERSONALIZADO, x, y, size, isVertical);
+    }
+
+    private void initialize(TypeBoat type, int x, int y, int size, boolean isVertical) {
+        this.type = type;
+        this.x = x;
+        this.y = y;
+        this.size = size;
+        this.isVertical = size > 1 && isVertical;
+        clearHits();
     }
 
     /**
@@ -71,16 +67,66 @@ public class Boat {
         return type;
     }
 
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Descripción: Indica la orientación del barco.
+     * Pre: El barco debe estar inicializado.
+     * Pos: Un barco de una sola casilla se considera horizontal.
+     * @return boolean Devuelve true si el barco ocupa casillas de una misma columna.
+     */
+    public boolean isVertical() {
+        return isVertical;
+    }
+
     /**
      * Descripción: Obtiene las coordenadas ocupadas por el barco.
-     * Pre: El barco debe estar creado con un conjunto de coordenadas.
-     * Pos: Devuelve la lista de coordenadas ocupadas por el barco.
-     * @return ArrayList<Coordinate> Devuelve una lista de coordenadas donde está ubicado el barco.
+     * Pre: El barco debe estar inicializado.
+     * Pos: Devuelve una vista de solo lectura que calcula cada coordenada al pedirla a partir del origen, sin guardar
+     * una lista; la vista sigue al barco si se vuelve a inicializar.
+     * @return List<Coordinate> Devuelve las coordenadas donde está ubicado el barco, desde el origen.
      */
-    public ArrayList<Coordinate> getCoordinates() {
+    public List<Coordinate> getCoordinates() {
+        if (coordinates == null) {
+            coordinates = new AbstractList<Coordinate>() {
+                @Override
+                public Coordinate get(int index) {
+                    if (index < 0 || index >= size) {
+                        throw new IndexOutOfBoundsException("Índice: " + index + ", tamaño: " + size);
+                    }
+                    return coordinateAt(index);
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
         return coordinates;
     }
 
+    /**
+     * Descripción: Calcula la coordenada de una casilla del barco.
+     * Pre: index debe estar entre 0 y getSize() - 1.
+     * Pos: Devuelve la coordenada sin recorrer el barco.
+     * @param index Posición de la casilla contando desde el origen.
+     * @return Coordinate Coordenada de la casilla.
+     */
+    public Coordinate coordinateAt(int index) {
+        return isVertical ? Coordinate.of(x, y + index) : Coordinate.of(x + index, y);
+    }
+
     /**
      * Descripción: Verifica si el barco ha sido hundido.
      * Pre: El barco debe estar creado.
@@ -104,11 +150,90 @@ public class Boat {
     /**
      * Descripción: Verifica si el barco contiene una coordenada específica.
      * Pre: El barco debe tener coordenadas definidas.
-     * Pos: Indica si la coordenada está dentro del barco.
+     * Pos: Indica si la coordenada está dentro del barco, comparando con el origen en tiempo constante.
      * @param coord Coordenada a verificar.
      * @return boolean Devuelve true si la coordenada está dentro del barco, false si no.
      */
     public boolean containsCoordinate(Coordinate coord) {
-        return coordinates.contains(coord);
+        return indexOf(coord.getX(), coord.getY()) >= 0;
+    }
+
+    /**
+     * Descripción: Calcula qué casilla del barco ocupa una coordenada.
+     * Pre: El barco debe estar inicializado.
+     * Pos: Devuelve la posición contando desde el origen, en tiempo constante.
+     * @param x Coordenada X.
+     * @param y Coordenada Y.
+     * @return int Posición de la casilla en el barco, o -1 si el barco no ocupa la coordenada.
+     */
+    public int indexOf(int x, int y) {
+        int along = isVertical ? y - this.y : x - this.x;
+        int across = isVertical ? x - this.x : y - this.y;
+
+        if (across != 0 || along < 0 || along >= size) {
+            return -1;
+        }
+        return along;
+    }
+
+    /**
+     * Descripción: Registra un impacto en una casilla del barco.
+     * Pre: index debe estar entre 0 y getSize() - 1.
+     * Pos: La casilla queda marcada en la máscara de impactos; un segundo impacto en la misma casilla no cuenta.
+     * @param index Posición de la casilla contando desde el origen.
+     * @return int Cantidad de casillas del barco que siguen sin impacto.
+     */
+    public int registerHit(int index) {
+        if (!isHit(index)) {
+            if (index < 64) {
+                hits |= 1L << index;
+            } else {
+                wideHits[(index >>> 6) - 1] |= 1L << index;
+            }
+            hitCount++;
+        }
+        return size - hitCount;
+    }
+
+    /**
+     * Descripción: Verifica si una casilla del barco recibió un impacto.
+     * Pre: index debe estar entre 0 y getSize() - 1.
+     * Pos: Consulta la máscara de impactos.
+     * @param index Posición de la casilla contando desde el origen.
+     * @return boolean Devuelve true si la casilla fue impactada.
+     */
+    public boolean isHit(int index) {
+        long word = index < 64 ? hits : wideHits[(index >>> 6) - 1];
+
+        return (word & (1L << index)) != 0;
+    }
+
+    public int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Descripción: Borra todos los impactos del barco.
+     * Pre: Ninguna.
+     * Pos: Los barcos de hasta 64 casillas solo usan una palabra de 64 bits; los más largos reutilizan su arreglo
+     * de palabras adicionales si ya tiene el tamaño necesario.
+     */
+    public void clearHits() {
+        hits = 0L;
+        hitCount = 0;
+
+        if (size <= 64) {
+            return;
+        }
+
+        int extraWords = (size - 1) >>> 6;
+
+        if (wideHits == null || wideHits.length < extraWords) {
+            wideHits = new long[extraWords];
+        } else {
+            for (int i = 0; i < wideHits.length; i++) {
+                wideHits[i] = 0L;
+            }
+        }
     }
 }
@@ -1,8 +1,28 @@
 package model;
 
-import java.util.Random;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class Controller {
+    public static final int STATE_MAGIC = 0x42534731;
+    public static final int STATE_VERSION = 2;
+
+    private static final int STATE_HEADER_BYTES = 138;
+    private static final int MAX_RANDOM_CUSTOM_BOATS = 10;
+    private static final TypeBoat[] STANDARD_BOATS = TypeBoat.getStandardBoats();
+    private static final int[] STANDARD_SIZES = new int[STANDARD_BOATS.length];
+    private static final boolean[] STANDARD_VERTICAL = new boolean[STANDARD_BOATS.length];
+
+    static {
+
+        for (int i = 0; i < STANDARD_BOATS.length; i++) {
+
+            STANDARD_SIZES[i] = STANDARD_BOATS[i].getDefaultSize();
+            STANDARD_VERTICAL[i] = STANDARD_BOATS[i].isDefaultVertical();
+        }
+    }
+
     private Player human;
     private Player machine;
     private int standardHumanWins;
@@ -10,30 +30,207 @@ public class Controller {
     private int customHumanWins;
     private int customMachineWins;
     private Coordinate lastMachineAttack;
-    private boolean lastMachineAttackHit;
+    private int lastMachineAttackResult;
+    private AttackStrategy machineStrategy;
+    private boolean machineStrategyStarted;
+    private boolean isExpertMode;
+    private long expertLatencyNanos;
+    private BoardEventBuffer eventBuffer;
+    private StatisticsStore statistics;
+    private final GameRandom seeds;
+    private final GameRandom random;
+    private long gameSeed;
+    private long nextGameSeed;
 
     private int currentBoatIndex;
     private boolean isCustomGame;
     private int customBoatsCount;
 
+    private int[] fleetSizes;
+    private boolean[] fleetVertical;
+    private int[] fleetXs;
+    private int[] fleetYs;
+    private int[] fleetStarts;
+    private long[] occupancy;
+    private int[] legalStarts;
+    private int[][] candidates;
+
     public Controller() {
 
-        human = new Player("Humano", TypePlayer.HUMAN);
+        this(Board.SIZE, Board.SIZE);
+    }
+
+    public Controller(int width, int height) {
 
-        machine = new Player("Máquina", TypePlayer.MACHINE);
+        this(width, height, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Descripción: Crea un controlador cuyas partidas dependen solo de la semilla indicada.
+     * Pre: Las dimensiones deben ser válidas para Board.
+     * Pos: La primera partida usa seed y las siguientes toman su semilla de un generador iniciado con seed, de modo
+     * que dos controladores con la misma semilla y las mismas jugadas del humano juegan exactamente las mismas
+     * partidas.
+     * @param width Ancho de los tableros.
+     * @param height Alto de los tableros.
+     * @param seed Semilla de la serie de partidas.
+     */
+
+    public Controller(int width, int height, long seed) {
+
+        human = new Player("Humano", TypePlayer.HUMAN, width, height);
+
+        machine = new Player("Máquina", TypePlayer.MACHINE, width, height);
+
+        machineStrategy = new ProbabilityDensityStrategy();
+
+        int fleet = Math.max(STANDARD_BOATS.length, MAX_RANDOM_CUSTOM_BOATS);
+
+        fleetSizes = new int[fleet];
+        fleetVertical = new boolean[fleet];
+        fleetXs = new int[fleet];
+        fleetYs = new int[fleet];
+        fleetStarts = new int[fleet];
+        occupancy = new long[0];
+        legalStarts = new int[0];
+        candidates = new int[fleet][0];
+
+        seeds = new GameRandom(seed);
+
+        random = new GameRandom(seed);
+
+        nextGameSeed = seed;
+
+        seedGame(seed);
+    }
+
+    /**
+     * Descripción: Cambia las dimensiones de los tableros de ambos jugadores.
+     * Pre: Se debe llamar antes de colocar los barcos de una partida.
+     * Pos: Si las dimensiones cambian, ambos jugadores reciben tableros nuevos y vacíos; si no, no se modifica nada.
+     * @param width Ancho del tablero, entre 1 y Board.MAX_SIZE.
+     * @param height Alto del tablero, entre 1 y Board.MAX_SIZE.
+     * @return boolean true si las dimensiones son válidas, false si no.
+     */
+
+    public boolean setBoardSize(int width, int height) {
+
+        if (width < 1 || width > Board.MAX_SIZE || height < 1 || height > Board.MAX_SIZE) {
+
+            return false;
+        }
+
+        if (width != getBoardWidth() || height != getBoardHeight()) {
+
+            human = new Player(human.getName(), TypePlayer.HUMAN, width, height);
+
+            machine = new Player(machine.getName(), TypePlayer.MACHINE, width, height);
+
+            setEventBuffer(eventBuffer);
+
+            seedGame(gameSeed);
+
+            machineStrategyStarted = false;
+        }
+        return true;
+    }
+
+    public int getBoardWidth() {
+
+        return human.getBoard().getWidth();
+    }
+
+    public int getBoardHeight() {
+
+        return human.getBoard().getHeight();
     }
-    
 
 
+    /**
+     * Descripción: Deja ambos tableros vacíos para jugar otra partida con los mismos jugadores.
+     * Pre: Ninguna.
+     * Pos: Los tableros se limpian con initializeGrid y sus barcos quedan disponibles para reutilizarse; se reinicia
+     * la colocación y el último ataque de la máquina, y la estrategia vuelve a empezar. Se conservan las dimensiones,
+     * los contadores de victorias y el modo experto, y no se reserva memoria nueva.
+     * @return void, deja el juego listo para colocar barcos.
+     */
+
+    public void newGame() {
+
+        long seed = nextGameSeed;
+
+        nextGameSeed = seeds.nextLong();
+
+        newGame(seed);
+    }
+
+    /**
+     * Descripción: Deja ambos tableros vacíos para jugar una partida determinada por la semilla indicada.
+     * Pre: Ninguna.
+     * Pos: Igual que newGame, pero toda la aleatoriedad de la partida (flotas al azar, disparos automáticos y
+     * desempates de la estrategia) sale de seed: repetir la semilla y las jugadas del humano repite la partida.
+     * @param seed Semilla de la partida, por ejemplo la obtenida con getGameSeed.
+     * @return void, deja el juego listo para colocar barcos.
+     */
+
+    public void newGame(long seed) {
+
+        seedGame(seed);
+
+        human.getBoard().initializeGrid();
+
+        machine.getBoard().initializeGrid();
+
+        currentBoatIndex = 0;
+
+        lastMachineAttack = null;
+
+        lastMachineAttackResult = AttackResult.MISS;
+
+        machineStrategyStarted = false;
+    }
+
+    /**
+     * Descripción: Obtiene la semilla de la partida en curso.
+     * Pre: Ninguna.
+     * Pos: Con newGame(getGameSeed()), o creando un controlador con esa semilla, se puede volver a jugar la partida
+     * de forma idéntica.
+     * @return long Semilla de la partida.
+     */
+
+    public long getGameSeed() {
+
+        return gameSeed;
+    }
+
+    /**
+     * Descripción: Reinicia los generadores de la partida a partir de su semilla.
+     * Pre: Ninguna.
+     * Pos: El generador de colocación del controlador y el de cada tablero quedan separados con split, de modo que
+     * la flota de un jugador no cambia según cuántos disparos al azar se hayan hecho. No se crean objetos.
+     * @param seed Semilla de la partida.
+     */
+
+    private void seedGame(long seed) {
+
+        gameSeed = seed;
+
+        random.setSeed(seed);
+
+        random.splitInto(human.getBoard().getRandom());
+
+        random.splitInto(machine.getBoard().getRandom());
+    }
+
     /**
      * Descripción: Prepara el juego estándar reiniciando el índice de barcos y marcando como no personalizado.
-     * Pos: El juego está listo para colocar barcos estándar.
+     * Pos: Los tableros quedan vacíos con newGame y el juego está listo para colocar barcos estándar.
      * @return void, configura el juego en modo estándar.
      */
 
     public void prepareStandardBoats() {
 
-        currentBoatIndex = 0;
+        newGame();
 
         isCustomGame = false;
     }
@@ -41,20 +238,71 @@ public class Controller {
     /**
      * Descripción: Prepara el juego personalizado con la cantidad especificada de barcos.
      * Pre: boatCount debe ser un número positivo.
-     * Pos: El juego está listo para colocar barcos personalizados.
+     * Pos: Los tableros quedan vacíos con newGame y el juego está listo para colocar barcos personalizados.
      * @param boatCount Cantidad de barcos personalizados a colocar.
      * @return void, configura el juego en modo personalizado.
      */
 
     public void prepareCustomBoats(int boatCount) {
 
-        this.customBoatsCount = boatCount;
+        newGame();
 
-        currentBoatIndex = 0;
+        this.customBoatsCount = boatCount;
 
         isCustomGame = true;
     }
 
+    /**
+     * Descripción: Cambia la estrategia de ataque de la máquina.
+     * Pre: strategy no debe ser null.
+     * Pos: La estrategia se usa desde el próximo ataque de la máquina; por defecto se usa ProbabilityDensityStrategy.
+     * @param strategy Estrategia de ataque de la máquina.
+     * @return void, configura la estrategia de la máquina.
+     */
+
+    public void setMachineStrategy(AttackStrategy strategy) {
+
+        machineStrategy = strategy;
+
+        machineStrategyStarted = false;
+    }
+
+    /**
+     * Descripción: Activa o desactiva el modo experto de la máquina, que muestrea flotas con Monte Carlo en paralelo.
+     * Pre: latencyBudgetNanos debe ser positivo si expert es true.
+     * Pos: La máquina usa MonteCarloStrategy con el presupuesto de latencia indicado, o vuelve a la estrategia de densidad.
+     * @param expert true para activar el modo experto.
+     * @param latencyBudgetNanos Tiempo máximo por jugada en nanosegundos (por ejemplo 5_000_000 para 5 ms).
+     * @return void, configura la estrategia de la máquina.
+     */
+
+    public void setExpertMode(boolean expert, long latencyBudgetNanos) {
+
+        if (expert) {
+
+            setMachineStrategy(new MonteCarloStrategy(latencyBudgetNanos));
+
+        } else {
+
+            setMachineStrategy(new ProbabilityDensityStrategy());
+        }
+
+        isExpertMode = expert;
+        expertLatencyNanos = expert ? latencyBudgetNanos : 0;
+    }
+
+    /**
+     * Descripción: Indica si la máquina está en modo experto.
+     * Pre: Ninguna.
+     * Pos: Retorna el estado del modo experto.
+     * @return boolean true si el modo experto está activo.
+     */
+
+    public boolean isExpertMode() {
+
+        return isExpertMode;
+    }
+
     /**
      * Descripción: Obtiene información sobre el barco actual que se está colocando.
      * Pre: El juego debe estar en modo de colocación de barcos.
@@ -70,7 +318,7 @@ public class Controller {
 
         } else {
 
-            TypeBoat type = TypeBoat.getStandardBoats()[currentBoatIndex];
+            TypeBoat type = STANDARD_BOATS[currentBoatIndex];
 
             String orientation = "Horizontal";
 
@@ -98,7 +346,7 @@ public class Controller {
             return currentBoatIndex >= customBoatsCount;
             
         } else {
-            return currentBoatIndex >= TypeBoat.getStandardBoats().length;
+            return currentBoatIndex >= STANDARD_BOATS.length;
         }
     }
 
@@ -119,7 +367,7 @@ public class Controller {
     /**
      * Descripción: Intenta colocar el barco estándar actual en las coordenadas especificadas.
      * Pre: Las coordenadas deben estar dentro del tablero.
-     * Pos: Coloca el barco si es posible y avanza al siguiente barco.
+     * Pos: Coloca el barco si es posible y avanza al siguiente barco; con la flota completa no se coloca nada.
      * @param x Coordenada X donde colocar el barco.
      * @param y Coordenada Y donde colocar el barco.
      * @return boolean indicando si el barco fue colocado exitosamente.
@@ -127,13 +375,13 @@ public class Controller {
 
     public boolean tryPlaceCurrentHumanBoat(int x, int y) {
 
-        if (isCustomGame) {
+        if (isCustomGame || isAllHumanBoatsPlaced()) {
 
             return false;
         }
 
-        TypeBoat type = TypeBoat.getStandardBoats()[currentBoatIndex];
-        Boat boat = new Boat();
+        TypeBoat type = STANDARD_BOATS[currentBoatIndex];
+        Boat boat = human.getBoard().obtainBoat();
         boat.initializeStandardBoat(type, x, y);
 
         if (human.getBoard().placeBoat(boat)) {
@@ -146,7 +394,7 @@ public class Controller {
    /**
      * Descripción: Intenta colocar un barco personalizado en las coordenadas especificadas.
      * Pre: Las coordenadas deben estar dentro del tablero.
-     * Pos: Coloca el barco si es posible y avanza al siguiente barco.
+     * Pos: Coloca el barco si es posible y avanza al siguiente barco; con la flota completa no se coloca nada.
      * @param x Coordenada X donde colocar el barco.
      * @param y Coordenada Y donde colocar el barco.
      * @param size Tamaño del barco.
@@ -156,12 +404,12 @@ public class Controller {
 
     public boolean tryPlaceCustomHumanBoat(int x, int y, int size, boolean isVertical) {
 
-        if (!isCustomGame) {
+        if (!isCustomGame || isAllHumanBoatsPlaced()) {
 
             return false;
         }
 
-        Boat boat = new Boat();
+        Boat boat = human.getBoard().obtainBoat();
         boat.initializeCustomBoat(x, y, size, isVertical);
 
         if (human.getBoard().placeBoat(boat)) {
@@ -174,82 +422,344 @@ public class Controller {
     /**
      * Descripción: Configura los barcos estándar de la máquina en posiciones aleatorias.
      * Pre: El tablero de la máquina debe estar inicializado.
-     * Pos: Los barcos están colocados en el tablero de la máquina.
-     * @return void, coloca los barcos de la máquina aleatoriamente.
+     * Pos: Los barcos están colocados en el tablero de la máquina, salvo que la flota no quepa.
+     * @return boolean true si se colocó toda la flota, false si no cabe en el tablero.
      */
 
-    public void setupMachineStandardBoats() {
-        TypeBoat[] boats = TypeBoat.getStandardBoats();
-        for (int i = 0; i < boats.length; i++) {
-            placeRandomStandardBoat(machine, boats[i]);
-        }
+    public boolean setupMachineStandardBoats() {
+        return setupRandomStandardBoats(machine);
     }
 
     /**
      * Descripción: Configura barcos personalizados de la máquina en posiciones aleatorias.
      * Pre: El tablero de la máquina debe estar inicializado.
-     * Pos: Los barcos están colocados en el tablero de la máquina.
-     * @return void, coloca los barcos personalizados de la máquina aleatoriamente.
+     * Pos: Los barcos están colocados en el tablero de la máquina, salvo que la flota no quepa.
+     * @return boolean true si se colocó toda la flota, false si no cabe en el tablero.
      */
 
-    public void setupMachineCustomBoats() {
-        Random rand = new Random();
-        int numBoats = rand.nextInt(10) + 1;
+    public boolean setupMachineCustomBoats() {
+        return setupRandomCustomBoats(machine);
+    }
+
+    /**
+     * Descripción: Configura los barcos estándar del humano en posiciones aleatorias, para partidas sin consola.
+     * Pre: El tablero del humano debe estar inicializado.
+     * Pos: Los barcos están colocados en el tablero del humano, salvo que la flota no quepa, y la colocación del
+     * humano se da por terminada.
+     * @return boolean true si se colocó toda la flota, false si no cabe en el tablero.
+     */
+
+    public boolean setupHumanRandomStandardBoats() {
+        if (!setupRandomStandardBoats(human)) {
+            return false;
+        }
+
+        currentBoatIndex = STANDARD_BOATS.length;
+        return true;
+    }
+
+    /**
+     * Descripción: Configura barcos personalizados del humano en posiciones aleatorias, para partidas sin consola.
+     * Pre: El tablero del humano debe estar inicializado.
+     * Pos: Los barcos están colocados en el tablero del humano, salvo que la flota no quepa, y la colocación del
+     * humano se da por terminada.
+     * @return boolean true si se colocó toda la flota, false si no cabe en el tablero.
+     */
+
+    public boolean setupHumanRandomCustomBoats() {
+        if (!setupRandomCustomBoats(human)) {
+            return false;
+        }
+
+        customBoatsCount = human.getBoard().getBoats().size();
+        currentBoatIndex = customBoatsCount;
+        return true;
+    }
+
+    /**
+     * Descripción: Coloca la flota estándar completa de un jugador en posiciones aleatorias.
+     * Pre: El tablero del jugador debe estar inicializado.
+     * Pos: Los barcos estándar están colocados en el tablero del jugador, o ninguno si la flota no cabe.
+     * @param player Jugador al que pertenecen los barcos.
+     * @return boolean true si se colocó toda la flota.
+     */
+
+    private boolean setupRandomStandardBoats(Player player) {
+        return placeRandomFleet(player, STANDARD_BOATS, STANDARD_SIZES, STANDARD_VERTICAL, STANDARD_BOATS.length,
+                random);
+    }
+
+    /**
+     * Descripción: Coloca entre 1 y 10 barcos personalizados de tamaño y orientación aleatorios.
+     * Pre: El tablero del jugador debe estar inicializado.
+     * Pos: Los barcos personalizados están colocados en el tablero del jugador, o ninguno si la flota no cabe.
+     * @param player Jugador al que pertenecen los barcos.
+     * @return boolean true si se colocó toda la flota.
+     */
+
+    private boolean setupRandomCustomBoats(Player player) {
+        int numBoats = random.nextInt(MAX_RANDOM_CUSTOM_BOATS) + 1;
 
         for (int i = 0; i < numBoats; i++) {
-            int size = rand.nextInt(5) + 1;
-            boolean isVertical = rand.nextBoolean();
-            placeRandomCustomBoat(machine, size, isVertical);
+            fleetSizes[i] = random.nextInt(5) + 1;
+            fleetVertical[i] = random.nextBoolean();
+        }
+
+        return placeRandomFleet(player, null, fleetSizes, fleetVertical, numBoats, random);
+    }
+
+    /**
+     * Descripción: Ubica una flota completa con las tablas de posiciones legales y la coloca en el tablero.
+     * Pre: sizes y vertical deben tener al menos count posiciones; types es null para barcos personalizados.
+     * Pos: Si la búsqueda acotada encuentra lugar para todos, los barcos quedan colocados; si no, el tablero no cambia.
+     * Las casillas ya atacadas cuentan como ocupadas, y cada posición se vuelve a comprobar con canPlaceBoat antes de
+     * colocar el primer barco, de modo que nunca queda una flota a medias. Los arreglos de trabajo y los barcos se
+     * reutilizan entre partidas.
+     * @param player Jugador al que pertenece la flota.
+     * @param types Tipo estándar de cada barco, o null si son personalizados.
+     * @param sizes Tamaño de cada barco.
+     * @param vertical Orientación de cada barco.
+     * @param count Cantidad de barcos de la flota.
+     * @param rand Generador aleatorio de la partida.
+     * @return boolean true si se colocó toda la flota, false si es inviable.
+     */
+
+    private boolean placeRandomFleet(Player player, TypeBoat[] types, int[] sizes, boolean[] vertical, int count,
+            GameRandom rand) {
+        Board board = player.getBoard();
+        PlacementTable table = PlacementTable.forBoard(board);
+        int[] xs = fleetXs;
+        int[] ys = fleetYs;
+
+        if (table != null) {
+            long[] scratch = occupancyFor(table);
+
+            board.copyBlocked(scratch);
+
+            if (candidates[0].length != table.getCells()) {
+                for (int i = 0; i < candidates.length; i++) {
+                    candidates[i] = new int[table.getCells()];
+                }
+            }
+
+            if (!table.planFleet(scratch, sizes, vertical, count, rand, fleetStarts, candidates,
+                    PlacementTable.MAX_SEARCH_NODES)) {
+                return false;
+            }
+
+            for (int i = 0; i < count; i++) {
+                xs[i] = fleetStarts[i] % table.getWidth() + 1;
+                ys[i] = fleetStarts[i] / table.getWidth() + 1;
+            }
+        } else if (!sampleFleet(board, sizes, vertical, count, rand, xs, ys)) {
+            return false;
+        }
+
+        for (int i = 0; i < count; i++) {
+            if (!board.canPlaceBoat(xs[i], ys[i], sizes[i], vertical[i])) {
+                return false;
+            }
         }
+
+        for (int i = 0; i < count; i++) {
+            int x = xs[i];
+            int y = ys[i];
+
+            Boat boat = board.obtainBoat();
+
+            if (types != null) {
+                boat.initializeStandardBoat(types[i], x, y);
+            } else {
+                boat.initializeCustomBoat(x, y, sizes[i], vertical[i]);
+            }
+
+            if (!board.placeBoat(boat)) {
+                throw new IllegalStateException("La flota planificada se solapa consigo misma en el barco " + (i + 1));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Descripción: Ubica una flota por muestreo con rechazo, para tableros demasiado grandes para PlacementTable.
+     * Pre: sizes, vertical, xs e ys deben tener al menos count posiciones.
+     * Pos: Cada barco se sortea hasta caber en el tablero sin solaparse con los ya ubicados; en tableros grandes casi
+     * todas las posiciones son legales y basta con pocos sorteos. El tablero no se modifica.
+     * @param board Tablero donde se ubicará la flota.
+     * @param sizes Tamaño de cada barco.
+     * @param vertical Orientación de cada barco.
+     * @param count Cantidad de barcos de la flota.
+     * @param rand Generador aleatorio de la partida.
+     * @param xs Arreglo donde se escribe la coordenada X inicial de cada barco.
+     * @param ys Arreglo donde se escribe la coordenada Y inicial de cada barco.
+     * @return boolean true si se ubicó toda la flota dentro de PlacementTable.MAX_SEARCH_NODES sorteos.
+     */
+
+    private boolean sampleFleet(Board board, int[] sizes, boolean[] vertical, int count, GameRandom rand,
+            int[] xs, int[] ys) {
+        int budget = PlacementTable.MAX_SEARCH_NODES;
+
+        for (int i = 0; i < count; i++) {
+            boolean placed = false;
+
+            while (!placed && budget-- > 0) {
+                Coordinate start = drawStart(board, sizes[i], vertical[i], rand);
+
+                if (start == null) {
+                    return false;
+                }
+
+                xs[i] = start.getX();
+                ys[i] = start.getY();
+                placed = true;
+
+                for (int j = 0; j < i && placed; j++) {
+                    placed = !overlaps(xs[i], ys[i], sizes[i], vertical[i], xs[j], ys[j], sizes[j], vertical[j]);
+                }
+            }
+
+            if (!placed) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Descripción: Sortea una posición inicial que deja al barco dentro del tablero y sin solaparse con los colocados.
+     * Pre: size debe ser positivo.
+     * Pos: Se prueban a lo sumo PlacementTable.MAX_SEARCH_NODES posiciones.
+     * @param board Tablero donde se ubicará el barco.
+     * @param size Tamaño del barco.
+     * @param isVertical Orientación del barco.
+     * @param rand Generador aleatorio de la partida.
+     * @return Coordinate de la posición inicial, o null si no se encontró ninguna.
+     */
+
+    private static Coordinate drawStart(Board board, int size, boolean isVertical, GameRandom rand) {
+        int maxX = board.getWidth();
+        int maxY = board.getHeight();
+
+        if (isVertical) {
+            maxY -= size - 1;
+        } else {
+            maxX -= size - 1;
+        }
+
+        if (maxX < 1 || maxY < 1) {
+            return null;
+        }
+
+        for (int attempt = 0; attempt < PlacementTable.MAX_SEARCH_NODES; attempt++) {
+            int x = rand.nextInt(maxX) + 1;
+            int y = rand.nextInt(maxY) + 1;
+
+            if (board.canPlaceBoat(x, y, size, isVertical)) {
+                return Coordinate.of(x, y);
+            }
+        }
+        return null;
+    }
+
+    private static boolean overlaps(int x1, int y1, int size1, boolean vertical1,
+            int x2, int y2, int size2, boolean vertical2) {
+        int endX1 = vertical1 ? x1 : x1 + size1 - 1;
+        int endY1 = vertical1 ? y1 + size1 - 1 : y1;
+        int endX2 = vertical2 ? x2 : x2 + size2 - 1;
+        int endY2 = vertical2 ? y2 + size2 - 1 : y2;
+
+        return x1 <= endX2 && x2 <= endX1 && y1 <= endY2 && y2 <= endY1;
     }
 
    /**
      * Descripción: Coloca un barco estándar en una posición aleatoria para un jugador.
      * Pre: El jugador y el tipo de barco deben ser válidos.
-     * Pos: El barco está colocado en el tablero del jugador.
+     * Pos: El barco está colocado en una posición elegida uniformemente entre las legales, si existe alguna.
      * @param player Jugador al que pertenece el barco.
      * @param type Tipo de barco estándar.
+     * @return boolean true si el barco se colocó, false si no cabe en el tablero.
      */
 
     
-    public void placeRandomStandardBoat(Player player, TypeBoat type) {
+    public boolean placeRandomStandardBoat(Player player, TypeBoat type) {
 
-        Random rand = new Random();
-        boolean placed = false;
+        Coordinate start = drawLegalStart(player, type.getDefaultSize(), type.isDefaultVertical());
 
-        while (!placed) {
-            int x = rand.nextInt(10) + 1;
-            int y = rand.nextInt(10) + 1;
-
-            Boat boat = new Boat();
-            boat.initializeStandardBoat(type, x, y);
-            placed = player.getBoard().placeBoat(boat);
+        if (start == null) {
+            return false;
         }
+
+        Boat boat = player.getBoard().obtainBoat();
+        boat.initializeStandardBoat(type, start.getX(), start.getY());
+        return player.getBoard().placeBoat(boat);
     }
 
     /**
      * Descripción: Coloca un barco personalizado en una posición aleatoria para un jugador.
      * Pre: El jugador debe ser válido.
-     * Pos: El barco está colocado en el tablero del jugador.
+     * Pos: El barco está colocado en una posición elegida uniformemente entre las legales, si existe alguna.
      * @param player Jugador al que pertenece el barco.
      * @param size Tamaño del barco.
      * @param isVertical Orientación del barco.
+     * @return boolean true si el barco se colocó, false si no cabe en el tablero.
      */
 
     
-    public void placeRandomCustomBoat(Player player, int size, boolean isVertical) {
+    public boolean placeRandomCustomBoat(Player player, int size, boolean isVertical) {
 
-        Random rand = new Random();
-        boolean placed = false;
+        Coordinate start = drawLegalStart(player, size, isVertical);
+
+        if (start == null) {
+            return false;
+        }
 
-        while (!placed) {
-            int x = rand.nextInt(10) + 1;
-            int y = rand.nextInt(10) + 1;
+        Boat boat = player.getBoard().obtainBoat();
+        boat.initializeCustomBoat(start.getX(), start.getY(), size, isVertical);
+        return player.getBoard().placeBoat(boat);
+    }
 
-            Boat boat = new Boat();
-            boat.initializeCustomBoat(x, y, size, isVertical);
-            placed = player.getBoard().placeBoat(boat);
+    /**
+     * Descripción: Elige con un único sorteo una posición inicial legal para un barco.
+     * Pre: El jugador debe ser válido.
+     * Pos: Retorna una posición inicial uniforme entre las legales; en tableros sin PlacementTable se sortea con
+     * rechazo.
+     * @param player Jugador en cuyo tablero se ubicará el barco.
+     * @param size Tamaño del barco.
+     * @param isVertical Orientación del barco.
+     * @return Coordinate de la posición inicial, o null si no hay posiciones legales.
+     */
+
+    private Coordinate drawLegalStart(Player player, int size, boolean isVertical) {
+
+        Board board = player.getBoard();
+        PlacementTable table = PlacementTable.forBoard(board);
+
+        if (table == null) {
+            return drawStart(board, size, isVertical, random);
+        }
+
+        long[] scratch = occupancyFor(table);
+
+        if (legalStarts.length != table.getCells()) {
+            legalStarts = new int[table.getCells()];
         }
+
+        board.copyBlocked(scratch);
+
+        int count = table.legalStarts(scratch, size, isVertical, legalStarts);
+
+        if (count == 0) {
+            return null;
+        }
+
+        return board.coordinateOf(legalStarts[random.nextInt(count)]);
+    }
+
+    private long[] occupancyFor(PlacementTable table) {
+        if (occupancy.length != table.getWords()) {
+            occupancy = new long[table.getWords()];
+        }
+        return occupancy;
     }
 
     /**
@@ -271,44 +781,139 @@ public class Controller {
      */
 
     public String getWinnerName() {
-        if (human.getBoard().allBoatsSunk()) {
-            return machine.getName();
-        } else {
+        if (isHumanWinner()) {
             return human.getName();
+        } else {
+            return machine.getName();
         }
     }
 
+    /**
+     * Descripción: Indica si el humano es el ganador de la partida.
+     * Pre: El juego debe haber terminado.
+     * Pos: Retorna true si el humano conserva algún barco a flote.
+     * @return boolean indicando si ganó el humano.
+     */
+
+    public boolean isHumanWinner() {
+        return !human.getBoard().allBoatsSunk();
+    }
+
     /**
      * Descripción: Realiza un ataque del humano a la máquina en las coordenadas especificadas.
      * Pre: Las coordenadas deben estar dentro del tablero.
      * Pos: Registra el ataque y actualiza el estado del juego.
      * @param x Coordenada X del ataque.
      * @param y Coordenada Y del ataque.
-     * @return boolean indicando si el ataque fue exitoso.
+     * @return int Código de AttackResult con el resultado del disparo.
      */
 
-    public boolean humanAttack(int x, int y) {
-        Coordinate attack = new Coordinate(x, y);
-        lastMachineAttackHit = machine.getBoard().receiveAttack(attack);
-        return lastMachineAttackHit;
+    public int humanAttack(int x, int y) {
+        return machine.getBoard().receiveAttack(Coordinate.of(x, y));
     }
 
     /**
-     * Descripción: Realiza un ataque de la máquina al jugador humano en coordenadas aleatorias.
-     * Pre: El tablero del jugador humano debe estar inicializado.
-     * Pos: Se genera una coordenada aleatoria, se registra el ataque y se guarda el resultado.
-     * @return Coordinate con la posición atacada por la máquina.
+     * Descripción: Realiza un ataque del humano a la máquina sobre una casilla indicada por su índice empaquetado.
+     * Pre: cell debe calcularse con cellOf del tablero, que debe ser denso.
+     * Pos: Registra el ataque sin crear objetos.
+     * @param cell Índice de la casilla atacada.
+     * @return int Código de AttackResult con el resultado del disparo.
+     */
+
+    public int humanAttack(int cell) {
+        return machine.getBoard().receiveAttack(cell);
+    }
+
+    /**
+     * Descripción: Realiza un ataque de la máquina al jugador humano con la estrategia configurada.
+     * Pre: El tablero del jugador humano debe tener sus barcos colocados.
+     * Pos: La estrategia elige la casilla, se registra el ataque y la estrategia recibe el resultado. En tableros
+     * dispersos las estrategias no aplican y la máquina dispara al azar.
+     * @return Coordinate con la posición atacada por la máquina, o null si no quedan casillas por atacar.
      */
 
     public Coordinate machineAttack() {
 
-        lastMachineAttack = human.getBoard().generateRandomAttack();
+        Board target = human.getBoard();
+
+        if (target.isSparse()) {
+
+            lastMachineAttack = target.generateRandomAttack();
+
+            if (lastMachineAttack == null) {
+
+                lastMachineAttackResult = AttackResult.OUT_OF_BOUNDS;
+
+            } else {
+
+                lastMachineAttackResult = target.receiveAttack(lastMachineAttack);
+            }
+
+            return lastMachineAttack;
+        }
+
+        if (!machineStrategyStarted) {
+
+            machineStrategy.startGame(human.getBoard());
+
+            machineStrategyStarted = true;
+        }
+
+        int cell = machineStrategy.nextAttackCell();
+
+        if (cell < 0) {
+
+            lastMachineAttack = null;
 
-        lastMachineAttackHit = human.getBoard().receiveAttack(lastMachineAttack);
+            lastMachineAttackResult = AttackResult.OUT_OF_BOUNDS;
+
+            return null;
+        }
+
+        lastMachineAttack = target.coordinateOf(cell);
+
+        lastMachineAttackResult = target.receiveAttack(cell);
+
+        machineStrategy.recordResult(cell, lastMachineAttackResult);
 
         return lastMachineAttack;
     }
 
+    /**
+     * Descripción: Realiza un ataque automático del humano contra la máquina, para partidas sin consola.
+     * Pre: El tablero de la máquina debe estar inicializado.
+     * Pos: Se genera una coordenada aleatoria no atacada y se registra el ataque.
+     * @return Coordinate con la posición atacada en nombre del humano, o null si no quedan casillas por atacar.
+     */
+
+    public Coordinate autoHumanAttack() {
+
+        Board target = machine.getBoard();
+
+        if (target.isSparse()) {
+
+            Coordinate coord = target.generateRandomAttack();
+
+            if (coord != null) {
+
+                target.receiveAttack(coord);
+            }
+
+            return coord;
+        }
+
+        int cell = target.generateRandomAttackCell();
+
+        if (cell < 0) {
+
+            return null;
+        }
+
+        humanAttack(cell);
+
+        return target.coordinateOf(cell);
+    }
+
     /**
      * Descripción: Indica si el último ataque de la máquina fue un acierto.
      * Pre: Se debe haber realizado un ataque de la máquina previamente.
@@ -318,7 +923,19 @@ public class Controller {
 
     public boolean isMachineAttackHit() {
 
-        return lastMachineAttackHit;
+        return AttackResult.isHit(lastMachineAttackResult);
+    }
+
+    /**
+     * Descripción: Obtiene el resultado completo del último ataque de la máquina.
+     * Pre: Se debe haber realizado un ataque de la máquina previamente.
+     * Pos: Retorna el código del último ataque, que indica además si se hundió un barco y de qué tipo.
+     * @return int Código de AttackResult del último ataque de la máquina.
+     */
+
+    public int getLastMachineAttackResult() {
+
+        return lastMachineAttackResult;
     }
 
     /**
@@ -332,7 +949,20 @@ public class Controller {
 
     public boolean isCoordinateAlreadyAttacked(int x, int y) {
 
-        return machine.getBoard().isCoordinateAttacked(new Coordinate(x, y));
+        return machine.getBoard().isCoordinateAttacked(Coordinate.of(x, y));
+    }
+
+    /**
+     * Descripción: Verifica si una casilla, indicada por su índice empaquetado, ya fue atacada por el humano.
+     * Pre: cell debe calcularse con cellOf del tablero, que debe ser denso.
+     * Pos: Retorna true si la casilla ya ha sido atacada previamente.
+     * @param cell Índice de la casilla a verificar.
+     * @return boolean indicando si la casilla ya fue atacada.
+     */
+
+    public boolean isCoordinateAlreadyAttacked(int cell) {
+
+        return machine.getBoard().isCoordinateAttacked(cell);
     }
 
     /**
@@ -360,17 +990,85 @@ public class Controller {
 
     }
 
+    /**
+     * Descripción: Publica los eventos de ambos tableros en un anillo, para que la interfaz, registros, espectadores o
+     * estadísticas reaccionen a los cambios sin volver a recorrer los tableros.
+     * Pre: Las operaciones de la partida deben hacerse desde un único hilo o bajo el bloqueo de su sesión.
+     * Pos: Los eventos del tablero humano llevan SOURCE_HUMAN y los del tablero máquina SOURCE_MACHINE. Los
+     * consumidores leen con sus propios cursores y nunca frenan a la partida.
+     * @param buffer Anillo de eventos, o null para desconectarlo.
+     */
+
+    public void setEventBuffer(BoardEventBuffer buffer) {
+
+        eventBuffer = buffer;
+        human.getBoard().setEventBuffer(buffer, BoardEvent.SOURCE_HUMAN);
+        machine.getBoard().setEventBuffer(buffer, BoardEvent.SOURCE_MACHINE);
+    }
+
+    /**
+     * Descripción: Toma fotos compactas de ambos tableros.
+     * Pre: Las fotos deben tener las dimensiones de los tableros.
+     * Pos: Las fotos quedan con el estado actual de cada tablero.
+     * @param humanOut Foto del tablero humano.
+     * @param machineOut Foto del tablero máquina.
+     * @return boolean true si se tomaron ambas fotos, false si los tableros son dispersos.
+     */
+
+    public boolean snapshotBoards(BoardSnapshot humanOut, BoardSnapshot machineOut) {
+
+        return human.getBoard().snapshot(humanOut) && machine.getBoard().snapshot(machineOut);
+    }
+
+    /**
+     * Descripción: Obtiene la versión del tablero del jugador humano.
+     * Pre: Ninguna.
+     * Pos: La versión cambia solo cuando se coloca un barco o se resuelve un disparo nuevo sobre el tablero.
+     * @return long Versión del tablero humano.
+     */
+
+    public long getHumanBoardVersion() {
+
+        return human.getBoard().getVersion();
+    }
+
+    /**
+     * Descripción: Obtiene la versión del tablero del jugador máquina.
+     * Pre: Ninguna.
+     * Pos: La versión cambia solo cuando se coloca un barco o se resuelve un disparo nuevo sobre el tablero.
+     * @return long Versión del tablero máquina.
+     */
+
+    public long getMachineBoardVersion() {
+
+        return machine.getBoard().getVersion();
+    }
+
+    /**
+     * Descripción: Conecta las estadísticas compartidas o persistentes a las que se suman las partidas.
+     * Pre: Ninguna.
+     * Pos: Desde ahora recordGameResult también registra en statistics y showStatistics muestra sus totales; null
+     * vuelve a usar solo los contadores de este controlador.
+     * @param statistics Estadísticas compartidas, o null.
+     */
+
+    public void setStatisticsStore(StatisticsStore statistics) {
+
+        this.statistics = statistics;
+    }
+
     /**
      * Descripción: Registra el resultado de la partida en las estadísticas según el tipo de juego.
      * Pre: El juego debe haber terminado.
-     * Pos: Se actualiza el contador de victorias del jugador correspondiente.
+     * Pos: Se actualiza el contador de victorias del jugador correspondiente y, si hay estadísticas conectadas, se
+     * suma en ellas sin esperar por el disco.
      * @param gameType Tipo de partida: 1 para estándar, otro valor para personalizada.
      * @return void, actualiza las estadísticas de partidas jugadas.
      */
 
     public void recordGameResult(int gameType) {
 
-        boolean humanWon = !human.getBoard().allBoatsSunk();
+        boolean humanWon = isHumanWinner();
 
         if (gameType == 1) {
 
@@ -394,19 +1092,165 @@ public class Controller {
                 customMachineWins++;
             }
         }
+
+        if (statistics != null) {
+
+            statistics.record(gameType, humanWon);
+        }
     }
 
     /**
      * Descripción: Muestra un resumen con las estadísticas de partidas ganadas por tipo de juego.
      * Pre: Se deben haber jugado al menos una o más partidas.
-     * Pos: Retorna un texto con las estadísticas de victorias de humano y máquina.
+     * Pos: Retorna un texto con las estadísticas de victorias de humano y máquina, tomadas de las estadísticas
+     * conectadas si las hay.
      * @return String con el resumen de estadísticas.
      */
 
     public String showStatistics() {
+
+        if (statistics != null) {
+
+            return statistics.showStatistics();
+        }
         
         return "----ESTADISTICAS-------\n" +
                "Estándar - Humano: " + standardHumanWins + " | Máquina: " + standardMachineWins + "\n" +
                "Personalizado - Humano: " + customHumanWins + " | Máquina: " + customMachineWins;
     }
+
+    /**
+     * Descripción: Calcula cuántos bytes ocupa el estado de la partida en saveState.
+     * Pre: Ninguna.
+     * Pos: Sirve para reservar el búfer antes de guardar.
+     * @return int Bytes del estado.
+     */
+
+    public int getStateSize() {
+
+        return STATE_HEADER_BYTES + human.getBoard().getStateSize() + machine.getBoard().getStateSize();
+    }
+
+    /**
+     * Descripción: Guarda el estado completo de la partida en un formato binario versionado, sin serialización de Java.
+     * Pre: out debe tener al menos getStateSize() bytes libres.
+     * Pos: Se escriben la cabecera y versión del formato, el progreso de la colocación, el modo de juego, el modo
+     * experto, el último disparo de la máquina, los contadores de victorias, la semilla y el estado de los
+     * generadores aleatorios, y ambos tableros con sus barcos.
+     * @param out Búfer de destino.
+     */
+
+    public void saveState(ByteBuffer out) {
+
+        out.putInt(STATE_MAGIC);
+        out.put((byte) STATE_VERSION);
+        out.put((byte) ((isCustomGame ? 1 : 0) | (isExpertMode ? 2 : 0)));
+        out.putInt(currentBoatIndex);
+        out.putInt(customBoatsCount);
+        out.putInt(standardHumanWins);
+        out.putInt(standardMachineWins);
+        out.putInt(customHumanWins);
+        out.putInt(customMachineWins);
+        out.putInt(human.getGamesWon());
+        out.putInt(machine.getGamesWon());
+        out.putInt(lastMachineAttack == null ? 0 : lastMachineAttack.getX());
+        out.putInt(lastMachineAttack == null ? 0 : lastMachineAttack.getY());
+        out.putInt(lastMachineAttackResult);
+        out.putLong(expertLatencyNanos);
+        out.putLong(gameSeed);
+        out.putLong(nextGameSeed);
+        writeRandom(out, seeds);
+        writeRandom(out, random);
+        writeRandom(out, human.getBoard().getRandom());
+        writeRandom(out, machine.getBoard().getRandom());
+        human.getBoard().writeState(out);
+        machine.getBoard().writeState(out);
+    }
+
+    /**
+     * Descripción: Reconstruye una partida guardada con saveState.
+     * Pre: in debe estar posicionado al inicio de un estado guardado.
+     * Pos: La partida continúa donde se guardó, con los generadores aleatorios en el mismo punto, de modo que la
+     * máquina responde igual que sin guardar; la estrategia de la máquina se reinicia y se reconstruye desde el
+     * tablero en su próximo disparo, y no queda ningún anillo de eventos conectado. Los disparos automáticos del
+     * humano (generateRandomAttack) pueden elegir otras casillas, porque no se guarda el orden interno de las casillas
+     * sin atacar.
+     * @param in Búfer de origen.
+     * @return Controller con la partida, o null si los datos están incompletos, son de otra versión o no son válidos.
+     */
+
+    public static Controller restoreState(ByteBuffer in) {
+
+        try {
+
+            if (in.getInt() != STATE_MAGIC || in.get() != STATE_VERSION) {
+
+                return null;
+            }
+
+            int flags = in.get();
+            Controller controller = new Controller(1, 1);
+
+            controller.isCustomGame = (flags & 1) != 0;
+            controller.currentBoatIndex = in.getInt();
+            controller.customBoatsCount = in.getInt();
+            controller.standardHumanWins = in.getInt();
+            controller.standardMachineWins = in.getInt();
+            controller.customHumanWins = in.getInt();
+            controller.customMachineWins = in.getInt();
+
+            int humanGamesWon = in.getInt();
+            int machineGamesWon = in.getInt();
+            int lastX = in.getInt();
+            int lastY = in.getInt();
+
+            controller.lastMachineAttackResult = in.getInt();
+
+            long latency = in.getLong();
+            long seed = in.getLong();
+            long nextSeed = in.getLong();
+            long[] generators = new long[8];
+
+            for (int i = 0; i < generators.length; i++) {
+
+                generators[i] = in.getLong();
+            }
+
+            Board humanBoard = Board.readState(in);
+            Board machineBoard = humanBoard == null ? null : Board.readState(in);
+
+            if (machineBoard == null || humanBoard.getWidth() != machineBoard.getWidth()
+                    || humanBoard.getHeight() != machineBoard.getHeight()) {
+
+                return null;
+            }
+
+            controller.human = new Player(controller.human.getName(), TypePlayer.HUMAN, humanBoard, humanGamesWon);
+            controller.machine = new Player(controller.machine.getName(), TypePlayer.MACHINE, machineBoard,
+                    machineGamesWon);
+            controller.lastMachineAttack = lastX == 0 ? null : Coordinate.of(lastX, lastY);
+            controller.gameSeed = seed;
+            controller.nextGameSeed = nextSeed;
+            controller.seeds.setState(generators[0], generators[1] | 1L);
+            controller.random.setState(generators[2], generators[3] | 1L);
+            humanBoard.getRandom().setState(generators[4], generators[5] | 1L);
+            machineBoard.getRandom().setState(generators[6], generators[7] | 1L);
+
+            if ((flags & 2) != 0) {
+
+                controller.setExpertMode(true, latency);
+            }
+            return controller;
+
+        } catch (BufferUnderflowException e) {
+
+            return null;
+        }
+    }
+
+    private static void writeRandom(ByteBuffer out, GameRandom generator) {
+
+        out.putLong(generator.getSeed());
+        out.putLong(generator.getGamma());
+    }
 }
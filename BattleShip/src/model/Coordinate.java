@@ -1,14 +1,38 @@
 package model;
 
 public class Coordinate {
-    private int x;
-    private int y;
+    public static final int CACHE_SIZE = 32;
+
+    private static final Coordinate[] CACHE = buildCache();
+
+    private final int x;
+    private final int y;
 
     public Coordinate(int x, int y) {
         this.x = x;
         this.y = y;
     }
 
+    /**
+     * Descripción: Obtiene la coordenada (x, y) reutilizando la instancia compartida si está en la caché.
+     * Pre: Ninguna.
+     * Pos: Para x e y entre 1 y CACHE_SIZE no se crea ningún objeto, lo que cubre cualquier tablero de hasta
+     * CACHE_SIZE de lado; fuera de ese rango se crea una coordenada nueva.
+     * @param x Coordenada X.
+     * @param y Coordenada Y.
+     * @return Coordinate con los valores pedidos.
+     */
+
+    public static Coordinate of(int x, int y) {
+
+        if (x < 1 || x > CACHE_SIZE || y < 1 || y > CACHE_SIZE) {
+
+            return new Coordinate(x, y);
+        }
+
+        return CACHE[(y - 1) * CACHE_SIZE + (x - 1)];
+    }
+
 
     
     /**
@@ -44,8 +68,8 @@ public class Coordinate {
      * @param obj El objeto a comparar con la coordenada actual.
      * @return boolean Devuelve true si las coordenadas son iguales, false si no lo son.
      */
-    
 
+    @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
         if (obj == null || getClass() != obj.getClass()) return false;
@@ -54,6 +78,30 @@ public class Coordinate {
 
     }
 
+    /**
+     * Descripción: Calcula el código hash de la coordenada, consistente con equals.
+     * Pre: Ninguna.
+     * Pos: Dos coordenadas iguales tienen el mismo código hash.
+     * @return int Código hash de la coordenada.
+     */
+
+    @Override
+    public int hashCode() {
+
+        return 31 * x + y;
+    }
+
+    private static Coordinate[] buildCache() {
+
+        Coordinate[] cache = new Coordinate[CACHE_SIZE * CACHE_SIZE];
+
+        for (int cell = 0; cell < cache.length; cell++) {
+
+            cache[cell] = new Coordinate(cell % CACHE_SIZE + 1, cell / CACHE_SIZE + 1);
+        }
+        return cache;
+    }
+
     @Override
     public String toString() {
         return "(" + x + "," + y + ")";
@@ -0,0 +1,504 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class GameJournalReader implements AutoCloseable {
+    public static final int END_OF_GAME = -1;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final TypeBoat[] BOATS = TypeBoat.values();
+
+    private final FileChannel channel;
+    private final ByteBuffer in;
+    private final Board[] boards;
+    private final long[][] restored;
+    private byte[] body;
+    private int bodyLength;
+    private int recordsEnd;
+    private int headerEnd;
+    private int pos;
+    private int[] snapshots;
+    private int snapshotCount;
+    private int snapshotInterval;
+    private int bitmapBytes;
+
+    private int width;
+    private int height;
+    private int gameType;
+    private int moves;
+    private int lastSource;
+    private long lastCell;
+    private long mismatches;
+    private long gamesRead;
+
+    /**
+     * Descripción: Abre un diario de partidas para leerlo de principio a fin.
+     * Pre: path debe ser un diario escrito con GameJournalWriter.
+     * Pos: El lector queda antes de la primera partida; el archivo se lee por bloques, una partida a la vez.
+     * @param path Archivo del diario.
+     * @throws IOException si no se puede abrir el archivo o no tiene la cabecera del formato.
+     */
+
+    public GameJournalReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.in = ByteBuffer.allocate(BUFFER_SIZE);
+        this.boards = new Board[2];
+        this.restored = new long[2][0];
+        this.body = new byte[512];
+        this.snapshots = new int[16];
+
+        in.flip();
+
+        byte[] header = new byte[GameJournalWriter.HEADER_BYTES];
+
+        if (!readFully(header, header.length)) {
+
+            channel.close();
+            throw new IOException("El archivo no es un diario de partidas: " + path);
+        }
+
+        ByteBuffer check = ByteBuffer.wrap(header);
+
+        if (check.getInt() != GameJournalWriter.MAGIC || check.get() != GameJournalWriter.VERSION) {
+
+            channel.close();
+            throw new IOException("El archivo no es un diario de partidas: " + path);
+        }
+    }
+
+    /**
+     * Descripción: Avanza a la siguiente partida del diario.
+     * Pre: Ninguna.
+     * Pos: Los tableros quedan con las flotas colocadas y sin disparos (jugada 0) y se carga el índice de fotos de la
+     * partida. Una partida cortada al final del archivo, por ejemplo tras una caída del proceso, se trata como fin
+     * del diario.
+     * @return boolean true si se leyó una partida, false al llegar al final del diario.
+     * @throws IOException si falla la lectura.
+     */
+
+    public boolean nextGame() throws IOException {
+
+        int length = 0;
+        int shift = 0;
+        int b;
+
+        do {
+
+            b = readStreamByte();
+
+            if (b < 0) {
+
+                return false;
+            }
+
+            length |= (b & 0x7F) << shift;
+            shift += 7;
+
+        } while ((b & 0x80) != 0);
+
+        if (length > body.length) {
+
+            body = new byte[Math.max(length, body.length * 2)];
+        }
+
+        if (!readFully(body, length)) {
+
+            return false;
+        }
+
+        bodyLength = length;
+        pos = 0;
+        width = (int) readVarLong();
+        height = (int) readVarLong();
+        gameType = body[pos++];
+        snapshotInterval = (int) readVarLong();
+        headerEnd = pos;
+        bitmapBytes = (int) (((long) width * height + 7) / 8);
+        readIndex();
+
+        for (int source = 0; source < boards.length; source++) {
+
+            if (boards[source] == null || boards[source].getWidth() != width || boards[source].getHeight() != height) {
+
+                boards[source] = new Board(width, height);
+            }
+        }
+
+        gamesRead++;
+        restart();
+
+        return true;
+    }
+
+    /**
+     * Descripción: Repite la siguiente jugada de la partida sobre su tablero.
+     * Pre: Se debe haber llamado a nextGame con resultado true.
+     * Pos: El disparo se resuelve con Board.receiveAttack; si el resultado no coincide con el registrado se suma en
+     * getMismatches. Las colocaciones de barcos que siguen a la jugada se aplican también.
+     * @return int Código de AttackResult de la jugada, o END_OF_GAME si la partida no tiene más jugadas.
+     */
+
+    public int nextMove() {
+
+        if (pos >= recordsEnd) {
+
+            return END_OF_GAME;
+        }
+
+        long value = readVarLong();
+        int tag = (int) (value & GameRecord.TAG_MASK);
+
+        lastSource = tag & 1;
+        lastCell = value >>> GameRecord.TAG_BITS;
+
+        Board board = boards[lastSource];
+        int result;
+
+        if (board.isSparse()) {
+
+            result = board.receiveAttack(Coordinate.of((int) (lastCell % width) + 1, (int) (lastCell / width) + 1));
+
+        } else {
+
+            result = board.receiveAttack((int) lastCell);
+        }
+
+        if (AttackResult.getType(result).ordinal() != tag >>> 1) {
+
+            mismatches++;
+        }
+
+        moves++;
+        applyPending();
+
+        return result;
+    }
+
+    /**
+     * Descripción: Reconstruye la posición de la partida actual después de una cantidad de jugadas.
+     * Pre: Se debe haber llamado a nextGame con resultado true.
+     * Pos: Se restaura la última foto anterior a move, salvo que la posición actual esté más cerca, y se repiten
+     * solo las jugadas que faltan: el costo es a lo sumo un intervalo de fotos más una pasada por el área del
+     * tablero, sin importar el largo de la partida. Sin fotos se repite desde la jugada 0 al retroceder.
+     * @param move Cantidad de jugadas a aplicar.
+     * @return boolean true si la partida tiene al menos esa cantidad de jugadas.
+     */
+
+    public boolean advanceTo(int move) {
+
+        int snapshot = snapshotInterval == 0 ? 0 : Math.min(move / snapshotInterval, snapshotCount);
+
+        if (snapshot > 0 && (move < moves || (long) snapshot * snapshotInterval > moves)) {
+
+            restoreSnapshot(snapshot - 1);
+
+        } else if (move < moves) {
+
+            restart();
+        }
+
+        while (moves < move) {
+
+            if (nextMove() == END_OF_GAME) {
+
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Descripción: Obtiene el tablero de un jugador en la posición actual de la repetición.
+     * Pre: source debe ser BoardEvent.SOURCE_HUMAN o BoardEvent.SOURCE_MACHINE.
+     * Pos: El tablero se reutiliza entre partidas de las mismas dimensiones.
+     * @param source Jugador dueño del tablero.
+     * @return Board del jugador.
+     */
+
+    public Board getBoard(int source) {
+
+        return boards[source];
+    }
+
+    public int getWidth() {
+
+        return width;
+    }
+
+    public int getHeight() {
+
+        return height;
+    }
+
+    public int getGameType() {
+
+        return gameType;
+    }
+
+    public int getMoveCount() {
+
+        return moves;
+    }
+
+    /**
+     * Descripción: Obtiene el dueño del tablero atacado en la última jugada repetida.
+     * Pre: Se debe haber repetido al menos una jugada.
+     * Pos: SOURCE_HUMAN indica que la máquina disparó al tablero humano.
+     * @return int Dueño del tablero atacado.
+     */
+
+    public int getLastSource() {
+
+        return lastSource;
+    }
+
+    public long getLastCell() {
+
+        return lastCell;
+    }
+
+    /**
+     * Descripción: Obtiene cuántas jugadas repetidas dieron un resultado distinto del registrado.
+     * Pre: Ninguna.
+     * Pos: Un valor distinto de 0 indica un diario dañado o reglas de juego cambiadas desde la grabación.
+     * @return long Jugadas con resultado distinto.
+     */
+
+    public long getMismatches() {
+
+        return mismatches;
+    }
+
+    /**
+     * Descripción: Obtiene la cantidad de fotos de la partida actual.
+     * Pre: Se debe haber llamado a nextGame con resultado true.
+     * Pos: La foto i corresponde a la jugada (i + 1) * getSnapshotInterval().
+     * @return int Fotos de la partida.
+     */
+
+    public int getSnapshotCount() {
+
+        return snapshotCount;
+    }
+
+    public int getSnapshotInterval() {
+
+        return snapshotInterval;
+    }
+
+    public long getGamesRead() {
+
+        return gamesRead;
+    }
+
+    /**
+     * Descripción: Obtiene el tamaño de la partida actual en el diario.
+     * Pre: Se debe haber llamado a nextGame con resultado true.
+     * Pos: Incluye la cabecera y el índice de fotos de la partida, sin su prefijo de longitud.
+     * @return int Bytes de la partida.
+     */
+
+    public int getGameLength() {
+
+        return bodyLength;
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        channel.close();
+    }
+
+    private void restart() {
+
+        boards[0].initializeGrid();
+        boards[1].initializeGrid();
+        pos = headerEnd;
+        moves = 0;
+        applyPending();
+    }
+
+    /**
+     * Descripción: Restaura la posición guardada en una foto.
+     * Pre: index debe ser menor que snapshotCount.
+     * Pos: Se colocan las flotas iniciales, se marcan de una vez las casillas atacadas de la foto y la lectura sigue
+     * después de ella.
+     * @param index Número de foto.
+     */
+
+    private void restoreSnapshot(int index) {
+
+        restart();
+
+        int words = (int) (((long) width * height + 63) / 64);
+
+        pos = snapshots[index] + 1;
+
+        for (int source = 0; source < boards.length; source++) {
+
+            if (restored[source].length != words) {
+
+                restored[source] = new long[words];
+            }
+
+            long[] bits = restored[source];
+
+            for (int w = 0; w < words; w++) {
+
+                long word = 0;
+                int base = w << 3;
+                int count = Math.min(8, bitmapBytes - base);
+
+                for (int i = 0; i < count; i++) {
+
+                    word |= (body[pos + base + i] & 0xFFL) << (i << 3);
+                }
+
+                bits[w] = word;
+            }
+
+            pos += bitmapBytes;
+            boards[source].restoreAttacked(bits);
+        }
+
+        moves = (index + 1) * snapshotInterval;
+        applyPending();
+    }
+
+    /**
+     * Descripción: Lee el índice de fotos del final de la partida.
+     * Pre: body contiene la partida completa.
+     * Pos: recordsEnd marca el fin de las jugadas y snapshots guarda la posición de cada foto.
+     */
+
+    private void readIndex() {
+
+        int trailer = bodyLength - GameRecord.TRAILER_BYTES;
+
+        recordsEnd = ((body[trailer] & 0xFF) << 24) | ((body[trailer + 1] & 0xFF) << 16)
+                | ((body[trailer + 2] & 0xFF) << 8) | (body[trailer + 3] & 0xFF);
+
+        int saved = pos;
+
+        pos = recordsEnd;
+        snapshotCount = (int) readVarLong();
+
+        if (snapshotCount > snapshots.length) {
+
+            snapshots = new int[snapshotCount];
+        }
+
+        int offset = 0;
+
+        for (int i = 0; i < snapshotCount; i++) {
+
+            offset += (int) readVarLong();
+            snapshots[i] = offset;
+        }
+
+        pos = saved;
+    }
+
+    /**
+     * Descripción: Aplica las colocaciones de barcos y salta las fotos que preceden a la próxima jugada.
+     * Pre: pos apunta al inicio de un registro.
+     * Pos: pos queda en la próxima jugada o en el fin de las jugadas.
+     */
+
+    private void applyPending() {
+
+        while (pos < recordsEnd) {
+
+            int start = pos;
+            long value = readVarLong();
+            int tag = (int) (value & GameRecord.TAG_MASK);
+
+            if (tag == GameRecord.TAG_SNAPSHOT) {
+
+                pos += 2 * bitmapBytes;
+                continue;
+            }
+
+            if (tag != GameRecord.TAG_PLACEMENT) {
+
+                pos = start;
+                return;
+            }
+
+            long boatData = readVarLong();
+            long cell = value >>> (GameRecord.TAG_BITS + 2);
+            boolean isVertical = ((value >>> (GameRecord.TAG_BITS + 1)) & 1) != 0;
+            TypeBoat type = BOATS[(int) (boatData & ((1 << GameRecord.BOAT_BITS) - 1))];
+            int size = (int) (boatData >>> GameRecord.BOAT_BITS);
+            int x = (int) (cell % width) + 1;
+            int y = (int) (cell / width) + 1;
+
+            int source = (int) ((value >>> GameRecord.TAG_BITS) & 1);
+
+            boards[source].placeBoat(boards[source].createBoat(type, x, y, size, isVertical));
+        }
+    }
+
+    private long readVarLong() {
+
+        long value = 0;
+        int shift = 0;
+        byte b;
+
+        do {
+
+            b = body[pos++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+
+        } while (b < 0);
+
+        return value;
+    }
+
+    private int readStreamByte() throws IOException {
+
+        if (!in.hasRemaining()) {
+
+            in.clear();
+            int read = channel.read(in);
+            in.flip();
+
+            if (read <= 0) {
+
+                return -1;
+            }
+        }
+        return in.get() & 0xFF;
+    }
+
+    private boolean readFully(byte[] target, int length) throws IOException {
+
+        int done = 0;
+
+        while (done < length) {
+
+            if (!in.hasRemaining()) {
+
+                in.clear();
+                int read = channel.read(in);
+                in.flip();
+
+                if (read <= 0) {
+
+                    return false;
+                }
+            }
+
+            int chunk = Math.min(length - done, in.remaining());
+
+            in.get(target, done, chunk);
+            done += chunk;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,128 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class GameJournalWriter implements AutoCloseable {
+    static final int MAGIC = 0x42534A31;
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 5;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private long bytesWritten;
+    private long gamesWritten;
+
+    /**
+     * Descripción: Abre un diario de partidas para agregar partidas al final.
+     * Pre: path debe ser un archivo escribible.
+     * Pos: Si el archivo está vacío se escribe la cabecera del formato; las partidas se acumulan en un búfer y se
+     * escriben en bloques secuenciales, sin forzar el disco por partida ni por jugada.
+     * @param path Archivo del diario.
+     * @throws IOException si no se puede abrir el archivo.
+     */
+
+    public GameJournalWriter(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        if (channel.size() == 0) {
+
+            buffer.putInt(MAGIC);
+            buffer.put((byte) VERSION);
+        }
+    }
+
+    /**
+     * Descripción: Agrega una partida completa al diario.
+     * Pre: game debe haberse iniciado con begin.
+     * Pos: Se cierra el registro con su índice de fotos y la partida se escribe de forma contigua precedida por su
+     * longitud, aunque varios hilos escriban a la vez.
+     * @param game Registro de la partida.
+     * @throws IOException si falla la escritura al vaciar el búfer.
+     */
+
+    public synchronized void write(GameRecord game) throws IOException {
+
+        game.finish();
+
+        int length = game.getLength();
+
+        if (buffer.remaining() < length + 5) {
+
+            flush();
+        }
+
+        int value = length;
+
+        while ((value & ~0x7F) != 0) {
+
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+
+        buffer.put((byte) value);
+
+        if (length > buffer.remaining()) {
+
+            flush();
+            channel.write(ByteBuffer.wrap(game.getBytes(), 0, length));
+
+        } else {
+
+            buffer.put(game.getBytes(), 0, length);
+        }
+
+        bytesWritten += length;
+        gamesWritten++;
+    }
+
+    /**
+     * Descripción: Escribe en el archivo lo que quede en el búfer.
+     * Pre: Ninguna.
+     * Pos: Las partidas escritas quedan entregadas al sistema operativo (no se fuerza el disco).
+     * @throws IOException si falla la escritura.
+     */
+
+    public synchronized void flush() throws IOException {
+
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+
+    public synchronized long getGamesWritten() {
+
+        return gamesWritten;
+    }
+
+    /**
+     * Descripción: Obtiene los bytes de partidas escritos, sin contar cabecera ni prefijos de longitud.
+     * Pre: Ninguna.
+     * Pos: Permite medir el tamaño medio de una partida en el diario.
+     * @return long Bytes de partidas escritos.
+     */
+
+    public synchronized long getBytesWritten() {
+
+        return bytesWritten;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+
+        flush();
+        channel.close();
+    }
+}
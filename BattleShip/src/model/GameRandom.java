@@ -0,0 +1,153 @@
+package model;
+
+public class GameRandom {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long seed;
+    private long gamma;
+
+    public GameRandom(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    GameRandom(long seed, long gamma) {
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    /**
+     * Descripción: Reinicia el generador con una semilla, sin crear objetos.
+     * Pre: Ninguna.
+     * Pos: El generador produce la misma secuencia que new GameRandom(seed).
+     * @param seed Semilla.
+     */
+
+    public void setSeed(long seed) {
+
+        this.seed = seed;
+        this.gamma = GOLDEN_GAMMA;
+    }
+
+    /**
+     * Descripción: Genera un número de 64 bits.
+     * Pre: Ninguna.
+     * Pos: Se avanza el generador un paso (algoritmo SplitMix64, el mismo de java.util.SplittableRandom).
+     * @return long Número generado.
+     */
+
+    public long nextLong() {
+
+        return mix64(nextSeed());
+    }
+
+    /**
+     * Descripción: Genera un entero uniforme entre 0 (incluido) y bound (excluido).
+     * Pre: bound debe ser positivo.
+     * Pos: Si bound no es potencia de dos se descartan los valores que sesgarían el resultado.
+     * @param bound Cota superior exclusiva.
+     * @return int Número generado.
+     */
+
+    public int nextInt(int bound) {
+
+        int r = mix32(nextSeed());
+        int m = bound - 1;
+
+        if ((bound & m) == 0) {
+
+            return r & m;
+        }
+
+        int u = r >>> 1;
+
+        while (u + m - (r = u % bound) < 0) {
+
+            u = mix32(nextSeed()) >>> 1;
+        }
+        return r;
+    }
+
+    public boolean nextBoolean() {
+
+        return mix32(nextSeed()) < 0;
+    }
+
+    /**
+     * Descripción: Crea un generador independiente a partir de este.
+     * Pre: Ninguna.
+     * Pos: Este generador avanza dos pasos y el nuevo produce una secuencia que no se solapa en la práctica con la de
+     * este, de modo que cada hilo o cada tablero puede tener el suyo sin compartir estado.
+     * @return GameRandom Generador nuevo.
+     */
+
+    public GameRandom split() {
+
+        return new GameRandom(nextLong(), mixGamma(nextSeed()));
+    }
+
+    /**
+     * Descripción: Reinicia otro generador como si fuera el resultado de split, sin crear objetos.
+     * Pre: other no debe ser este generador.
+     * Pos: other queda igual que el generador que habría devuelto split en este punto.
+     * @param other Generador a reiniciar.
+     */
+
+    public void splitInto(GameRandom other) {
+
+        other.seed = nextLong();
+        other.gamma = mixGamma(nextSeed());
+    }
+
+    long getSeed() {
+
+        return seed;
+    }
+
+    long getGamma() {
+
+        return gamma;
+    }
+
+    /**
+     * Descripción: Restaura el estado interno guardado con getSeed y getGamma.
+     * Pre: gamma debe venir de getGamma, que siempre es impar.
+     * Pos: El generador continúa la secuencia exactamente donde se guardó.
+     * @param seed Estado guardado.
+     * @param gamma Incremento guardado.
+     */
+
+    void setState(long seed, long gamma) {
+
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    private long nextSeed() {
+
+        return seed += gamma;
+    }
+
+    private static long mix64(long z) {
+
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int mix32(long z) {
+
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    private static long mixGamma(long z) {
+
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+
+        int n = Long.bitCount(z ^ (z >>> 1));
+
+        return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
@@ -0,0 +1,258 @@
+package model;
+
+import java.util.Arrays;
+
+public class GameRecord implements BoardEventListener {
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 32;
+
+    static final int TAG_BITS = 3;
+    static final int TAG_MASK = (1 << TAG_BITS) - 1;
+    static final int TAG_PLACEMENT = 6;
+    static final int TAG_SNAPSHOT = 7;
+    static final int BOAT_BITS = 3;
+    static final int TRAILER_BYTES = 4;
+
+    private final int snapshotInterval;
+    private byte[] bytes;
+    private int length;
+    private int width;
+    private int moves;
+    private boolean finished;
+
+    private long[][] attacked;
+    private int bitmapBytes;
+    private boolean snapshots;
+    private int[] index;
+    private int indexCount;
+
+    public GameRecord() {
+        this(DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * Descripción: Crea un registro de partidas que guarda una foto de los disparos cada cierta cantidad de jugadas.
+     * Pre: snapshotInterval no debe ser negativo.
+     * Pos: El intervalo se respeta en todos los tableros, de modo que saltar a cualquier jugada cuesta restaurar una
+     * foto más a lo sumo snapshotInterval jugadas. Cada foto ocupa un bit por casilla y tablero, así que en tableros
+     * grandes conviene un intervalo mayor si el tamaño del diario importa más que la velocidad de los saltos. Con 0
+     * no se guardan fotos y la repetición solo puede avanzar jugada por jugada.
+     * @param snapshotInterval Jugadas entre fotos.
+     */
+
+    public GameRecord(int snapshotInterval) {
+        if (snapshotInterval < 0) {
+            throw new IllegalArgumentException("Intervalo de fotos inválido: " + snapshotInterval);
+        }
+
+        this.snapshotInterval = snapshotInterval;
+        this.bytes = new byte[512];
+        this.attacked = new long[2][0];
+        this.index = new int[16];
+    }
+
+    /**
+     * Descripción: Comienza a registrar una partida nueva, descartando la anterior.
+     * Pre: Las dimensiones deben ser las de los tableros de la partida.
+     * Pos: El registro queda con la cabecera de la partida y sin jugadas; los arreglos internos se reutilizan. En
+     * tableros dispersos no se guardan fotos.
+     * @param width Ancho de los tableros.
+     * @param height Alto de los tableros.
+     * @param gameType Modo de la partida (1 estándar, 2 personalizada).
+     */
+
+    public void begin(int width, int height, int gameType) {
+
+        long cells = (long) width * height;
+
+        this.width = width;
+        length = 0;
+        moves = 0;
+        indexCount = 0;
+        finished = false;
+        snapshots = snapshotInterval > 0 && cells <= Board.DENSE_MAX_CELLS;
+
+        if (snapshots) {
+
+            int words = (int) ((cells + 63) / 64);
+
+            bitmapBytes = (int) ((cells + 7) / 8);
+
+            for (int source = 0; source < attacked.length; source++) {
+
+                if (attacked[source].length != words) {
+
+                    attacked[source] = new long[words];
+
+                } else {
+
+                    Arrays.fill(attacked[source], 0L);
+                }
+            }
+        }
+
+        writeVarLong(width);
+        writeVarLong(height);
+        writeByte(gameType);
+        writeVarLong(snapshots ? snapshotInterval : 0);
+    }
+
+    /**
+     * Descripción: Agrega al registro la colocación de un barco o un disparo resuelto.
+     * Pre: El evento debe provenir de los tableros de la partida iniciada con begin.
+     * Pos: BOAT_PLACED ocupa unos tres bytes y SHOT_RESOLVED uno o dos en tableros de 10x10; BOAT_SUNK y GAME_OVER
+     * se ignoran porque la repetición los vuelve a calcular. Al cumplirse cada intervalo se agrega una foto con
+     * las casillas atacadas de ambos tableros.
+     * @param event Evento codificado con BoardEvent.
+     */
+
+    @Override
+    public void onEvent(long event) {
+
+        TypeBoardEvent type = BoardEvent.getType(event);
+        int source = BoardEvent.getSource(event);
+        long cell = (long) (BoardEvent.getY(event) - 1) * width + (BoardEvent.getX(event) - 1);
+
+        if (type == TypeBoardEvent.BOAT_PLACED) {
+
+            int vertical = BoardEvent.isBoatVertical(event) ? 1 : 0;
+
+            writeVarLong((((((cell << 1) | vertical) << 1) | source) << TAG_BITS) | TAG_PLACEMENT);
+            writeVarLong(((long) BoardEvent.getBoatSize(event) << BOAT_BITS) | BoardEvent.getBoat(event).ordinal());
+
+            if (moves > 0) {
+
+                snapshots = false;
+            }
+
+        } else if (type == TypeBoardEvent.SHOT_RESOLVED) {
+
+            int result = AttackResult.getType(BoardEvent.getResult(event)).ordinal();
+
+            writeVarLong((cell << TAG_BITS) | (result << 1) | source);
+            moves++;
+
+            if (snapshots) {
+
+                attacked[source][(int) (cell >>> 6)] |= 1L << cell;
+
+                if (moves % snapshotInterval == 0) {
+
+                    writeSnapshot();
+                }
+            }
+        }
+    }
+
+    /**
+     * Descripción: Obtiene la cantidad de bytes del registro, cabecera incluida.
+     * Pre: Ninguna.
+     * Pos: Es el tamaño con el que la partida se guarda en el diario, sin contar su prefijo de longitud; después de
+     * GameJournalWriter.write incluye el índice de fotos.
+     * @return int Bytes registrados.
+     */
+
+    public int getLength() {
+
+        return length;
+    }
+
+    public int getMoves() {
+
+        return moves;
+    }
+
+    public int getSnapshotCount() {
+
+        return indexCount;
+    }
+
+    byte[] getBytes() {
+
+        return bytes;
+    }
+
+    /**
+     * Descripción: Cierra el registro agregando el índice de fotos al final.
+     * Pre: Se debe haber llamado a begin.
+     * Pos: El índice guarda la posición de cada foto y los últimos TRAILER_BYTES bytes indican dónde empieza el
+     * índice; llamarlo de nuevo no cambia nada.
+     */
+
+    void finish() {
+
+        if (finished) {
+
+            return;
+        }
+
+        int indexStart = length;
+        int previous = 0;
+
+        writeVarLong(indexCount);
+
+        for (int i = 0; i < indexCount; i++) {
+
+            writeVarLong(index[i] - previous);
+            previous = index[i];
+        }
+
+        for (int shift = 24; shift >= 0; shift -= 8) {
+
+            writeByte(indexStart >>> shift);
+        }
+
+        finished = true;
+    }
+
+    private void writeSnapshot() {
+
+        if (indexCount == index.length) {
+
+            index = Arrays.copyOf(index, indexCount * 2);
+        }
+
+        index[indexCount++] = length;
+        writeByte(TAG_SNAPSHOT);
+
+        if (length + 2 * bitmapBytes > bytes.length) {
+
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + 2 * bitmapBytes));
+        }
+
+        for (int source = 0; source < attacked.length; source++) {
+
+            long[] bits = attacked[source];
+
+            for (int i = 0; i < bitmapBytes; i++) {
+
+                bytes[length++] = (byte) (bits[i >>> 3] >>> ((i & 7) << 3));
+            }
+        }
+    }
+
+    private void writeVarLong(long value) {
+
+        if (length + 10 > bytes.length) {
+
+            bytes = Arrays.copyOf(bytes, bytes.length * 2);
+        }
+
+        while ((value & ~0x7FL) != 0) {
+
+            bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        bytes[length++] = (byte) value;
+    }
+
+    private void writeByte(int value) {
+
+        if (length == bytes.length) {
+
+            bytes = Arrays.copyOf(bytes, bytes.length * 2);
+        }
+
+        bytes[length++] = (byte) value;
+    }
+}
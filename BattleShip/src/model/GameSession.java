@@ -0,0 +1,581 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class GameSession {
+    private static final AtomicLong GENERATIONS = new AtomicLong();
+
+    private final long id;
+    private final long generation;
+    private final Controller controller;
+    private int gameType;
+    private BoardEventBuffer events;
+    private volatile SessionSnapshot latestSnapshot;
+    private long lastAccessNanos;
+    private GameJournalWriter journal;
+    private GameRecord record;
+    private BoardEventCursor journalCursor;
+    private boolean recording;
+    private boolean detached;
+
+    public GameSession(long id, int width, int height) {
+        this(id, width, height, ThreadLocalRandom.current().nextLong());
+    }
+
+    public GameSession(long id, int width, int height, long seed) {
+        this.id = id;
+        this.generation = GENERATIONS.incrementAndGet();
+        this.controller = new Controller(width, height, seed);
+        this.lastAccessNanos = System.nanoTime();
+    }
+
+    private GameSession(long id, Controller controller, int gameType) {
+        this.id = id;
+        this.generation = GENERATIONS.incrementAndGet();
+        this.controller = controller;
+        this.gameType = gameType;
+        this.lastAccessNanos = System.nanoTime();
+    }
+
+    public long getId() {
+
+        return id;
+    }
+
+    /**
+     * Descripción: Obtiene un número que distingue a este objeto de otras sesiones con el mismo identificador.
+     * Pre: Ninguna.
+     * Pos: Cada sesión creada o recuperada del disco recibe uno nuevo; junto con la versión de un tablero identifica
+     * su contenido aunque la versión haya vuelto a empezar al recuperar la partida.
+     * @return long Generación de la sesión.
+     */
+
+    public long getGeneration() {
+
+        return generation;
+    }
+
+    /**
+     * Descripción: Obtiene el instante del último uso de la sesión.
+     * Pre: Ninguna.
+     * Pos: Permite a SessionManager cerrar sesiones inactivas.
+     * @return long Valor de System.nanoTime() en la última operación.
+     */
+
+    public synchronized long getLastAccessNanos() {
+
+        return lastAccessNanos;
+    }
+
+    /**
+     * Descripción: Prepara una partida estándar: la máquina coloca su flota y el humano empieza a colocar la suya.
+     * Pre: Ninguna.
+     * Pos: La sesión queda esperando los barcos estándar del humano.
+     * @return boolean true si la flota de la máquina se colocó.
+     */
+
+    public synchronized boolean startStandardGame() {
+
+        checkAttached();
+        touch();
+        gameType = 1;
+        beginRecording();
+        controller.prepareStandardBoats();
+
+        boolean placed = controller.setupMachineStandardBoats();
+
+        eventsPublished();
+        return placed;
+    }
+
+    /**
+     * Descripción: Prepara una partida personalizada con la cantidad de barcos indicada para el humano.
+     * Pre: boatCount debe ser positivo.
+     * Pos: La sesión queda esperando los barcos personalizados del humano.
+     * @param boatCount Cantidad de barcos personalizados del humano.
+     * @return boolean true si la flota de la máquina se colocó.
+     */
+
+    public synchronized boolean startCustomGame(int boatCount) {
+
+        checkAttached();
+        touch();
+        gameType = 2;
+        beginRecording();
+        controller.prepareCustomBoats(boatCount);
+
+        boolean placed = controller.setupMachineCustomBoats();
+
+        eventsPublished();
+        return placed;
+    }
+
+    public synchronized boolean placeStandardBoat(int x, int y) {
+
+        checkAttached();
+        touch();
+
+        boolean placed = controller.tryPlaceCurrentHumanBoat(x, y);
+
+        eventsPublished();
+        return placed;
+    }
+
+    public synchronized boolean placeCustomBoat(int x, int y, int size, boolean isVertical) {
+
+        checkAttached();
+        touch();
+
+        boolean placed = controller.tryPlaceCustomHumanBoat(x, y, size, isVertical);
+
+        eventsPublished();
+        return placed;
+    }
+
+    /**
+     * Descripción: Coloca al azar la flota del humano, para clientes que no eligen posiciones.
+     * Pre: Se debe haber iniciado la partida con startStandardGame o startCustomGame.
+     * Pos: La flota del humano queda colocada si cabe en el tablero.
+     * @param isCustom true para una flota personalizada aleatoria.
+     * @return boolean true si se colocó toda la flota.
+     */
+
+    public synchronized boolean placeRandomHumanBoats(boolean isCustom) {
+
+        checkAttached();
+        touch();
+
+        boolean placed = isCustom ? controller.setupHumanRandomCustomBoats()
+                : controller.setupHumanRandomStandardBoats();
+
+        eventsPublished();
+        return placed;
+    }
+
+    public synchronized boolean isAllHumanBoatsPlaced() {
+
+        return controller.isAllHumanBoatsPlaced();
+    }
+
+    /**
+     * Descripción: Realiza el disparo del humano sobre el tablero de la máquina.
+     * Pre: Ninguna.
+     * Pos: Solo se dispara con la flota del humano completa y la partida sin terminar; si no, el tablero no cambia.
+     * @param x Coordenada X del disparo.
+     * @param y Coordenada Y del disparo.
+     * @return int Código de AttackResult del disparo, o NOT_IN_PLAY si la partida no admite disparos.
+     */
+
+    public synchronized int humanAttack(int x, int y) {
+
+        checkAttached();
+        touch();
+
+        if (!isInPlay()) {
+
+            return AttackResult.NOT_IN_PLAY;
+        }
+
+        int result = controller.humanAttack(x, y);
+
+        eventsPublished();
+        return result;
+    }
+
+    /**
+     * Descripción: Realiza el ataque de respuesta de la máquina.
+     * Pre: Ninguna.
+     * Pos: Solo se dispara con la flota del humano completa y la partida sin terminar; el resultado queda disponible
+     * en getLastMachineAttackResult.
+     * @return Coordinate atacada por la máquina, o null si la partida no admite disparos o no quedan casillas.
+     */
+
+    public synchronized Coordinate machineAttack() {
+
+        checkAttached();
+        touch();
+
+        if (!isInPlay()) {
+
+            return null;
+        }
+
+        Coordinate target = controller.machineAttack();
+
+        eventsPublished();
+        return target;
+    }
+
+    /**
+     * Descripción: Juega un turno completo: el disparo del humano y, si no terminó la partida, la respuesta de la máquina.
+     * Pre: Ninguna.
+     * Pos: Ambos disparos se resuelven bajo un único bloqueo de la sesión, solo con la flota del humano completa y
+     * la partida sin terminar.
+     * @param x Coordenada X del disparo del humano.
+     * @param y Coordenada Y del disparo del humano.
+     * @return int Código de AttackResult del disparo del humano, o NOT_IN_PLAY si la partida no admite disparos.
+     */
+
+    public synchronized int playTurn(int x, int y) {
+
+        checkAttached();
+        touch();
+
+        if (!isInPlay()) {
+
+            return AttackResult.NOT_IN_PLAY;
+        }
+
+        int result = controller.humanAttack(x, y);
+
+        if (AttackResult.isResolved(result) && !controller.isGameOver()) {
+
+            controller.machineAttack();
+        }
+
+        eventsPublished();
+        return result;
+    }
+
+    private boolean isInPlay() {
+
+        return controller.isAllHumanBoatsPlaced() && !controller.isGameOver();
+    }
+
+    public synchronized int getLastMachineAttackResult() {
+
+        return controller.getLastMachineAttackResult();
+    }
+
+    public synchronized boolean isGameOver() {
+
+        return controller.isGameOver();
+    }
+
+    public synchronized String getWinnerName() {
+
+        return controller.getWinnerName();
+    }
+
+    public synchronized boolean isHumanWinner() {
+
+        return controller.isHumanWinner();
+    }
+
+    /**
+     * Descripción: Obtiene el modo de la partida en curso.
+     * Pre: Ninguna.
+     * Pos: Retorna el valor que acepta recordGameResult.
+     * @return int 1 estándar, 2 personalizada, 0 si todavía no se inició una partida.
+     */
+
+    public synchronized int getGameType() {
+
+        return gameType;
+    }
+
+    /**
+     * Descripción: Obtiene la semilla de la partida en curso.
+     * Pre: Ninguna.
+     * Pos: Permite reportar la partida para repetirla con Controller.newGame(long).
+     * @return long Semilla de la partida.
+     */
+
+    public synchronized long getGameSeed() {
+
+        return controller.getGameSeed();
+    }
+
+    public synchronized int getBoardWidth() {
+
+        return controller.getBoardWidth();
+    }
+
+    public synchronized int getBoardHeight() {
+
+        return controller.getBoardHeight();
+    }
+
+    public synchronized long getHumanBoardVersion() {
+
+        return controller.getHumanBoardVersion();
+    }
+
+    public synchronized long getMachineBoardVersion() {
+
+        return controller.getMachineBoardVersion();
+    }
+
+    public synchronized int[][] getHumanBoard() {
+
+        return controller.getHumanBoard();
+    }
+
+    public synchronized int[][] getMachineBoard() {
+
+        return controller.getMachineBoard();
+    }
+
+    public synchronized void setExpertMode(boolean expert, long latencyBudgetNanos) {
+
+        checkAttached();
+
+        controller.setExpertMode(expert, latencyBudgetNanos);
+    }
+
+    public synchronized void recordGameResult(int gameType) {
+
+        checkAttached();
+
+        controller.recordGameResult(gameType);
+    }
+
+    public synchronized String showStatistics() {
+
+        return controller.showStatistics();
+    }
+
+    /**
+     * Descripción: Suscribe un consumidor a los eventos de los tableros de la sesión.
+     * Pre: Ninguna.
+     * Pos: El anillo de eventos se crea con la primera suscripción; cada consumidor recibe su propio cursor, que
+     * debe leer desde su propio hilo sin tomar el bloqueo de la sesión.
+     * @return BoardEventCursor que lee los eventos publicados desde ahora.
+     */
+
+    public synchronized BoardEventCursor subscribe() {
+
+        checkAttached();
+
+        if (events == null) {
+
+            events = new BoardEventBuffer();
+            controller.setEventBuffer(events);
+            publishSnapshot();
+        }
+        return events.newCursor();
+    }
+
+    /**
+     * Descripción: Obtiene la última foto publicada de ambos tableros, sin tomar el bloqueo de la sesión.
+     * Pre: Se debe haber llamado a subscribe.
+     * Pos: La foto tiene a lo sumo un cuarto de la capacidad del anillo de eventos de atraso, de modo que los
+     * eventos desde su secuencia siguen normalmente en el anillo. Es compartida y no se debe modificar.
+     * @return SessionSnapshot más reciente, o null si no hay suscriptores o los tableros son dispersos.
+     */
+
+    public SessionSnapshot getLatestSnapshot() {
+
+        return latestSnapshot;
+    }
+
+    /**
+     * Descripción: Toma fotos de ambos tableros junto con la posición del anillo de eventos en ese instante.
+     * Pre: Se debe haber llamado a subscribe.
+     * Pos: Aplicar a las fotos los eventos desde la secuencia retornada reproduce exactamente el estado de la partida.
+     * @param humanOut Foto del tablero humano.
+     * @param machineOut Foto del tablero máquina.
+     * @return long Secuencia del anillo desde la que continuar, o -1 si no se pudieron tomar las fotos.
+     */
+
+    public synchronized long snapshot(BoardSnapshot humanOut, BoardSnapshot machineOut) {
+
+        if (events == null || !controller.snapshotBoards(humanOut, machineOut)) {
+
+            return -1;
+        }
+        return events.getPublished();
+    }
+
+    public synchronized int getStateSize() {
+
+        return 1 + controller.getStateSize();
+    }
+
+    /**
+     * Descripción: Guarda el estado completo de la sesión en formato binario (ver Controller.saveState).
+     * Pre: out debe tener al menos getStateSize() bytes libres.
+     * Pos: Se escriben el modo de la partida y el estado del controlador; los suscriptores y el diario no se guardan.
+     * @param out Búfer de destino.
+     */
+
+    public synchronized void saveState(ByteBuffer out) {
+
+        out.put((byte) gameType);
+        controller.saveState(out);
+    }
+
+    /**
+     * Descripción: Reconstruye una sesión guardada con saveState.
+     * Pre: in debe estar posicionado al inicio de un estado guardado.
+     * Pos: La sesión continúa la partida donde quedó, sin suscriptores ni diario.
+     * @param id Identificador de la sesión.
+     * @param in Búfer de origen.
+     * @return GameSession reconstruida, o null si los datos no son válidos.
+     */
+
+    public static GameSession restoreState(long id, ByteBuffer in) {
+
+        if (!in.hasRemaining()) {
+
+            return null;
+        }
+
+        int gameType = in.get();
+        Controller controller = Controller.restoreState(in);
+
+        if (controller == null) {
+
+            return null;
+        }
+        return new GameSession(id, controller, gameType);
+    }
+
+    /**
+     * Descripción: Archiva en un diario cada partida que se termine en esta sesión.
+     * Pre: journal puede ser compartido entre sesiones.
+     * Pos: Desde la próxima partida iniciada, sus jugadas se registran al resolverse y la partida completa se agrega
+     * al diario al terminar; null deja de archivar.
+     * @param journal Diario de partidas, o null.
+     */
+
+    public synchronized void setJournal(GameJournalWriter journal) {
+
+        checkAttached();
+
+        this.journal = journal;
+        this.recording = false;
+
+        if (journal != null && record == null) {
+
+            record = new GameRecord();
+            journalCursor = subscribe();
+        }
+    }
+
+    /**
+     * Descripción: Se ejecuta con el bloqueo de la sesión después de cada operación que publica eventos.
+     * Pre: Ninguna.
+     * Pos: Si desde la última foto publicada pasaron un cuarto de la capacidad del anillo o más eventos, se publica
+     * una nueva; el costo para la partida es una copia de los tableros cada tantos eventos, sin importar cuántos
+     * espectadores la sigan. Luego se pasan los eventos al diario.
+     */
+
+    private void eventsPublished() {
+
+        SessionSnapshot latest = latestSnapshot;
+
+        if (events != null && (latest == null
+                || events.getPublished() - latest.getSequence() >= events.getCapacity() / 4)) {
+
+            publishSnapshot();
+        }
+
+        recordEvents();
+    }
+
+    private void publishSnapshot() {
+
+        if ((long) controller.getBoardWidth() * controller.getBoardHeight() > Board.DENSE_MAX_CELLS) {
+
+            return;
+        }
+
+        BoardSnapshot human = new BoardSnapshot(controller.getBoardWidth(), controller.getBoardHeight());
+        BoardSnapshot machine = new BoardSnapshot(controller.getBoardWidth(), controller.getBoardHeight());
+
+        if (controller.snapshotBoards(human, machine)) {
+
+            latestSnapshot = new SessionSnapshot(human, machine, events.getPublished());
+        }
+    }
+
+    private void beginRecording() {
+
+        if (journal == null) {
+
+            return;
+        }
+
+        journalCursor.seek(events.getPublished());
+        record.begin(controller.getBoardWidth(), controller.getBoardHeight(), gameType);
+        recording = true;
+    }
+
+    /**
+     * Descripción: Pasa al registro de la partida los eventos nuevos de los tableros.
+     * Pre: Se llama con el bloqueo de la sesión, después de cada operación que cambia los tableros.
+     * Pos: Al terminar la partida se escribe en el diario. Si el diario falla o el cursor perdió eventos la partida
+     * se descarta, sin afectar al juego.
+     */
+
+    private void recordEvents() {
+
+        if (!recording) {
+
+            return;
+        }
+
+        journalCursor.drain(record, Integer.MAX_VALUE);
+
+        if (journalCursor.getMissed() > 0) {
+
+            recording = false;
+            return;
+        }
+
+        if (controller.isAllHumanBoatsPlaced() && controller.isGameOver()) {
+
+            recording = false;
+
+            try {
+
+                journal.write(record);
+
+            } catch (IOException e) {
+
+                journal = null;
+            }
+        }
+    }
+
+    /**
+     * Descripción: Desvincula la sesión de SessionManager al guardarla en disco o cerrarla.
+     * Pre: Se llama con el bloqueo de la sesión, antes de sacarla del administrador.
+     * Pos: Toda operación que modifique la partida falla desde ahora con IllegalStateException, para que quien
+     * conserve esta referencia no juegue jugadas que se perderían; debe volver a pedir la sesión con getSession.
+     */
+
+    synchronized void detach() {
+
+        detached = true;
+    }
+
+    /**
+     * Descripción: Indica si la sesión se guardó en disco o se cerró.
+     * Pre: Ninguna.
+     * Pos: Una sesión desvinculada no admite más cambios; la partida guardada se obtiene con getSession.
+     * @return boolean true si la sesión ya no pertenece al administrador.
+     */
+
+    public synchronized boolean isDetached() {
+
+        return detached;
+    }
+
+    private void checkAttached() {
+
+        if (detached) {
+
+            throw new IllegalStateException("La sesión " + id + " se guardó o se cerró; vuelva a pedirla");
+        }
+    }
+
+    private void touch() {
+
+        lastAccessNanos = System.nanoTime();
+    }
+}
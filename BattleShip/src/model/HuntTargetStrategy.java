@@ -0,0 +1,144 @@
+package model;
+
+public class HuntTargetStrategy implements AttackStrategy {
+    protected Board target;
+    protected int width;
+    protected int height;
+    protected int cells;
+    private int[] pending;
+    private int pendingCount;
+    private int[] unresolvedHits;
+    private int unresolvedCount;
+
+    public HuntTargetStrategy() {
+        pending = new int[0];
+        unresolvedHits = new int[0];
+    }
+
+    /**
+     * Descripción: Prepara la estrategia para atacar un tablero.
+     * Pre: El tablero objetivo debe ser denso.
+     * Pos: Las colas se dimensionan según el tablero y solo se vuelven a crear si cambia su tamaño.
+     * @param target Tablero que se va a atacar.
+     */
+
+    @Override
+    public void startGame(Board target) {
+
+        this.target = target;
+        width = target.getWidth();
+        height = target.getHeight();
+        cells = width * height;
+
+        if (pending.length != cells) {
+
+            pending = new int[cells];
+            unresolvedHits = new int[cells];
+        }
+
+        pendingCount = 0;
+        unresolvedCount = 0;
+    }
+
+    /**
+     * Descripción: Elige la próxima casilla: vecinos de impactos pendientes (objetivo) o caza aleatoria.
+     * Pre: Se debe haber llamado a startGame.
+     * Pos: Retorna una casilla sin atacar.
+     * @return int Índice de la casilla elegida, o -1 si no quedan casillas sin atacar.
+     */
+
+    @Override
+    public int nextAttackCell() {
+
+        while (pendingCount > 0) {
+
+            int cell = pending[--pendingCount];
+
+            if (!target.isCoordinateAttacked(cell)) {
+
+                return cell;
+            }
+        }
+
+        return huntCell();
+    }
+
+    /**
+     * Descripción: Registra el resultado; un impacto encola sus vecinos y un hundimiento descarta los impactos resueltos.
+     * Pre: result debe ser el código devuelto por Board.receiveAttack para la casilla cell.
+     * Pos: La cola de objetivos contiene solo vecinos de impactos que aún no pertenecen a un barco hundido.
+     * @param cell Índice de la casilla atacada.
+     * @param result Código de AttackResult del disparo.
+     */
+
+    @Override
+    public void recordResult(int cell, int result) {
+
+        if (AttackResult.getType(result) == TypeAttackResult.HIT) {
+
+            unresolvedHits[unresolvedCount++] = cell;
+            pushNeighbours(cell);
+
+        } else if (AttackResult.isSunk(result)) {
+
+            int kept = 0;
+            pendingCount = 0;
+
+            for (int i = 0; i < unresolvedCount; i++) {
+
+                if (!target.isCellSunk(unresolvedHits[i])) {
+
+                    unresolvedHits[kept++] = unresolvedHits[i];
+                    pushNeighbours(unresolvedHits[i]);
+                }
+            }
+
+            unresolvedCount = kept;
+        }
+    }
+
+    @Override
+    public String getName() {
+
+        return "Caza/Objetivo";
+    }
+
+    /**
+     * Descripción: Elige una casilla en modo caza.
+     * Pre: Se debe haber llamado a startGame.
+     * Pos: Retorna una casilla uniforme entre las no atacadas.
+     * @return int Índice de la casilla elegida, o -1 si no quedan casillas sin atacar.
+     */
+
+    protected int huntCell() {
+
+        return target.generateRandomAttackCell();
+    }
+
+    private void pushNeighbours(int cell) {
+
+        int row = cell / width;
+        int column = cell % width;
+
+        if (column > 0) {
+            push(cell - 1);
+        }
+        if (column < width - 1) {
+            push(cell + 1);
+        }
+        if (row > 0) {
+            push(cell - width);
+        }
+        if (row < height - 1) {
+            push(cell + width);
+        }
+    }
+
+    private void push(int cell) {
+
+        if (!target.isCoordinateAttacked(cell) && pendingCount < pending.length) {
+
+            pending[pendingCount++] = cell;
+        }
+    }
+}
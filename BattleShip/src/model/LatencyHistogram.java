@@ -0,0 +1,90 @@
+package model;
+
+public class LatencyHistogram {
+    public static final int BUCKET_SHIFT = 10;
+    public static final int BUCKETS = 1 << 16;
+
+    private long[] counts;
+    private long total;
+    private long maxNanos;
+
+    public LatencyHistogram() {
+        counts = new long[BUCKETS + 1];
+    }
+
+    /**
+     * Descripción: Registra una medición de latencia.
+     * Pre: nanos no debe ser negativo.
+     * Pos: La medición cae en un intervalo de 1024 ns; las mayores a BUCKETS intervalos (unos 67 ms) se acumulan en
+     * el último. No se crean objetos.
+     * @param nanos Latencia medida en nanosegundos.
+     */
+
+    public void record(long nanos) {
+
+        counts[(int) Math.min(nanos >>> BUCKET_SHIFT, BUCKETS)]++;
+        total++;
+
+        if (nanos > maxNanos) {
+
+            maxNanos = nanos;
+        }
+    }
+
+    /**
+     * Descripción: Acumula en este histograma las mediciones de otro.
+     * Pre: other no debe ser null.
+     * Pos: Los conteos quedan sumados.
+     * @param other Histograma parcial, por ejemplo el de otro hilo.
+     */
+
+    public void merge(LatencyHistogram other) {
+
+        for (int i = 0; i < counts.length; i++) {
+
+            counts[i] += other.counts[i];
+        }
+
+        total += other.total;
+        maxNanos = Math.max(maxNanos, other.maxNanos);
+    }
+
+    public long getCount() {
+
+        return total;
+    }
+
+    public long getMaxNanos() {
+
+        return maxNanos;
+    }
+
+    /**
+     * Descripción: Calcula un percentil de la latencia.
+     * Pre: percentile debe estar entre 0 y 100.
+     * Pos: Retorna el límite superior del intervalo que contiene el percentil, o el máximo si cae en el último.
+     * @param percentile Percentil pedido, por ejemplo 99.
+     * @return long Latencia en nanosegundos, o 0 si no hay mediciones.
+     */
+
+    public long getPercentileNanos(double percentile) {
+
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+
+        for (int i = 0; i < counts.length; i++) {
+
+            seen += counts[i];
+
+            if (seen >= rank && seen > 0) {
+
+                if (i == BUCKETS) {
+
+                    return maxNanos;
+                }
+                return (long) (i + 1) << BUCKET_SHIFT;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,148 @@
+package model;
+
+import java.util.Arrays;
+
+public class LongIntHashMap {
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    public LongIntHashMap() {
+        this(64);
+    }
+
+    public LongIntHashMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Descripción: Obtiene el valor asociado a una llave.
+     * Pre: Ninguna.
+     * Pos: Retorna el valor sin crear objetos.
+     * @param key Llave a buscar.
+     * @return int Valor guardado, o 0 si la llave no está.
+     */
+
+    public int get(long key) {
+
+        int slot = slot(key);
+
+        while (values[slot] != 0) {
+
+            if (keys[slot] == key) {
+
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return 0;
+    }
+
+    /**
+     * Descripción: Asocia un valor a una llave, reemplazando el anterior.
+     * Pre: value no debe ser 0, que se reserva para casillas vacías.
+     * Pos: La tabla crece al superar la mitad de su capacidad.
+     * @param key Llave a guardar.
+     * @param value Valor distinto de 0.
+     */
+
+    public void put(long key, int value) {
+
+        int slot = slot(key);
+
+        while (values[slot] != 0) {
+
+            if (keys[slot] == key) {
+
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+
+        if (++size * 2 > keys.length) {
+
+            grow();
+        }
+    }
+
+    /**
+     * Descripción: Obtiene la cantidad de llaves guardadas.
+     * Pre: Ninguna.
+     * Pos: Retorna el tamaño de la tabla.
+     * @return int Cantidad de llaves.
+     */
+
+    public int size() {
+
+        return size;
+    }
+
+    /**
+     * Descripción: Elimina todas las llaves conservando la capacidad reservada.
+     * Pre: Ninguna.
+     * Pos: La tabla queda vacía.
+     * @return void, vacía la tabla.
+     */
+
+    public void clear() {
+
+        Arrays.fill(values, 0);
+        size = 0;
+    }
+
+    /**
+     * Descripción: Obtiene la cantidad de posiciones internas de la tabla, para recorrerla sin crear objetos.
+     * Pre: Ninguna.
+     * Pos: Las posiciones de 0 a getCapacity() - 1 se leen con keyAt y valueAt; las vacías tienen valor 0.
+     * @return int Posiciones de la tabla.
+     */
+
+    int getCapacity() {
+
+        return keys.length;
+    }
+
+    long keyAt(int slot) {
+
+        return keys[slot];
+    }
+
+    int valueAt(int slot) {
+
+        return values[slot];
+    }
+
+    private int slot(long key) {
+
+        long h = key * 0x9E3779B97F4A7C15L;
+
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void grow() {
+
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        mask = keys.length - 1;
+        size = 0;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+
+            if (oldValues[i] != 0) {
+
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class MonteCarloStrategy implements AttackStrategy {
+    public static final long DEFAULT_BUDGET_NANOS = 5_000_000L;
+    public static final int DEFAULT_MAX_SAMPLES = 20_000;
+
+
+    private ForkJoinPool pool;
+    private long budgetNanos;
+    private int maxSamples;
+    private GameRandom random;
+    private Board target;
+    private PlacementTable table;
+    private ArrayList<TypeBoat> afloatTypes;
+    private ArrayList<Integer> afloatSizes;
+    private ProbabilityDensityStrategy fallback;
+    private long lastSamples;
+
+    public MonteCarloStrategy() {
+        this(DEFAULT_BUDGET_NANOS);
+    }
+
+    public MonteCarloStrategy(long budgetNanos) {
+        this(budgetNanos, DEFAULT_MAX_SAMPLES, ForkJoinPool.commonPool());
+    }
+
+    public MonteCarloStrategy(long budgetNanos, int maxSamples, ForkJoinPool pool) {
+        this.budgetNanos = budgetNanos;
+        this.maxSamples = maxSamples;
+        this.pool = pool;
+        this.afloatTypes = new ArrayList<>();
+        this.afloatSizes = new ArrayList<>();
+        this.fallback = new ProbabilityDensityStrategy();
+    }
+
+    /**
+     * Descripción: Prepara la estrategia para atacar un tablero, tomando la composición pública de su flota.
+     * Pre: El tablero objetivo debe tener sus barcos colocados.
+     * Pos: Se conocen tipo y tamaño de cada barco a flote, sin usar sus posiciones. En tableros sin PlacementTable
+     * se juega siempre con el mapa de densidad.
+     * @param target Tablero que se va a atacar.
+     */
+
+    @Override
+    public void startGame(Board target) {
+
+        this.target = target;
+        this.random = target.getRandom();
+        this.table = PlacementTable.forBoard(target);
+        afloatTypes.clear();
+        afloatSizes.clear();
+
+        ArrayList<Boat> boats = target.getBoats();
+
+        for (int i = 0; i < boats.size(); i++) {
+
+            Boat boat = boats.get(i);
+
+            if (!boat.isSunk()) {
+
+                afloatTypes.add(boat.getType());
+                afloatSizes.add(boat.getSize());
+            }
+        }
+
+        fallback.startGame(target);
+    }
+
+    /**
+     * Descripción: Muestrea en paralelo flotas consistentes con lo observado y ataca la casilla más probable.
+     * Pre: Se debe haber llamado a startGame.
+     * Pos: Los hilos muestrean hasta agotar el presupuesto de latencia o maxSamples; si ninguna muestra explica los
+     * impactos pendientes se usa el mapa de densidad.
+     * @return int Índice de la casilla elegida, o -1 si no quedan casillas sin atacar.
+     */
+
+    @Override
+    public int nextAttackCell() {
+
+        if (table == null) {
+
+            return fallback.nextAttackCell();
+        }
+
+        int cells = table.getCells();
+        long[] blocked = new long[table.getWords()];
+        long[] pendingHits = new long[table.getWords()];
+
+        for (int cell = 0; cell < cells; cell++) {
+
+            if (!target.isCoordinateAttacked(cell)) {
+
+                continue;
+            }
+
+            if (!target.isCellHit(cell) || target.isCellSunk(cell)) {
+
+                blocked[cell >>> 6] |= 1L << cell;
+
+            } else {
+
+                pendingHits[cell >>> 6] |= 1L << cell;
+            }
+        }
+
+        int[] sizes = new int[afloatSizes.size()];
+        int[] fixedOrientation = new int[sizes.length];
+
+        for (int i = 0; i < sizes.length; i++) {
+
+            sizes[i] = afloatSizes.get(i);
+            fixedOrientation[i] = orientationOf(afloatTypes.get(i));
+        }
+
+        int parallelism = pool.getParallelism();
+        long deadline = System.nanoTime() + budgetNanos;
+        int perTask = Math.max(1, maxSamples / parallelism);
+
+        SampleTask[] tasks = new SampleTask[parallelism];
+
+        for (int t = 0; t < parallelism; t++) {
+
+            tasks[t] = new SampleTask(table, blocked, pendingHits, sizes, fixedOrientation, random.split(), deadline,
+                    perTask);
+        }
+
+        long[] counts = new long[cells];
+        long accepted = 0;
+
+        for (SampleTask task : pool.invoke(new Fork(tasks))) {
+
+            accepted += task.accepted;
+
+            for (int cell = 0; cell < cells; cell++) {
+
+                counts[cell] += task.counts[cell];
+            }
+        }
+
+        lastSamples = accepted;
+
+        int best = -1;
+        long bestCount = 0;
+
+        for (int cell = 0; cell < cells; cell++) {
+
+            if (counts[cell] > bestCount && !target.isCoordinateAttacked(cell)) {
+
+                best = cell;
+                bestCount = counts[cell];
+            }
+        }
+
+        if (best < 0) {
+
+            return fallback.nextAttackCell();
+        }
+        return best;
+    }
+
+    /**
+     * Descripción: Registra el resultado; un hundimiento retira de la flota a flote un barco del tipo y tamaño informados.
+     * Pre: result debe ser el código devuelto por Board.receiveAttack para la casilla cell.
+     * Pos: La flota a flote y el mapa de respaldo quedan actualizados.
+     * @param cell Índice de la casilla atacada.
+     * @param result Código de AttackResult del disparo.
+     */
+
+    @Override
+    public void recordResult(int cell, int result) {
+
+        fallback.recordResult(cell, result);
+
+        if (!AttackResult.isSunk(result)) {
+
+            return;
+        }
+
+        TypeBoat type = AttackResult.getSunkBoat(result);
+        int size = AttackResult.getSunkSize(result);
+
+        for (int i = 0; i < afloatTypes.size(); i++) {
+
+            if (afloatTypes.get(i) == type && afloatSizes.get(i) == size) {
+
+                afloatTypes.remove(i);
+                afloatSizes.remove(i);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+
+        return "MonteCarlo";
+    }
+
+    /**
+     * Descripción: Obtiene cuántas flotas consistentes se aceptaron en la última decisión.
+     * Pre: Ninguna.
+     * Pos: Retorna el total sumado entre todos los hilos.
+     * @return long con la cantidad de muestras aceptadas.
+     */
+
+    public long getLastSamples() {
+
+        return lastSamples;
+    }
+
+    /**
+     * Descripción: Indica la orientación que puede tomar un barco según su tipo.
+     * Pre: Ninguna.
+     * Pos: Los barcos estándar tienen orientación fija; los personalizados pueden tener cualquiera.
+     * @param type Tipo del barco.
+     * @return int 0 horizontal, 1 vertical, -1 cualquiera.
+     */
+
+    private static int orientationOf(TypeBoat type) {
+
+        if (type == null || type == TypeBoat.PERSONALIZADO) {
+
+            return -1;
+        }
+
+        if (type.isDefaultVertical()) {
+
+            return 1;
+        }
+        return 0;
+    }
+
+    private static class Fork extends RecursiveTask<SampleTask[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final SampleTask[] tasks;
+
+        Fork(SampleTask[] tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        protected SampleTask[] compute() {
+
+            invokeAll(tasks);
+
+            return tasks;
+        }
+    }
+
+    private static class SampleTask extends RecursiveTask<Void> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient PlacementTable table;
+        private final int words;
+        private final long[] blocked;
+        private final long[] pendingHits;
+        private final int[] sizes;
+        private final int[] fixedOrientation;
+        private final transient GameRandom random;
+        private final long deadline;
+        private final int maxSamples;
+        private final long[] counts;
+        private long accepted;
+
+        SampleTask(PlacementTable table, long[] blocked, long[] pendingHits, int[] sizes, int[] fixedOrientation,
+                GameRandom random, long deadline, int maxSamples) {
+            this.table = table;
+            this.words = table.getWords();
+            this.blocked = blocked;
+            this.pendingHits = pendingHits;
+            this.sizes = sizes;
+            this.fixedOrientation = fixedOrientation;
+            this.random = random;
+            this.deadline = deadline;
+            this.maxSamples = maxSamples;
+            this.counts = new long[table.getCells()];
+        }
+
+        /**
+         * Descripción: Muestrea flotas al azar hasta el plazo, contando las casillas de las que explican los impactos.
+         * Pre: Ninguna.
+         * Pos: counts contiene, por casilla, cuántas flotas aceptadas la ocupan.
+         * @return Void sin valor.
+         */
+
+        @Override
+        protected Void compute() {
+
+            long[] occupancy = new long[words];
+            long[] ships = new long[words];
+            int[] candidates = new int[table.getCells()];
+            int attempts = 0;
+
+            while (accepted < maxSamples && ((++attempts & 63) != 0 || System.nanoTime() < deadline)) {
+
+                if (sample(occupancy, ships, candidates)) {
+
+                    accepted++;
+
+                    for (int w = 0; w < words; w++) {
+
+                        long bits = ships[w];
+
+                        while (bits != 0) {
+
+                            counts[(w << 6) + Long.numberOfTrailingZeros(bits)]++;
+                            bits &= bits - 1;
+                        }
+                    }
+                }
+            }
+            return null;
+        }
+
+        private boolean sample(long[] occupancy, long[] ships, int[] candidates) {
+
+            for (int w = 0; w < words; w++) {
+
+                occupancy[w] = blocked[w];
+                ships[w] = 0L;
+            }
+
+            for (int i = 0; i < sizes.length; i++) {
+
+                boolean vertical;
+
+                if (fixedOrientation[i] < 0) {
+
+                    vertical = random.nextBoolean();
+
+                } else {
+
+                    vertical = fixedOrientation[i] == 1;
+                }
+
+                int count = table.legalIndices(occupancy, sizes[i], vertical, candidates);
+
+                if (count == 0) {
+
+                    return false;
+                }
+
+                int index = candidates[random.nextInt(count)];
+
+                table.addPlacement(occupancy, sizes[i], vertical, index);
+                table.addPlacement(ships, sizes[i], vertical, index);
+            }
+
+            for (int w = 0; w < words; w++) {
+
+                if ((pendingHits[w] & ~ships[w]) != 0) {
+
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package model;
+
+public class ParityStrategy extends HuntTargetStrategy {
+    private int[] parityCells;
+    private int parityCount;
+    private GameRandom random;
+
+    public ParityStrategy() {
+        parityCells = new int[0];
+    }
+
+    @Override
+    public void startGame(Board target) {
+
+        super.startGame(target);
+        random = target.getRandom();
+        parityCount = 0;
+
+        if (parityCells.length != cells) {
+
+            parityCells = new int[cells];
+        }
+
+        for (int cell = 0; cell < cells; cell++) {
+
+            if (((cell / width + cell % width) & 1) == 0) {
+
+                parityCells[parityCount++] = cell;
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+
+        return "Paridad";
+    }
+
+    /**
+     * Descripción: Caza solo sobre las casillas de un color del tablero de ajedrez, donde cabe todo barco de tamaño 2 o más.
+     * Pre: Se debe haber llamado a startGame.
+     * Pos: Las casillas de paridad ya atacadas se descartan al encontrarlas; si se agotan, se caza sobre el resto.
+     * @return int Índice de la casilla elegida, o -1 si no quedan casillas sin atacar.
+     */
+
+    @Override
+    protected int huntCell() {
+
+        while (parityCount > 0) {
+
+            int index = random.nextInt(parityCount);
+            int cell = parityCells[index];
+
+            parityCells[index] = parityCells[--parityCount];
+
+            if (!target.isCoordinateAttacked(cell)) {
+
+                return cell;
+            }
+        }
+
+        return super.huntCell();
+    }
+}
@@ -0,0 +1,340 @@
+package model;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+public class PlacementTable {
+    public static final int MAX_SEARCH_NODES = 100_000;
+    public static final int MAX_CELLS = 400;
+
+    private static final ConcurrentHashMap<Long, PlacementTable> TABLES = new ConcurrentHashMap<>();
+
+    private final int width;
+    private final int height;
+    private final int cells;
+    private final int words;
+    private final int[][][] starts;
+    private final long[][][] masks;
+
+    private PlacementTable(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.cells = width * height;
+        this.words = (cells + 63) / 64;
+
+        int maxSize = Math.max(width, height);
+
+        this.starts = new int[maxSize + 1][2][];
+        this.masks = new long[maxSize + 1][2][];
+
+        for (int size = 1; size <= maxSize; size++) {
+            buildTable(size, false);
+            buildTable(size, true);
+        }
+    }
+
+    /**
+     * Descripción: Obtiene la tabla de posiciones de un tablero, compartida entre todos los tableros de esas dimensiones.
+     * Pre: Ninguna.
+     * Pos: La tabla se construye la primera vez que se pide y luego se reutiliza; solo se usa desde tableros pequeños
+     * porque guarda una máscara completa por cada posición posible. Las tablas ya construidas se leen sin bloqueo,
+     * de modo que los hilos de todas las sesiones ubican flotas en paralelo.
+     * @param width Ancho del tablero.
+     * @param height Alto del tablero.
+     * @return PlacementTable del tablero, o null si tiene más de MAX_CELLS casillas.
+     */
+
+    public static PlacementTable forSize(int width, int height) {
+
+        if (width < 1 || height < 1 || (long) width * height > MAX_CELLS) {
+
+            return null;
+        }
+
+        Long key = ((long) width << 32) | height;
+        PlacementTable table = TABLES.get(key);
+
+        if (table == null) {
+
+            table = TABLES.computeIfAbsent(key, k -> new PlacementTable(width, height));
+        }
+        return table;
+    }
+
+    /**
+     * Descripción: Obtiene la tabla de posiciones correspondiente a un tablero.
+     * Pre: board no debe ser null.
+     * Pos: Equivale a forSize con las dimensiones del tablero.
+     * @param board Tablero del que se toman las dimensiones.
+     * @return PlacementTable del tablero, o null si es demasiado grande.
+     */
+
+    public static PlacementTable forBoard(Board board) {
+
+        return forSize(board.getWidth(), board.getHeight());
+    }
+
+    public int getWidth() {
+
+        return width;
+    }
+
+    public int getCells() {
+
+        return cells;
+    }
+
+    public int getWords() {
+
+        return words;
+    }
+
+    /**
+     * Descripción: Enumera las posiciones iniciales legales de un barco contra una capa de ocupación.
+     * Pre: out debe tener getCells() posiciones.
+     * Pos: out contiene los índices de casilla donde el barco cabe sin salirse ni solaparse.
+     * @param occupancy Capa de ocupación actual.
+     * @param size Tamaño del barco.
+     * @param isVertical Orientación del barco.
+     * @param out Arreglo donde se escriben las casillas iniciales legales.
+     * @return int Cantidad de posiciones legales encontradas.
+     */
+
+    public int legalStarts(long[] occupancy, int size, boolean isVertical, int[] out) {
+
+        int count = legalIndices(occupancy, size, isVertical, out);
+
+        if (count > 0) {
+
+            int[] table = starts[size][orientation(isVertical)];
+
+            for (int i = 0; i < count; i++) {
+
+                out[i] = table[out[i]];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Descripción: Busca una ubicación para toda una flota, eligiendo cada barco uniformemente entre sus posiciones legales.
+     * Pre: sizes, vertical y outStarts deben tener la misma longitud; occupancy no se modifica.
+     * Pos: Si retorna true, outStarts contiene la casilla inicial de cada barco. Si una elección deja sin lugar
+     * a un barco posterior, se retrocede probando las demás posiciones hasta agotar maxNodes.
+     * @param occupancy Capa de ocupación del tablero antes de ubicar la flota.
+     * @param sizes Tamaño de cada barco.
+     * @param vertical Orientación de cada barco.
+     * @param rand Generador aleatorio usado para las elecciones.
+     * @param outStarts Arreglo donde se escribe la casilla inicial de cada barco.
+     * @param maxNodes Máximo de posiciones a probar antes de declarar la flota inviable.
+     * @return boolean true si se encontró una ubicación para toda la flota, false si es inviable o se agotó la búsqueda.
+     */
+
+    public boolean planFleet(long[] occupancy, int[] sizes, boolean[] vertical, GameRandom rand,
+            int[] outStarts, int maxNodes) {
+
+        return planFleet(occupancy.clone(), sizes, vertical, sizes.length, rand, outStarts,
+                new int[sizes.length][cells], maxNodes);
+    }
+
+    /**
+     * Descripción: Busca una ubicación para los primeros count barcos de una flota sin reservar memoria.
+     * Pre: sizes, vertical y outStarts deben tener al menos count posiciones y candidates al menos count filas de
+     * getCells() casillas.
+     * Pos: Igual que la versión sin count. occupancy se usa como área de trabajo y queda como estaba al retornar, y
+     * candidates se sobrescribe, de modo que quien coloca muchas flotas seguidas puede reutilizar ambos arreglos.
+     * @param occupancy Capa de ocupación del tablero antes de ubicar la flota.
+     * @param sizes Tamaño de cada barco.
+     * @param vertical Orientación de cada barco.
+     * @param count Cantidad de barcos de la flota.
+     * @param rand Generador aleatorio usado para las elecciones.
+     * @param outStarts Arreglo donde se escribe la casilla inicial de cada barco.
+     * @param candidates Arreglo de trabajo para las posiciones legales de cada barco.
+     * @param maxNodes Máximo de posiciones a probar antes de declarar la flota inviable.
+     * @return boolean true si se encontró una ubicación para toda la flota, false si es inviable o se agotó la búsqueda.
+     */
+
+    public boolean planFleet(long[] occupancy, int[] sizes, boolean[] vertical, int count, GameRandom rand,
+            int[] outStarts, int[][] candidates, int maxNodes) {
+
+        int[] budget = {maxNodes};
+
+        return place(occupancy, sizes, vertical, count, rand, outStarts, candidates, budget, 0);
+    }
+
+    private boolean place(long[] scratch, int[] sizes, boolean[] vertical, int fleet, GameRandom rand,
+            int[] outStarts, int[][] candidates, int[] budget, int level) {
+
+        if (level == fleet) {
+
+            return true;
+        }
+
+        int size = sizes[level];
+        int o = orientation(vertical[level]);
+        int count = legalIndices(scratch, size, vertical[level], candidates[level]);
+
+        if (count == 0) {
+
+            return false;
+        }
+
+        int first = rand.nextInt(count);
+
+        for (int k = 0; k < count; k++) {
+
+            if (budget[0]-- <= 0) {
+
+                return false;
+            }
+
+            int index = candidates[level][(first + k) % count];
+
+            toggle(scratch, masks[size][o], index);
+
+            boolean placed = place(scratch, sizes, vertical, fleet, rand, outStarts, candidates, budget, level + 1);
+
+            toggle(scratch, masks[size][o], index);
+
+            if (placed) {
+
+                outStarts[level] = starts[size][o][index];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Descripción: Enumera los índices de tabla de las posiciones legales de un barco.
+     * Pre: out debe tener getCells() posiciones.
+     * Pos: out contiene los índices que luego acepta addPlacement.
+     * @param occupancy Capa de casillas no disponibles.
+     * @param size Tamaño del barco.
+     * @param isVertical Orientación del barco.
+     * @param out Arreglo donde se escriben los índices.
+     * @return int Cantidad de posiciones legales.
+     */
+
+    int legalIndices(long[] occupancy, int size, boolean isVertical, int[] out) {
+
+        if (size < 1 || size >= starts.length) {
+
+            return 0;
+        }
+
+        long[] table = masks[size][orientation(isVertical)];
+        int placements = table.length / words;
+        int count = 0;
+
+        for (int i = 0; i < placements; i++) {
+
+            if (fits(occupancy, table, i)) {
+
+                out[count++] = i;
+            }
+        }
+        return count;
+    }
+
+    private boolean fits(long[] occupancy, long[] masks, int index) {
+
+        int base = index * words;
+
+        for (int w = 0; w < words; w++) {
+
+            if ((occupancy[w] & masks[base + w]) != 0) {
+
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Descripción: Enciende en una capa las casillas de una posición de la tabla.
+     * Pre: index debe venir de legalIndices con el mismo tamaño y orientación, y la posición debe estar libre en layer.
+     * Pos: layer contiene además las casillas del barco.
+     * @param layer Capa de bits a modificar.
+     * @param size Tamaño del barco.
+     * @param isVertical Orientación del barco.
+     * @param index Índice de la posición en la tabla.
+     */
+
+    void addPlacement(long[] layer, int size, boolean isVertical, int index) {
+
+        toggle(layer, masks[size][orientation(isVertical)], index);
+    }
+
+    private void toggle(long[] occupancy, long[] masks, int index) {
+
+        int base = index * words;
+
+        for (int w = 0; w < words; w++) {
+
+            occupancy[w] ^= masks[base + w];
+        }
+    }
+
+    private static int orientation(boolean isVertical) {
+
+        if (isVertical) {
+
+            return 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Descripción: Precalcula todas las posiciones dentro del tablero para un tamaño y orientación.
+     * Pre: size debe estar entre 1 y el lado mayor del tablero.
+     * Pos: Se guardan las casillas iniciales y la máscara de bits de cada posición.
+     * @param size Tamaño del barco.
+     * @param isVertical Orientación del barco.
+     */
+
+    private void buildTable(int size, boolean isVertical) {
+
+        int columns = width;
+        int rows = height;
+
+        if (isVertical) {
+
+            rows = height - size + 1;
+
+        } else {
+
+            columns = width - size + 1;
+        }
+
+        rows = Math.max(rows, 0);
+        columns = Math.max(columns, 0);
+
+        int[] tableStarts = new int[rows * columns];
+        long[] tableMasks = new long[rows * columns * words];
+        int index = 0;
+
+        for (int row = 0; row < rows; row++) {
+
+            for (int column = 0; column < columns; column++) {
+
+                tableStarts[index] = row * width + column;
+
+                for (int k = 0; k < size; k++) {
+
+                    int cell = tableStarts[index] + k;
+
+                    if (isVertical) {
+
+                        cell = tableStarts[index] + k * width;
+                    }
+
+                    tableMasks[index * words + (cell >>> 6)] |= 1L << cell;
+                }
+                index++;
+            }
+        }
+
+        starts[size][orientation(isVertical)] = tableStarts;
+        masks[size][orientation(isVertical)] = tableMasks;
+    }
+}
@@ -7,12 +7,23 @@ public class Player {
     private TypePlayer type;
 
     public Player(String name, TypePlayer type) {
+        this(name, type, Board.SIZE, Board.SIZE);
+    }
+
+    public Player(String name, TypePlayer type, int width, int height) {
         this.name = name;
-        this.board = new Board();
+        this.board = new Board(width, height);
         this.gamesWon = 0;
         this.type = type;
     }
 
+    Player(String name, TypePlayer type, Board board, int gamesWon) {
+        this.name = name;
+        this.board = board;
+        this.gamesWon = gamesWon;
+        this.type = type;
+    }
+
     /**
      * Descripción: Obtiene el nombre del jugador.
      * Pre: El jugador debe estar inicializado.
@@ -0,0 +1,382 @@
+package model;
+
+import java.util.ArrayList;
+
+public class ProbabilityDensityMap {
+    private Board target;
+    private int width;
+    private int height;
+    private int cells;
+    private int maxLength;
+    private int[] shipsOfLength;
+    private boolean[] blocked;
+    private int[] density;
+    private int[] unresolvedHits;
+    private int unresolvedCount;
+    private int[] targetScore;
+    private GameRandom random;
+
+    public ProbabilityDensityMap(Board target) {
+        this.target = target;
+        this.width = target.getWidth();
+        this.height = target.getHeight();
+        this.cells = width * height;
+        this.maxLength = Math.max(width, height);
+        this.shipsOfLength = new int[maxLength + 1];
+        this.blocked = new boolean[cells];
+        this.density = new int[cells];
+        this.unresolvedHits = new int[cells];
+        this.targetScore = new int[cells];
+        this.random = target.getRandom();
+        rebuild();
+    }
+
+    /**
+     * Descripción: Reutiliza el mapa para una partida nueva sobre otro tablero de las mismas dimensiones.
+     * Pre: El tablero objetivo debe tener sus barcos colocados.
+     * Pos: Si las dimensiones coinciden, el mapa apunta al nuevo tablero y se reconstruye sobre los mismos arreglos,
+     * sin reservar memoria; si no, el mapa no cambia.
+     * @param target Tablero objetivo de la nueva partida.
+     * @return boolean true si el mapa se reutilizó, false si las dimensiones no coinciden.
+     */
+
+    public boolean reset(Board target) {
+
+        if (target.getWidth() != width || target.getHeight() != height) {
+
+            return false;
+        }
+
+        this.target = target;
+        this.random = target.getRandom();
+        rebuild();
+        return true;
+    }
+
+    /**
+     * Descripción: Reconstruye el mapa desde cero a partir de lo visible en el tablero objetivo.
+     * Pre: El tablero objetivo debe tener sus barcos colocados.
+     * Pos: Se recalculan las longitudes de barcos a flote, las casillas bloqueadas y la densidad de cada casilla.
+     * @return void, deja el mapa sincronizado con el tablero.
+     */
+
+    public final void rebuild() {
+
+        ArrayList<Boat> boats = target.getBoats();
+
+        for (int l = 0; l <= maxLength; l++) {
+
+            shipsOfLength[l] = 0;
+        }
+
+        for (int i = 0; i < boats.size(); i++) {
+
+            Boat boat = boats.get(i);
+            int length = boat.getSize();
+
+            if (!boat.isSunk() && length >= 1 && length <= maxLength) {
+
+                shipsOfLength[length]++;
+            }
+        }
+
+        unresolvedCount = 0;
+
+        for (int cell = 0; cell < cells; cell++) {
+
+            boolean hit = target.isCellHit(cell);
+
+            blocked[cell] = target.isCoordinateAttacked(cell) && (!hit || target.isCellSunk(cell));
+            density[cell] = 0;
+
+            if (hit && !target.isCellSunk(cell)) {
+
+                unresolvedHits[unresolvedCount++] = cell;
+            }
+        }
+
+        for (int length = 1; length <= maxLength; length++) {
+
+            if (shipsOfLength[length] > 0) {
+
+                addAllPlacements(length, shipsOfLength[length]);
+            }
+        }
+    }
+
+    /**
+     * Descripción: Elige la próxima casilla a atacar según la estrategia de caza y objetivo.
+     * Pre: El tablero objetivo debe tener casillas sin atacar.
+     * Pos: Con impactos pendientes (objetivo) se elige la casilla que más ubicaciones consistentes con ellos cubre;
+     * sin impactos pendientes (caza) se elige la casilla de mayor densidad.
+     * @return int Índice de la casilla elegida, o -1 si no quedan casillas sin atacar.
+     */
+
+    public int nextAttackCell() {
+
+        if (unresolvedCount > 0) {
+
+            int cell = bestTargetCell();
+
+            if (cell >= 0) {
+
+                return cell;
+            }
+        }
+
+        return bestCell(density);
+    }
+
+    /**
+     * Descripción: Actualiza el mapa de forma incremental con el resultado de un disparo.
+     * Pre: result debe ser el código devuelto por Board.receiveAttack para la casilla cell.
+     * Pos: Un fallo bloquea la casilla; un impacto queda pendiente; un hundimiento retira un barco de esa longitud
+     * y bloquea sus casillas.
+     * @param cell Índice de la casilla atacada.
+     * @param result Código de AttackResult del disparo.
+     */
+
+    public void recordResult(int cell, int result) {
+
+        TypeAttackResult type = AttackResult.getType(result);
+
+        if (type == TypeAttackResult.MISS) {
+
+            block(cell);
+
+        } else if (type == TypeAttackResult.HIT) {
+
+            unresolvedHits[unresolvedCount++] = cell;
+
+        } else if (type == TypeAttackResult.SUNK) {
+
+            int length = AttackResult.getSunkSize(result);
+
+            if (length >= 1 && length <= maxLength && shipsOfLength[length] > 0) {
+
+                addAllPlacements(length, -1);
+                shipsOfLength[length]--;
+            }
+
+            unresolvedHits[unresolvedCount++] = cell;
+
+            int kept = 0;
+
+            for (int i = 0; i < unresolvedCount; i++) {
+
+                int hitCell = unresolvedHits[i];
+
+                if (target.isCellSunk(hitCell)) {
+
+                    block(hitCell);
+
+                } else {
+
+                    unresolvedHits[kept++] = hitCell;
+                }
+            }
+
+            unresolvedCount = kept;
+        }
+    }
+
+    /**
+     * Descripción: Obtiene la densidad actual de una casilla.
+     * Pre: cell debe estar dentro del tablero.
+     * Pos: Retorna la cantidad ponderada de ubicaciones de barcos a flote que cubren la casilla.
+     * @param cell Índice de la casilla.
+     * @return int Densidad de la casilla.
+     */
+
+    public int getDensity(int cell) {
+
+        return density[cell];
+    }
+
+    /**
+     * Descripción: Marca una casilla como imposible para los barcos a flote, descontando las ubicaciones que la usaban.
+     * Pre: cell debe estar dentro del tablero.
+     * Pos: Solo se recorren las ubicaciones que pasan por la casilla.
+     * @param cell Índice de la casilla a bloquear.
+     */
+
+    private void block(int cell) {
+
+        if (blocked[cell]) {
+
+            return;
+        }
+
+        int row = cell / width;
+        int column = cell % width;
+
+        for (int length = 1; length <= maxLength; length++) {
+
+            int weight = shipsOfLength[length];
+
+            if (weight == 0) {
+
+                continue;
+            }
+
+            for (int start = Math.max(0, column - length + 1); start <= Math.min(column, width - length); start++) {
+
+                addIfValid(row * width + start, 1, length, -weight);
+            }
+
+            if (length > 1) {
+
+                for (int start = Math.max(0, row - length + 1); start <= Math.min(row, height - length); start++) {
+
+                    addIfValid(start * width + column, width, length, -weight);
+                }
+            }
+        }
+
+        blocked[cell] = true;
+    }
+
+    private void addAllPlacements(int length, int weight) {
+
+        for (int row = 0; row < height; row++) {
+
+            for (int column = 0; column <= width - length; column++) {
+
+                addIfValid(row * width + column, 1, length, weight);
+            }
+        }
+
+        if (length == 1) {
+
+            return;
+        }
+
+        for (int row = 0; row <= height - length; row++) {
+
+            for (int column = 0; column < width; column++) {
+
+                addIfValid(row * width + column, width, length, weight);
+            }
+        }
+    }
+
+    private void addIfValid(int start, int step, int length, int weight) {
+
+        for (int k = 0; k < length; k++) {
+
+            if (blocked[start + k * step]) {
+
+                return;
+            }
+        }
+
+        for (int k = 0; k < length; k++) {
+
+            density[start + k * step] += weight;
+        }
+    }
+
+    /**
+     * Descripción: Puntúa las casillas sin atacar por las ubicaciones válidas que cubren impactos pendientes.
+     * Pre: Debe haber al menos un impacto pendiente.
+     * Pos: Una ubicación que cubre k impactos pendientes suma k veces; se elige la casilla de mayor puntaje.
+     * @return int Índice de la casilla elegida, o -1 si ninguna ubicación explica los impactos.
+     */
+
+    private int bestTargetCell() {
+
+        for (int cell = 0; cell < cells; cell++) {
+
+            targetScore[cell] = 0;
+        }
+
+        for (int i = 0; i < unresolvedCount; i++) {
+
+            int cell = unresolvedHits[i];
+            int row = cell / width;
+            int column = cell % width;
+
+            for (int length = 1; length <= maxLength; length++) {
+
+                int weight = shipsOfLength[length];
+
+                if (weight == 0) {
+
+                    continue;
+                }
+
+                for (int start = Math.max(0, column - length + 1); start <= Math.min(column, width - length); start++) {
+
+                    addTargetScore(row * width + start, 1, length, weight);
+                }
+
+                if (length > 1) {
+
+                    for (int start = Math.max(0, row - length + 1); start <= Math.min(row, height - length); start++) {
+
+                        addTargetScore(start * width + column, width, length, weight);
+                    }
+                }
+            }
+        }
+
+        return bestCell(targetScore);
+    }
+
+    private void addTargetScore(int start, int step, int length, int weight) {
+
+        for (int k = 0; k < length; k++) {
+
+            if (blocked[start + k * step]) {
+
+                return;
+            }
+        }
+
+        for (int k = 0; k < length; k++) {
+
+            targetScore[start + k * step] += weight;
+        }
+    }
+
+    /**
+     * Descripción: Busca la casilla sin atacar de mayor puntaje, desempatando al azar.
+     * Pre: scores debe tener una posición por casilla.
+     * Pos: Retorna la mejor casilla con puntaje positivo, o cualquier casilla sin atacar si todas valen cero.
+     * @param scores Puntaje de cada casilla.
+     * @return int Índice de la casilla elegida, o -1 si no quedan casillas sin atacar.
+     */
+
+    private int bestCell(int[] scores) {
+
+        int best = -1;
+        int bestScore = 0;
+        int ties = 0;
+
+        for (int cell = 0; cell < cells; cell++) {
+
+            if (target.isCoordinateAttacked(cell) || scores[cell] < bestScore) {
+
+                continue;
+            }
+
+            if (scores[cell] > bestScore) {
+
+                best = cell;
+                bestScore = scores[cell];
+                ties = 1;
+
+            } else if (bestScore > 0 && random.nextInt(++ties) == 0) {
+
+                best = cell;
+            }
+        }
+
+        if (best < 0 && scores == density) {
+
+            return target.generateRandomAttackCell();
+        }
+
+        return best;
+    }
+}
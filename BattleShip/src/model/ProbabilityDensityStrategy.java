@@ -0,0 +1,32 @@
+package model;
+
+public class ProbabilityDensityStrategy implements AttackStrategy {
+    private ProbabilityDensityMap map;
+
+    @Override
+    public void startGame(Board target) {
+
+        if (map == null || !map.reset(target)) {
+
+            map = new ProbabilityDensityMap(target);
+        }
+    }
+
+    @Override
+    public int nextAttackCell() {
+
+        return map.nextAttackCell();
+    }
+
+    @Override
+    public void recordResult(int cell, int result) {
+
+        map.recordResult(cell, result);
+    }
+
+    @Override
+    public String getName() {
+
+        return "Densidad";
+    }
+}
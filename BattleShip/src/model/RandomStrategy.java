@@ -0,0 +1,34 @@
+package model;
+
+public class RandomStrategy implements AttackStrategy {
+    private Board target;
+
+    @Override
+    public void startGame(Board target) {
+
+        this.target = target;
+    }
+
+    /**
+     * Descripción: Elige una casilla uniforme entre las no atacadas.
+     * Pre: Se debe haber llamado a startGame.
+     * Pos: Retorna la casilla con un único sorteo.
+     * @return int Índice de la casilla elegida, o -1 si no quedan casillas sin atacar.
+     */
+
+    @Override
+    public int nextAttackCell() {
+
+        return target.generateRandomAttackCell();
+    }
+
+    @Override
+    public void recordResult(int cell, int result) {
+    }
+
+    @Override
+    public String getName() {
+
+        return "Aleatoria";
+    }
+}
@@ -0,0 +1,407 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+public class SessionManager {
+    private final ConcurrentHashMap<Long, GameSession> sessions;
+    private final AtomicLong nextId;
+    private volatile StatisticsStore statistics;
+    private volatile GameJournalWriter journal;
+    private volatile Path parkingDirectory;
+    private final Set<Long> parked;
+    private final CopyOnWriteArrayList<LongConsumer> dropListeners;
+
+    public SessionManager() {
+        this(1024);
+    }
+
+    public SessionManager(int expectedSessions) {
+        sessions = new ConcurrentHashMap<>(expectedSessions);
+        nextId = new AtomicLong();
+        statistics = new StatisticsStore();
+        parked = ConcurrentHashMap.newKeySet();
+        dropListeners = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Descripción: Crea una sesión de juego independiente con tableros de 10x10.
+     * Pre: Ninguna.
+     * Pos: La sesión queda registrada y lista para iniciar una partida.
+     * @return long Identificador de la sesión.
+     */
+
+    public long createSession() {
+
+        return createSession(Board.SIZE, Board.SIZE);
+    }
+
+    /**
+     * Descripción: Crea una sesión de juego independiente con tableros de las dimensiones indicadas.
+     * Pre: width y height deben ser válidos para Board.
+     * Pos: La sesión queda registrada y lista para iniciar una partida.
+     * @param width Ancho de los tableros.
+     * @param height Alto de los tableros.
+     * @return long Identificador de la sesión.
+     */
+
+    public long createSession(int width, int height) {
+
+        return createSession(width, height, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Descripción: Crea una sesión de juego cuyas partidas dependen solo de la semilla indicada.
+     * Pre: width y height deben ser válidos para Board.
+     * Pos: La sesión queda registrada; repetir la semilla y las jugadas del humano repite sus partidas.
+     * @param width Ancho de los tableros.
+     * @param height Alto de los tableros.
+     * @param seed Semilla de las partidas de la sesión.
+     * @return long Identificador de la sesión.
+     */
+
+    public long createSession(int width, int height, long seed) {
+
+        long id = nextId.incrementAndGet();
+        GameSession session = new GameSession(id, width, height, seed);
+
+        if (journal != null) {
+
+            session.setJournal(journal);
+        }
+
+        sessions.put(id, session);
+
+        return id;
+    }
+
+    /**
+     * Descripción: Archiva en un diario las partidas de las sesiones creadas desde ahora.
+     * Pre: Ninguna.
+     * Pos: Todas las sesiones nuevas comparten el diario; null deja de archivar en las sesiones nuevas.
+     * @param journal Diario de partidas, o null.
+     */
+
+    public void setJournal(GameJournalWriter journal) {
+
+        this.journal = journal;
+    }
+
+    /**
+     * Descripción: Reemplaza las estadísticas de todas las sesiones, por ejemplo por unas persistentes.
+     * Pre: statistics no debe ser null.
+     * Pos: Los resultados registrados desde ahora se suman en statistics; los anteriores quedan en las estadísticas
+     * reemplazadas.
+     * @param statistics Estadísticas compartidas.
+     */
+
+    public void setStatisticsStore(StatisticsStore statistics) {
+
+        this.statistics = statistics;
+    }
+
+    /**
+     * Descripción: Registra un oyente que se avisa cada vez que una sesión sale de memoria.
+     * Pre: listener no debe ser null y debe ser rápido, porque se llama desde el hilo que cierra o guarda la sesión.
+     * Pos: Se avisa con el identificador al cerrar una sesión o guardarla en disco, para que quien guarde datos por
+     * sesión los descarte.
+     * @param listener Oyente que recibe el identificador de la sesión.
+     */
+
+    public void addDropListener(LongConsumer listener) {
+
+        dropListeners.add(listener);
+    }
+
+    public StatisticsStore getStatisticsStore() {
+
+        return statistics;
+    }
+
+    /**
+     * Descripción: Obtiene una sesión por su identificador.
+     * Pre: Ninguna.
+     * Pos: La búsqueda no toma ningún bloqueo global; cada sesión serializa sus propias operaciones, de modo que
+     * partidas distintas avanzan en paralelo sin competir entre sí. Una sesión guardada en disco con
+     * parkIdleSessions se vuelve a cargar en memoria la primera vez que se pide.
+     * @param id Identificador de la sesión.
+     * @return GameSession de la partida, o null si no existe o ya se cerró.
+     */
+
+    public GameSession getSession(long id) {
+
+        GameSession session = sessions.get(id);
+
+        if (session == null && parked.contains(id)) {
+
+            session = sessions.computeIfAbsent(id, this::unpark);
+        }
+        return session;
+    }
+
+    /**
+     * Descripción: Cierra una sesión y libera su partida.
+     * Pre: Ninguna.
+     * Pos: La sesión deja de estar disponible y se desvincula, como en closeIdleSessions.
+     * @param id Identificador de la sesión.
+     * @return boolean true si la sesión existía.
+     */
+
+    public boolean closeSession(long id) {
+
+        if (parked.remove(id)) {
+
+            deleteParked(id);
+            dropped(id);
+            return true;
+        }
+
+        GameSession session = sessions.remove(id);
+
+        if (session == null) {
+
+            return false;
+        }
+
+        session.detach();
+        dropped(id);
+        return true;
+    }
+
+    /**
+     * Descripción: Indica el directorio donde parkIdleSessions guarda las sesiones inactivas.
+     * Pre: directory debe existir y ser escribible.
+     * Pos: Las sesiones se guardan como un archivo binario por sesión.
+     * @param directory Directorio de sesiones guardadas.
+     */
+
+    public void setParkingDirectory(Path directory) {
+
+        this.parkingDirectory = directory;
+    }
+
+    /**
+     * Descripción: Guarda en disco las sesiones que no se usan desde hace más del tiempo indicado y las saca de memoria.
+     * Pre: Se debe haber llamado a setParkingDirectory.
+     * Pos: Cada sesión se guarda con GameSession.saveState bajo su propio bloqueo y deja de ocupar memoria hasta que
+     * getSession la vuelva a pedir. Una sesión que no se puede escribir queda en memoria. La sesión guardada se
+     * desvincula con el mismo bloqueo, de modo que quien todavía tenga la referencia anterior recibe
+     * IllegalStateException al intentar jugar en vez de perder las jugadas, y debe volver a pedirla con getSession.
+     * @param maxIdleNanos Tiempo máximo de inactividad en nanosegundos.
+     * @return int Cantidad de sesiones guardadas en disco.
+     */
+
+    public int parkIdleSessions(long maxIdleNanos) {
+
+        Path directory = parkingDirectory;
+
+        if (directory == null) {
+
+            return 0;
+        }
+
+        long now = System.nanoTime();
+        int count = 0;
+
+        for (GameSession session : sessions.values()) {
+
+            synchronized (session) {
+
+                if (now - session.getLastAccessNanos() <= maxIdleNanos) {
+
+                    continue;
+                }
+
+                ByteBuffer buffer = ByteBuffer.allocate(session.getStateSize());
+
+                session.saveState(buffer);
+
+                try {
+
+                    Files.write(fileOf(session.getId()), buffer.array());
+
+                } catch (IOException e) {
+
+                    continue;
+                }
+
+                session.detach();
+                parked.add(session.getId());
+                sessions.remove(session.getId(), session);
+                dropped(session.getId());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int getParkedCount() {
+
+        return parked.size();
+    }
+
+    /**
+     * Descripción: Cierra las sesiones que no se usan desde hace más del tiempo indicado.
+     * Pre: maxIdleNanos debe ser positivo.
+     * Pos: Se recorren las sesiones sin detener a las demás operaciones; cada sesión cerrada se desvincula bajo su
+     * propio bloqueo, de modo que quien conserve la referencia recibe IllegalStateException al intentar jugar.
+     * @param maxIdleNanos Tiempo máximo de inactividad en nanosegundos.
+     * @return int Cantidad de sesiones cerradas.
+     */
+
+    public int closeIdleSessions(long maxIdleNanos) {
+
+        long now = System.nanoTime();
+        int closed = 0;
+        Iterator<GameSession> it = sessions.values().iterator();
+
+        while (it.hasNext()) {
+
+            GameSession session = it.next();
+
+            synchronized (session) {
+
+                if (now - session.getLastAccessNanos() > maxIdleNanos) {
+
+                    session.detach();
+                    it.remove();
+                    dropped(session.getId());
+                    closed++;
+                }
+            }
+        }
+        return closed;
+    }
+
+    /**
+     * Descripción: Vuelve a cargar en memoria una sesión guardada con parkIdleSessions.
+     * Pre: id debe estar entre las sesiones guardadas.
+     * Pos: Solo si la sesión se reconstruye se borra su archivo y deja de figurar como guardada; si el archivo no se
+     * puede leer o no es válido se conserva, porque es la única copia de la partida.
+     * @param id Identificador de la sesión.
+     * @return GameSession reconstruida, o null si no se pudo cargar.
+     */
+
+    private GameSession unpark(long id) {
+
+        GameSession session;
+
+        try {
+
+            session = GameSession.restoreState(id, ByteBuffer.wrap(Files.readAllBytes(fileOf(id))));
+
+        } catch (IOException e) {
+
+            return null;
+        }
+
+        if (session == null) {
+
+            return null;
+        }
+
+        if (journal != null) {
+
+            session.setJournal(journal);
+        }
+
+        parked.remove(id);
+        deleteParked(id);
+
+        return session;
+    }
+
+    private void dropped(long id) {
+
+        for (LongConsumer listener : dropListeners) {
+
+            listener.accept(id);
+        }
+    }
+
+    private boolean deleteParked(long id) {
+
+        try {
+
+            return Files.deleteIfExists(fileOf(id));
+
+        } catch (IOException e) {
+
+            return false;
+        }
+    }
+
+    private Path fileOf(long id) {
+
+        return parkingDirectory.resolve(id + ".bsg");
+    }
+
+    public int getSessionCount() {
+
+        return sessions.size();
+    }
+
+    /**
+     * Descripción: Registra el resultado de una partida terminada en las estadísticas de todas las sesiones.
+     * Pre: La partida de la sesión debe haber terminado.
+     * Pos: Se suma la victoria en su contador, que los hilos actualizan sin competir por un bloqueo, y en las
+     * estadísticas propias de la sesión.
+     * @param session Sesión cuya partida terminó.
+     */
+
+    public void recordGameResult(GameSession session) {
+
+        int gameType;
+        boolean humanWon;
+
+        synchronized (session) {
+
+            gameType = session.getGameType();
+            humanWon = session.isHumanWinner();
+            session.recordGameResult(gameType);
+        }
+
+        statistics.record(gameType, humanWon);
+    }
+
+    /**
+     * Descripción: Muestra las victorias acumuladas de todas las sesiones por tipo de juego.
+     * Pre: Ninguna.
+     * Pos: Retorna los contadores con el mismo formato que Controller.showStatistics.
+     * @return String con el resumen de estadísticas.
+     */
+
+    public String showStatistics() {
+
+        return statistics.showStatistics();
+    }
+
+    public long getStandardHumanWins() {
+
+        return statistics.getStandardHumanWins();
+    }
+
+    public long getStandardMachineWins() {
+
+        return statistics.getStandardMachineWins();
+    }
+
+    public long getCustomHumanWins() {
+
+        return statistics.getCustomHumanWins();
+    }
+
+    public long getCustomMachineWins() {
+
+        return statistics.getCustomMachineWins();
+    }
+}
@@ -0,0 +1,41 @@
+package model;
+
+public class SessionSnapshot {
+    private final BoardSnapshot human;
+    private final BoardSnapshot machine;
+    private final long sequence;
+
+    /**
+     * Descripción: Agrupa las fotos de ambos tableros de una sesión con la posición del anillo de eventos.
+     * Pre: Las fotos no se deben modificar después de crear el objeto.
+     * Pos: Aplicar a las fotos los eventos desde sequence reproduce la partida, por lo que muchos lectores pueden
+     * copiarlas a la vez sin tomar el bloqueo de la sesión.
+     * @param human Foto del tablero humano.
+     * @param machine Foto del tablero máquina.
+     * @param sequence Secuencia del anillo en el momento de las fotos.
+     */
+
+    SessionSnapshot(BoardSnapshot human, BoardSnapshot machine, long sequence) {
+        this.human = human;
+        this.machine = machine;
+        this.sequence = sequence;
+    }
+
+    /**
+     * Descripción: Obtiene la foto de uno de los tableros.
+     * Pre: source debe ser BoardEvent.SOURCE_HUMAN o SOURCE_MACHINE.
+     * Pos: La foto es compartida entre todos los lectores y no se debe modificar; se copia con copyFrom.
+     * @param source Tablero pedido.
+     * @return BoardSnapshot del tablero.
+     */
+
+    public BoardSnapshot getBoard(int source) {
+
+        return source == BoardEvent.SOURCE_HUMAN ? human : machine;
+    }
+
+    public long getSequence() {
+
+        return sequence;
+    }
+}
@@ -0,0 +1,281 @@
+package model;
+
+public class SimulationResult {
+    public static final int EXACT_SHOTS = 1024;
+    public static final int SUB_BUCKET_BITS = 6;
+
+    private static final int EXACT_BITS = Integer.numberOfTrailingZeros(EXACT_SHOTS);
+    private static final int BUCKETS = EXACT_SHOTS + (Integer.SIZE - 1 - EXACT_BITS << SUB_BUCKET_BITS);
+
+    private long standardGames;
+    private long standardHumanWins;
+    private long customGames;
+    private long customHumanWins;
+    private long standardInfeasible;
+    private long customInfeasible;
+    private long totalWinnerShots;
+    private int maxWinnerShots;
+    private long[] shotsToWin;
+    private long elapsedNanos;
+
+    public SimulationResult() {
+        shotsToWin = new long[BUCKETS];
+    }
+
+    /**
+     * Descripción: Registra el resultado de una partida simulada.
+     * Pre: La partida debe haber terminado.
+     * Pos: Se actualizan los contadores del modo y la distribución de disparos para ganar, que no recorta ningún valor
+     * sea cual sea el tamaño del tablero.
+     * @param gameType 1 para estándar, otro valor para personalizada.
+     * @param humanWon true si ganó el lado humano.
+     * @param winnerShots Cantidad de disparos que necesitó el ganador.
+     */
+
+    public void recordGame(int gameType, boolean humanWon, int winnerShots) {
+
+        if (gameType == 1) {
+
+            standardGames++;
+
+            if (humanWon) {
+                standardHumanWins++;
+            }
+
+        } else {
+
+            customGames++;
+
+            if (humanWon) {
+                customHumanWins++;
+            }
+        }
+
+        totalWinnerShots += winnerShots;
+        maxWinnerShots = Math.max(maxWinnerShots, winnerShots);
+        shotsToWin[bucketOf(winnerShots)]++;
+    }
+
+    /**
+     * Descripción: Registra una partida que no se pudo jugar porque alguna flota no cabe en el tablero.
+     * Pre: Ninguna.
+     * Pos: La partida se cuenta aparte y no afecta las tasas de victoria ni la distribución de disparos.
+     * @param gameType 1 para estándar, otro valor para personalizada.
+     */
+
+    public void recordInfeasible(int gameType) {
+
+        if (gameType == 1) {
+
+            standardInfeasible++;
+
+        } else {
+
+            customInfeasible++;
+        }
+    }
+
+    /**
+     * Descripción: Acumula en este resultado los contadores de otro resultado parcial.
+     * Pre: other no debe ser null.
+     * Pos: Los contadores e histograma quedan sumados.
+     * @param other Resultado parcial a combinar.
+     */
+
+    public void merge(SimulationResult other) {
+
+        standardGames += other.standardGames;
+        standardHumanWins += other.standardHumanWins;
+        customGames += other.customGames;
+        customHumanWins += other.customHumanWins;
+        standardInfeasible += other.standardInfeasible;
+        customInfeasible += other.customInfeasible;
+        totalWinnerShots += other.totalWinnerShots;
+        maxWinnerShots = Math.max(maxWinnerShots, other.maxWinnerShots);
+
+        for (int i = 0; i < shotsToWin.length; i++) {
+
+            shotsToWin[i] += other.shotsToWin[i];
+        }
+    }
+
+    public void setElapsedNanos(long elapsedNanos) {
+
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getTotalGames() {
+
+        return standardGames + customGames;
+    }
+
+    public long getStandardGames() {
+
+        return standardGames;
+    }
+
+    public long getStandardHumanWins() {
+
+        return standardHumanWins;
+    }
+
+    public long getCustomGames() {
+
+        return customGames;
+    }
+
+    public long getCustomHumanWins() {
+
+        return customHumanWins;
+    }
+
+    public long getStandardInfeasible() {
+
+        return standardInfeasible;
+    }
+
+    public long getCustomInfeasible() {
+
+        return customInfeasible;
+    }
+
+    public long getInfeasibleGames() {
+
+        return standardInfeasible + customInfeasible;
+    }
+
+    /**
+     * Descripción: Obtiene el histograma de disparos necesarios para ganar.
+     * Pre: Ninguna.
+     * Pos: Por debajo de EXACT_SHOTS la posición i contiene las partidas ganadas con i disparos; por encima, cada
+     * potencia de dos se reparte en 2^SUB_BUCKET_BITS intervalos iguales, con un error relativo menor al 2%, de modo
+     * que el arreglo cubre cualquier cantidad de disparos con unas 2400 posiciones.
+     * @return long[] con la distribución de disparos para ganar.
+     */
+
+    public long[] getShotsToWin() {
+
+        return shotsToWin;
+    }
+
+    public int getMaxWinnerShots() {
+
+        return maxWinnerShots;
+    }
+
+    /**
+     * Descripción: Calcula el rendimiento del lote simulado.
+     * Pre: Se debe haber registrado el tiempo transcurrido.
+     * Pos: Retorna las partidas completadas por segundo.
+     * @return double con partidas por segundo.
+     */
+
+    public double getGamesPerSecond() {
+
+        if (elapsedNanos == 0) {
+
+            return 0;
+        }
+
+        return getTotalGames() * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Descripción: Obtiene el percentil indicado de la distribución de disparos para ganar.
+     * Pre: percentile debe estar entre 0 y 100.
+     * Pos: Retorna la menor cantidad de disparos que cubre el percentil pedido, o 0 si no se jugó ninguna partida. Es
+     * exacta por debajo de EXACT_SHOTS; por encima es el límite superior de su intervalo, sin pasar del máximo
+     * registrado.
+     * @param percentile Percentil a consultar.
+     * @return int con la cantidad de disparos.
+     */
+
+    public int getShotsPercentile(double percentile) {
+
+        if (getTotalGames() == 0) {
+
+            return 0;
+        }
+
+        long target = (long) Math.ceil(getTotalGames() * percentile / 100.0);
+        long seen = 0;
+
+        for (int i = 0; i < shotsToWin.length; i++) {
+
+            seen += shotsToWin[i];
+
+            if (seen >= target && seen > 0) {
+
+                return (int) Math.min(bucketUpperBound(i), maxWinnerShots);
+            }
+        }
+        return maxWinnerShots;
+    }
+
+    /**
+     * Descripción: Genera un resumen legible del lote simulado.
+     * Pre: La simulación debe haber terminado.
+     * Pos: Retorna un texto con rendimiento, tasas de victoria y distribución de disparos.
+     * @return String con el resumen de la simulación.
+     */
+
+    public String getSummary() {
+
+        long games = getTotalGames();
+        double meanShots = 0;
+
+        if (games > 0) {
+
+            meanShots = (double) totalWinnerShots / games;
+        }
+
+        return "----SIMULACIÓN-------\n" +
+               "Partidas: " + games + " | Partidas/s: " + String.format("%.1f", getGamesPerSecond()) + "\n" +
+               "Estándar - Partidas: " + standardGames + " | Humano: " + percent(standardHumanWins, standardGames) +
+               " | Máquina: " + percent(standardGames - standardHumanWins, standardGames) + "\n" +
+               "Personalizado - Partidas: " + customGames + " | Humano: " + percent(customHumanWins, customGames) +
+               " | Máquina: " + percent(customGames - customHumanWins, customGames) + "\n" +
+               "Inviables (la flota no cabe) - Estándar: " + standardInfeasible + " | Personalizado: " +
+               customInfeasible + "\n" +
+               "Disparos para ganar - Media: " + String.format("%.2f", meanShots) +
+               " | p50: " + getShotsPercentile(50) + " | p90: " + getShotsPercentile(90) +
+               " | p99: " + getShotsPercentile(99) + " | máx: " + maxWinnerShots;
+    }
+
+    private static int bucketOf(int shots) {
+
+        if (shots < EXACT_SHOTS) {
+
+            return shots;
+        }
+
+        int exponent = Integer.SIZE - 1 - Integer.numberOfLeadingZeros(shots);
+        int sub = (shots >>> exponent - SUB_BUCKET_BITS) & ((1 << SUB_BUCKET_BITS) - 1);
+
+        return EXACT_SHOTS + (exponent - EXACT_BITS << SUB_BUCKET_BITS) + sub;
+    }
+
+    private static long bucketUpperBound(int bucket) {
+
+        if (bucket < EXACT_SHOTS) {
+
+            return bucket;
+        }
+
+        int exponent = EXACT_BITS + (bucket - EXACT_SHOTS >>> SUB_BUCKET_BITS);
+        long sub = (bucket - EXACT_SHOTS) & ((1 << SUB_BUCKET_BITS) - 1);
+        int width = exponent - SUB_BUCKET_BITS;
+
+        return ((1L << SUB_BUCKET_BITS) + sub + 1 << width) - 1;
+    }
+
+    private static String percent(long part, long total) {
+
+        if (total == 0) {
+
+            return "-";
+        }
+
+        return String.format("%.2f%%", part * 100.0 / total);
+    }
+}
@@ -0,0 +1,151 @@
+package model;
+
+public class Spectator {
+    public static final int DEFAULT_RESYNC_LAG = BoardEventBuffer.DEFAULT_CAPACITY / 2;
+
+    private final GameSession session;
+    private final BoardEventCursor cursor;
+    private final BoardSnapshot[] boards;
+    private final int resyncLag;
+    private long applied;
+    private int resyncs;
+
+    public Spectator(GameSession session) {
+        this(session, DEFAULT_RESYNC_LAG);
+    }
+
+    /**
+     * Descripción: Crea un espectador que sigue una sesión con una vista compacta de cada tablero.
+     * Pre: El tablero de la sesión debe ser denso, de a lo sumo Board.DENSE_MAX_CELLS casillas.
+     * Pos: Las vistas tienen las dimensiones de la sesión y parten de la última foto publicada.
+     * @param session Sesión a seguir.
+     * @param resyncLag Atraso máximo, en eventos, antes de copiar una foto en lugar de aplicar los eventos.
+     * @throws IllegalArgumentException si el tablero de la sesión es disperso: la sesión no publica fotos de esos
+     * tableros y una vista completa no entraría en memoria.
+     */
+
+    public Spectator(GameSession session, int resyncLag) {
+        int width = session.getBoardWidth();
+        int height = session.getBoardHeight();
+
+        if ((long) width * height > Board.DENSE_MAX_CELLS) {
+            throw new IllegalArgumentException("No se pueden seguir tableros de " + width + "x" + height
+                    + ": el máximo es de " + Board.DENSE_MAX_CELLS + " casillas");
+        }
+
+        this.session = session;
+        this.resyncLag = resyncLag;
+        this.cursor = session.subscribe();
+        this.boards = new BoardSnapshot[2];
+
+        boards[BoardEvent.SOURCE_HUMAN] = new BoardSnapshot(width, height);
+        boards[BoardEvent.SOURCE_MACHINE] = new BoardSnapshot(width, height);
+        resync(true);
+        resyncs = 0;
+    }
+
+    /**
+     * Descripción: Pone al día la vista del espectador con los eventos publicados desde la última llamada.
+     * Pre: Cada espectador se actualiza desde un único hilo.
+     * Pos: Normalmente se aplican los eventos nuevos, uno por disparo. Si el espectador quedó atrás más de resyncLag
+     * eventos, o el anillo ya sobrescribió parte de su atraso, en lugar de procesar el atraso se copia la última
+     * foto compacta que publicó la sesión y se continúa desde su secuencia. Ni los eventos ni las fotos toman el
+     * bloqueo de la sesión, de modo que la partida nunca espera a los espectadores: jugar cuesta lo mismo con uno o
+     * con miles de ellos.
+     * @return int Eventos aplicados en esta llamada.
+     */
+
+    public int update() {
+
+        if (cursor.getMissed() > 0 || cursor.getLag() > resyncLag) {
+
+            resync(cursor.getMissed() > 0);
+        }
+
+        int count = 0;
+        long event;
+
+        while ((event = cursor.poll()) != BoardEvent.NONE) {
+
+            boards[BoardEvent.getSource(event)].apply(event);
+            count++;
+        }
+
+        if (cursor.getMissed() > 0) {
+
+            resync(true);
+        }
+
+        applied += count;
+        return count;
+    }
+
+    /**
+     * Descripción: Obtiene la vista del espectador de uno de los tableros.
+     * Pre: source debe ser BoardEvent.SOURCE_HUMAN o SOURCE_MACHINE.
+     * Pos: La vista refleja el tablero hasta el último update.
+     * @param source Tablero pedido.
+     * @return BoardSnapshot con la vista del tablero.
+     */
+
+    public BoardSnapshot getBoard(int source) {
+
+        return boards[source];
+    }
+
+    public long getEventsApplied() {
+
+        return applied;
+    }
+
+    /**
+     * Descripción: Obtiene cuántas veces el espectador tuvo que resincronizarse con una foto.
+     * Pre: Ninguna.
+     * Pos: No cuenta la foto inicial.
+     * @return int Cantidad de resincronizaciones.
+     */
+
+    public int getResyncs() {
+
+        return resyncs;
+    }
+
+    /**
+     * Descripción: Copia la última foto publicada por la sesión y mueve el cursor a su secuencia.
+     * Pre: Ninguna.
+     * Pos: La foto se copia sin tomar el bloqueo de la sesión. Si no es obligatoria solo se usa cuando está por
+     * delante del cursor, porque de lo contrario aplicar los eventos pendientes es más barato.
+     * @param required true si la vista ya no es válida porque el cursor perdió eventos.
+     * @throws IllegalStateException si la vista no es válida y la sesión no publicó ninguna foto.
+     */
+
+    private void resync(boolean required) {
+
+        SessionSnapshot latest = session.getLatestSnapshot();
+
+        if (latest == null && required) {
+
+            throw new IllegalStateException("La sesión no publicó ninguna foto para resincronizar al espectador");
+        }
+
+        if (latest == null || (!required && latest.getSequence() <= cursor.getPosition())) {
+
+            return;
+        }
+
+        for (int source = 0; source < boards.length; source++) {
+
+            BoardSnapshot board = latest.getBoard(source);
+
+            if (boards[source].getWidth() != board.getWidth() || boards[source].getHeight() != board.getHeight()) {
+
+                boards[source] = new BoardSnapshot(board.getWidth(), board.getHeight());
+            }
+
+            boards[source].copyFrom(board);
+        }
+
+        cursor.seek(latest.getSequence());
+        resyncs++;
+    }
+}
@@ -0,0 +1,510 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+public final class StatisticsStore implements AutoCloseable {
+    static final int MAGIC = 0x42535331;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 8;
+    static final int RECORD_BYTES = 48;
+    static final int FILE_BYTES = HEADER_BYTES + 2 * RECORD_BYTES;
+
+    public static final long DEFAULT_FLUSH_MILLIS = 1000;
+
+    private static final int COUNTERS = 4;
+    private static final int STANDARD_HUMAN = 0;
+    private static final int STANDARD_MACHINE = 1;
+    private static final int CUSTOM_HUMAN = 2;
+    private static final int CUSTOM_MACHINE = 3;
+    private static final int WAL_MAX_RECORDS = 64;
+
+    private final LongAdder[] counters;
+    private final long[] base;
+    private final long[] flushed;
+    private final long[] totals;
+    private final FileChannel file;
+    private final MappedByteBuffer mapped;
+    private final FileChannel wal;
+    private final ByteBuffer record;
+    private final CRC32 crc;
+    private final Thread flusher;
+    private long sequence;
+    private int walRecords;
+    private volatile boolean closed;
+    private volatile IOException flushError;
+
+    /**
+     * Descripción: Crea estadísticas solo en memoria.
+     * Pre: Ninguna.
+     * Pos: Los contadores empiezan en cero y se pierden al terminar el proceso.
+     */
+
+    public StatisticsStore() {
+        this.counters = newCounters();
+        this.base = new long[COUNTERS];
+        this.flushed = new long[COUNTERS];
+        this.totals = new long[COUNTERS];
+        this.file = null;
+        this.mapped = null;
+        this.wal = null;
+        this.record = null;
+        this.crc = null;
+        this.flusher = null;
+    }
+
+    public StatisticsStore(Path path) throws IOException {
+        this(path, DEFAULT_FLUSH_MILLIS);
+    }
+
+    /**
+     * Descripción: Abre o crea estadísticas persistentes en un archivo mapeado en memoria con un registro previo
+     * de escritura (el mismo nombre terminado en ".wal").
+     * Pre: path debe ser un archivo escribible.
+     * Pos: Se recuperan los últimos totales confirmados, sea de la copia válida más reciente del archivo o del
+     * registro previo, descartando una escritura cortada por una caída. Un hilo de fondo guarda los totales cada
+     * flushMillis milisegundos; record nunca espera por el disco. Si la apertura falla no queda ningún canal abierto.
+     * @param path Archivo de estadísticas.
+     * @param flushMillis Intervalo entre guardados, en milisegundos.
+     * @throws IOException si no se pueden abrir los archivos o path no es un archivo de estadísticas.
+     */
+
+    public StatisticsStore(Path path, long flushMillis) throws IOException {
+        this.counters = newCounters();
+        this.base = new long[COUNTERS];
+        this.flushed = new long[COUNTERS];
+        this.totals = new long[COUNTERS];
+        this.record = ByteBuffer.allocate(RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        this.crc = new CRC32();
+        this.file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+
+        FileChannel log = null;
+
+        try {
+
+            boolean created = file.size() == 0;
+
+            if (!created && file.size() < FILE_BYTES) {
+
+                throw new IOException("No es un archivo de estadísticas: " + path);
+            }
+
+            this.mapped = file.map(FileChannel.MapMode.READ_WRITE, 0, FILE_BYTES);
+            this.mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (created) {
+
+                mapped.putInt(0, MAGIC);
+                mapped.put(4, (byte) VERSION);
+                mapped.force();
+
+            } else if (mapped.getInt(0) != MAGIC || mapped.get(4) != VERSION) {
+
+                throw new IOException("No es un archivo de estadísticas: " + path);
+            }
+
+            log = FileChannel.open(path.resolveSibling(path.getFileName() + ".wal"), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.wal = log;
+
+            recover();
+
+        } catch (IOException | RuntimeException e) {
+
+            closeQuietly(log, e);
+            closeQuietly(file, e);
+            throw e;
+        }
+
+        this.flusher = new Thread(() -> flushPeriodically(flushMillis), "stats-flush");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Descripción: Registra el resultado de una partida.
+     * Pre: Ninguna.
+     * Pos: Se suma en un contador repartido en celdas, de modo que muchos hilos de juego registran a la vez sin
+     * competir por un bloqueo ni esperar por el disco; el total llega al archivo en el siguiente guardado.
+     * @param gameType Tipo de partida: 1 para estándar, otro valor para personalizada.
+     * @param humanWon true si ganó el humano.
+     */
+
+    public void record(int gameType, boolean humanWon) {
+
+        if (gameType == 1) {
+
+            counters[humanWon ? STANDARD_HUMAN : STANDARD_MACHINE].increment();
+
+        } else {
+
+            counters[humanWon ? CUSTOM_HUMAN : CUSTOM_MACHINE].increment();
+        }
+    }
+
+    public long getStandardHumanWins() {
+
+        return total(STANDARD_HUMAN);
+    }
+
+    public long getStandardMachineWins() {
+
+        return total(STANDARD_MACHINE);
+    }
+
+    public long getCustomHumanWins() {
+
+        return total(CUSTOM_HUMAN);
+    }
+
+    public long getCustomMachineWins() {
+
+        return total(CUSTOM_MACHINE);
+    }
+
+    /**
+     * Descripción: Muestra las victorias acumuladas por tipo de juego.
+     * Pre: Ninguna.
+     * Pos: Retorna los contadores con el mismo formato que Controller.showStatistics.
+     * @return String con el resumen de estadísticas.
+     */
+
+    public String showStatistics() {
+
+        return "----ESTADISTICAS-------\n" +
+               "Estándar - Humano: " + getStandardHumanWins() + " | Máquina: " + getStandardMachineWins() + "\n" +
+               "Personalizado - Humano: " + getCustomHumanWins() + " | Máquina: " + getCustomMachineWins();
+    }
+
+    public boolean isPersistent() {
+
+        return file != null;
+    }
+
+    /**
+     * Descripción: Guarda los totales actuales en disco.
+     * Pre: Ninguna.
+     * Pos: Si cambiaron desde el último guardado, primero se agregan al registro previo y se fuerza a disco, y
+     * luego se escriben en la copia del archivo mapeado que no contiene el guardado anterior. Una caída en
+     * cualquier punto deja al menos una copia válida con los totales anteriores o los nuevos. Cada
+     * WAL_MAX_RECORDS guardados el registro se vacía, porque el archivo ya contiene su último total.
+     * @return boolean true si los totales quedaron en disco, false si las estadísticas son solo en memoria o ya se
+     * cerraron.
+     * @throws IOException si falla la escritura.
+     */
+
+    public synchronized boolean flush() throws IOException {
+
+        if (file == null || !wal.isOpen()) {
+
+            return false;
+        }
+
+        boolean changed = false;
+
+        for (int i = 0; i < COUNTERS; i++) {
+
+            totals[i] = total(i);
+            changed |= totals[i] != flushed[i];
+        }
+
+        if (!changed) {
+
+            return true;
+        }
+
+        sequence++;
+        encode(sequence, totals);
+
+        long position = (long) walRecords * RECORD_BYTES;
+
+        while (record.hasRemaining()) {
+
+            wal.write(record, position + record.position());
+        }
+
+        wal.force(false);
+        walRecords++;
+
+        mapped.put(slotOffset(sequence), record.array(), 0, RECORD_BYTES);
+        mapped.force();
+        System.arraycopy(totals, 0, flushed, 0, COUNTERS);
+
+        if (walRecords >= WAL_MAX_RECORDS) {
+
+            wal.truncate(0);
+            wal.force(false);
+            walRecords = 0;
+        }
+        return true;
+    }
+
+    /**
+     * Descripción: Obtiene el último error del guardado de fondo.
+     * Pre: Ninguna.
+     * Pos: El hilo de fondo sigue reintentando en cada intervalo; un guardado correcto posterior borra el error.
+     * @return IOException del último guardado fallido, o null si el último guardado fue correcto.
+     */
+
+    public IOException getFlushError() {
+
+        return flushError;
+    }
+
+    /**
+     * Descripción: Detiene el guardado de fondo y guarda los totales por última vez.
+     * Pre: Ninguna.
+     * Pos: Se avisa al hilo de fondo con la bandera closed y se espera a que termine su guardado en curso antes del
+     * último guardado. No se interrumpe el hilo, porque interrumpir una escritura cierra los canales de archivo. Los
+     * archivos quedan cerrados; los registros posteriores solo se cuentan en memoria.
+     * @throws IOException si falla el último guardado.
+     */
+
+    @Override
+    public void close() throws IOException {
+
+        synchronized (this) {
+
+            if (file == null || closed) {
+
+                return;
+            }
+
+            closed = true;
+        }
+
+        LockSupport.unpark(flusher);
+
+        boolean interrupted = false;
+
+        while (flusher.isAlive()) {
+
+            try {
+
+                flusher.join();
+
+            } catch (InterruptedException e) {
+
+                interrupted = true;
+            }
+        }
+
+        synchronized (this) {
+
+            try {
+
+                flush();
+
+            } finally {
+
+                wal.close();
+                file.close();
+
+                if (interrupted) {
+
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private void flushPeriodically(long flushMillis) {
+
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(flushMillis);
+
+        while (!closed) {
+
+            long deadline = System.nanoTime() + intervalNanos;
+
+            while (!closed && deadline - System.nanoTime() > 0) {
+
+                LockSupport.parkNanos(this, deadline - System.nanoTime());
+            }
+
+            if (closed) {
+
+                return;
+            }
+
+            try {
+
+                flush();
+                flushError = null;
+
+            } catch (IOException e) {
+
+                flushError = e;
+            }
+        }
+    }
+
+    /**
+     * Descripción: Recupera los últimos totales confirmados al abrir el archivo.
+     * Pre: mapped y wal deben estar abiertos.
+     * Pos: Se toma la copia válida con la secuencia mayor entre las dos del archivo y los registros completos del
+     * registro previo, que se lee hasta el primer registro cortado o con la suma de verificación incorrecta. Si el
+     * registro previo tenía un total más nuevo se copia al archivo antes de vaciarlo.
+     * @throws IOException si falla la lectura o la escritura.
+     */
+
+    private void recover() throws IOException {
+
+        long[] values = new long[COUNTERS];
+        long best = -1;
+
+        for (int slot = 0; slot < 2; slot++) {
+
+            mapped.get(HEADER_BYTES + slot * RECORD_BYTES, record.array(), 0, RECORD_BYTES);
+
+            long found = decode(values);
+
+            if (found > best) {
+
+                best = found;
+                System.arraycopy(values, 0, base, 0, COUNTERS);
+            }
+        }
+
+        boolean fromWal = false;
+        long position = 0;
+
+        while (position + RECORD_BYTES <= wal.size()) {
+
+            record.clear();
+
+            int read = 0;
+
+            while (read >= 0 && record.hasRemaining()) {
+
+                read = wal.read(record, position + record.position());
+            }
+
+            long found = record.hasRemaining() ? -1 : decode(values);
+
+            if (found < 0) {
+
+                break;
+            }
+
+            if (found > best) {
+
+                best = found;
+                fromWal = true;
+                System.arraycopy(values, 0, base, 0, COUNTERS);
+            }
+            position += RECORD_BYTES;
+        }
+
+        sequence = Math.max(best, 0);
+        System.arraycopy(base, 0, flushed, 0, COUNTERS);
+
+        if (fromWal) {
+
+            encode(sequence, base);
+            mapped.put(slotOffset(sequence), record.array(), 0, RECORD_BYTES);
+            mapped.force();
+        }
+
+        wal.truncate(0);
+        wal.force(false);
+    }
+
+    private void encode(long seq, long[] values) {
+
+        record.clear();
+        record.putLong(seq);
+
+        for (int i = 0; i < COUNTERS; i++) {
+
+            record.putLong(values[i]);
+        }
+
+        crc.reset();
+        crc.update(record.array(), 0, RECORD_BYTES - 8);
+        record.putLong(crc.getValue());
+        record.flip();
+    }
+
+    /**
+     * Descripción: Lee un registro de totales.
+     * Pre: record debe contener RECORD_BYTES bytes.
+     * Pos: Si la suma de verificación coincide se escriben los totales en values.
+     * @param values Arreglo de destino.
+     * @return long Secuencia del registro, o -1 si está vacío o dañado.
+     */
+
+    private long decode(long[] values) {
+
+        crc.reset();
+        crc.update(record.array(), 0, RECORD_BYTES - 8);
+
+        long seq = record.getLong(0);
+
+        if (seq <= 0 || record.getLong(RECORD_BYTES - 8) != crc.getValue()) {
+
+            return -1;
+        }
+
+        for (int i = 0; i < COUNTERS; i++) {
+
+            values[i] = record.getLong(8 + 8 * i);
+        }
+        return seq;
+    }
+
+    private long total(int counter) {
+
+        return base[counter] + counters[counter].sum();
+    }
+
+    private static int slotOffset(long seq) {
+
+        return HEADER_BYTES + (int) (seq & 1) * RECORD_BYTES;
+    }
+
+    private static LongAdder[] newCounters() {
+
+        LongAdder[] adders = new LongAdder[COUNTERS];
+
+        for (int i = 0; i < COUNTERS; i++) {
+
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Descripción: Cierra un canal durante una apertura fallida sin ocultar el error original.
+     * Pre: cause no debe ser null.
+     * Pos: Si el cierre también falla, su error queda suprimido dentro de cause.
+     * @param channel Canal a cerrar, o null si no se llegó a abrir.
+     * @param cause Error que interrumpió la apertura.
+     */
+
+    private static void closeQuietly(FileChannel channel, Exception cause) {
+
+        if (channel == null) {
+
+            return;
+        }
+
+        try {
+
+            channel.close();
+
+        } catch (IOException e) {
+
+            cause.addSuppressed(e);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package model;
+
+public class StrategyStats {
+    private String name;
+    private long games;
+    private long totalShots;
+    private double totalSquaredShots;
+    private long decisionNanos;
+
+    public StrategyStats(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Descripción: Registra una partida jugada por la estrategia.
+     * Pre: shots debe ser positivo.
+     * Pos: Se acumulan los disparos y el tiempo de decisión.
+     * @param shots Disparos necesarios para hundir toda la flota.
+     * @param nanos Tiempo dedicado a decidir y actualizar la estrategia durante la partida.
+     */
+
+    public void recordGame(int shots, long nanos) {
+
+        games++;
+        totalShots += shots;
+        totalSquaredShots += (double) shots * shots;
+        decisionNanos += nanos;
+    }
+
+    /**
+     * Descripción: Acumula las estadísticas de otro lote de la misma estrategia.
+     * Pre: other no debe ser null.
+     * Pos: Los contadores quedan sumados.
+     * @param other Estadísticas parciales a combinar.
+     */
+
+    public void merge(StrategyStats other) {
+
+        games += other.games;
+        totalShots += other.totalShots;
+        totalSquaredShots += other.totalSquaredShots;
+        decisionNanos += other.decisionNanos;
+    }
+
+    public String getName() {
+
+        return name;
+    }
+
+    public long getGames() {
+
+        return games;
+    }
+
+    public double getMeanShots() {
+
+        if (games == 0) {
+
+            return 0;
+        }
+
+        return (double) totalShots / games;
+    }
+
+    /**
+     * Descripción: Calcula la semiamplitud del intervalo de confianza del 95% para la media de disparos.
+     * Pre: Se debe haber registrado al menos una partida.
+     * Pos: Retorna 1.96 veces el error estándar de la media.
+     * @return double con la semiamplitud del intervalo.
+     */
+
+    public double getConfidenceHalfWidth() {
+
+        if (games < 2) {
+
+            return 0;
+        }
+
+        double mean = getMeanShots();
+        double variance = (totalSquaredShots - games * mean * mean) / (games - 1);
+
+        return 1.96 * Math.sqrt(Math.max(variance, 0) / games);
+    }
+
+    /**
+     * Descripción: Calcula las decisiones por segundo de la estrategia, contando solo su propio tiempo de cálculo.
+     * Pre: Ninguna.
+     * Pos: Retorna disparos decididos por segundo de CPU de la estrategia.
+     * @return double con movimientos por segundo.
+     */
+
+    public double getMovesPerSecond() {
+
+        if (decisionNanos == 0) {
+
+            return 0;
+        }
+
+        return totalShots * 1e9 / decisionNanos;
+    }
+
+    /**
+     * Descripción: Genera una línea de resumen de la estrategia.
+     * Pre: Ninguna.
+     * Pos: Retorna nombre, media de disparos con su intervalo, partidas y movimientos por segundo.
+     * @return String con el resumen.
+     */
+
+    public String getSummary() {
+
+        return String.format("%-15s disparos: %6.2f ± %.2f | partidas: %d | movimientos/s: %.0f",
+                name, getMeanShots(), getConfidenceHalfWidth(), games, getMovesPerSecond());
+    }
+}
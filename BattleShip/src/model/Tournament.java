@@ -0,0 +1,213 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+public class Tournament {
+    private static final int CHUNK = 64;
+
+    private ForkJoinPool pool;
+
+    public Tournament() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public Tournament(int threads) {
+        pool = new ForkJoinPool(threads);
+    }
+
+    /**
+     * Descripción: Enfrenta cada estrategia contra las mismas flotas fijas, repartiendo las partidas entre los núcleos.
+     * Pre: strategies no debe estar vacío; layouts y gamesPerLayout deben ser positivos.
+     * Pos: Cada estrategia juega gamesPerLayout partidas sobre cada una de las flotas generadas con la semilla dada.
+     * @param strategies Fábricas de las estrategias a comparar; cada hilo crea sus propias instancias.
+     * @param layouts Cantidad de flotas estándar fijas.
+     * @param gamesPerLayout Partidas por estrategia sobre cada flota.
+     * @param seed Semilla para generar las flotas, para que distintas ejecuciones sean comparables.
+     * @return ArrayList<StrategyStats> con las estadísticas de cada estrategia, en el mismo orden.
+     */
+
+    public ArrayList<StrategyStats> run(ArrayList<Supplier<AttackStrategy>> strategies, int layouts,
+            int gamesPerLayout, long seed) {
+
+        int[][] fleets = new int[layouts][];
+        GameRandom seeds = new GameRandom(seed);
+
+        for (int i = 0; i < layouts; i++) {
+
+            fleets[i] = generateLayout(seeds.split());
+        }
+
+        ArrayList<LayoutBatch> tasks = new ArrayList<>();
+
+        for (int s = 0; s < strategies.size(); s++) {
+
+            tasks.add(new LayoutBatch(strategies.get(s), fleets, gamesPerLayout, 0, layouts));
+        }
+
+        ArrayList<StrategyStats> results = new ArrayList<>();
+
+        pool.invoke(new RecursiveTask<Void>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected Void compute() {
+
+                invokeAll(tasks);
+
+                for (int i = 0; i < tasks.size(); i++) {
+
+                    results.add(tasks.get(i).join());
+                }
+                return null;
+            }
+        });
+
+        return results;
+    }
+
+    /**
+     * Descripción: Libera los hilos del torneo.
+     * Pre: Ninguna.
+     * Pos: El pool de hilos queda apagado.
+     * @return void, apaga el pool de hilos.
+     */
+
+    public void shutdown() {
+
+        pool.shutdown();
+    }
+
+    /**
+     * Descripción: Construye un tablero con la flota estándar en las casillas iniciales dadas.
+     * Pre: starts debe venir de generateLayout.
+     * Pos: Retorna un tablero nuevo con la flota colocada.
+     * @param starts Casilla inicial de cada barco estándar.
+     * @return Board con la flota colocada.
+     */
+
+    public static Board buildBoard(int[] starts) {
+
+        TypeBoat[] types = TypeBoat.getStandardBoats();
+        Board board = new Board();
+
+        for (int i = 0; i < types.length; i++) {
+
+            Boat boat = new Boat();
+            boat.initializeStandardBoat(types[i], starts[i] % Board.SIZE + 1, starts[i] / Board.SIZE + 1);
+            board.placeBoat(boat);
+        }
+        return board;
+    }
+
+    /**
+     * Descripción: Juega una partida en solitario de una estrategia contra un tablero hasta hundir toda la flota.
+     * Pre: El tablero debe tener sus barcos colocados y ningún ataque recibido.
+     * Pos: Se registran en stats los disparos usados y el tiempo de decisión de la estrategia.
+     * @param strategy Estrategia que ataca.
+     * @param board Tablero atacado.
+     * @param stats Estadísticas donde se registra la partida.
+     */
+
+    public static void playSolo(AttackStrategy strategy, Board board, StrategyStats stats) {
+
+        long nanos = 0;
+        int shots = 0;
+        long start = System.nanoTime();
+
+        strategy.startGame(board);
+        nanos += System.nanoTime() - start;
+
+        while (!board.allBoatsSunk()) {
+
+            start = System.nanoTime();
+            int cell = strategy.nextAttackCell();
+            nanos += System.nanoTime() - start;
+
+            if (cell < 0) {
+
+                break;
+            }
+
+            int result = board.receiveAttack(cell);
+            shots++;
+
+            start = System.nanoTime();
+            strategy.recordResult(cell, result);
+            nanos += System.nanoTime() - start;
+        }
+
+        stats.recordGame(shots, nanos);
+    }
+
+    private static int[] generateLayout(GameRandom rand) {
+
+        TypeBoat[] types = TypeBoat.getStandardBoats();
+        int[] sizes = new int[types.length];
+        boolean[] vertical = new boolean[types.length];
+        int[] starts = new int[types.length];
+
+        for (int i = 0; i < types.length; i++) {
+
+            sizes[i] = types[i].getDefaultSize();
+            vertical[i] = types[i].isDefaultVertical();
+        }
+
+        PlacementTable table = PlacementTable.forSize(Board.SIZE, Board.SIZE);
+
+        table.planFleet(new long[table.getWords()], sizes, vertical, rand, starts, PlacementTable.MAX_SEARCH_NODES);
+
+        return starts;
+    }
+
+    private static class LayoutBatch extends RecursiveTask<StrategyStats> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Supplier<AttackStrategy> factory;
+        private final int[][] fleets;
+        private final int gamesPerLayout;
+        private final int from;
+        private final int to;
+
+        LayoutBatch(Supplier<AttackStrategy> factory, int[][] fleets, int gamesPerLayout, int from, int to) {
+            this.factory = factory;
+            this.fleets = fleets;
+            this.gamesPerLayout = gamesPerLayout;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected StrategyStats compute() {
+
+            if ((long) (to - from) * gamesPerLayout <= CHUNK || to - from == 1) {
+
+                AttackStrategy strategy = factory.get();
+                StrategyStats stats = new StrategyStats(strategy.getName());
+
+                for (int i = from; i < to; i++) {
+
+                    for (int g = 0; g < gamesPerLayout; g++) {
+
+                        playSolo(strategy, buildBoard(fleets[i]), stats);
+                    }
+                }
+                return stats;
+            }
+
+            int mid = (from + to) >>> 1;
+
+            LayoutBatch left = new LayoutBatch(factory, fleets, gamesPerLayout, from, mid);
+            LayoutBatch right = new LayoutBatch(factory, fleets, gamesPerLayout, mid, to);
+
+            left.fork();
+
+            StrategyStats stats = right.compute();
+            stats.merge(left.join());
+
+            return stats;
+        }
+    }
+}
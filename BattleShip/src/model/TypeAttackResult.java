@@ -0,0 +1,16 @@
+package model;
+
+public enum TypeAttackResult {
+
+    MISS,
+
+    HIT,
+
+    SUNK,
+
+    ALREADY_ATTACKED,
+
+    OUT_OF_BOUNDS,
+
+    NOT_IN_PLAY
+}
@@ -0,0 +1,9 @@
+package model;
+
+public enum TypeBoardEvent {
+    BOAT_PLACED,
+    SHOT_RESOLVED,
+    BOAT_SUNK,
+    GAME_OVER,
+    BOARD_CLEARED
+}
@@ -0,0 +1,451 @@
+package net;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import model.AttackResult;
+import model.Board;
+import model.Coordinate;
+import model.GameSession;
+import model.SessionManager;
+
+public class GameServer implements Runnable {
+    public static final int DEFAULT_PORT = 7878;
+    public static final int DEFAULT_CUSTOM_BOATS = 5;
+    public static final int CUSTOM_COUNT_SHIFT = 4;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final SessionManager sessions;
+    private final ServerSocketChannel server;
+    private final Selector selector;
+    private volatile boolean running;
+
+    public GameServer(InetSocketAddress address) throws IOException {
+        this(address, new SessionManager());
+    }
+
+    public GameServer(InetSocketAddress address, SessionManager sessions) throws IOException {
+        this.sessions = sessions;
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        this.server.bind(address);
+        this.server.configureBlocking(false);
+        this.server.register(selector, SelectionKey.OP_ACCEPT);
+        this.running = true;
+    }
+
+    public int getPort() {
+
+        return server.socket().getLocalPort();
+    }
+
+    public SessionManager getSessions() {
+
+        return sessions;
+    }
+
+    /**
+     * Descripción: Atiende conexiones con un único hilo y un Selector hasta que se llame a stop.
+     * Pre: Ninguna.
+     * Pos: Cada lectura procesa todas las tramas completas recibidas y las respuestas se envían juntas, de modo que
+     * un cliente que encadena N ataques recibe los N resultados en un solo viaje de ida y vuelta. Si el cliente no
+     * lee sus respuestas se deja de leer su conexión hasta que vacíe el buffer de salida.
+     */
+
+    @Override
+    public void run() {
+
+        while (running) {
+
+            try {
+
+                selector.select();
+
+            } catch (IOException e) {
+
+                break;
+            }
+
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+
+            while (keys.hasNext()) {
+
+                SelectionKey key = keys.next();
+                keys.remove();
+
+                try {
+
+                    if (!key.isValid()) {
+
+                        continue;
+                    }
+
+                    if (key.isAcceptable()) {
+
+                        accept();
+
+                    } else if (key.isReadable() || key.isWritable()) {
+
+                        serve(key);
+                    }
+
+                } catch (IOException e) {
+
+                    close(key);
+                }
+            }
+        }
+
+        closeAll();
+    }
+
+    /**
+     * Descripción: Detiene el servidor.
+     * Pre: Ninguna.
+     * Pos: El hilo de run cierra todas las conexiones y termina.
+     */
+
+    public void stop() {
+
+        running = false;
+        selector.wakeup();
+    }
+
+    private void accept() throws IOException {
+
+        SocketChannel channel = server.accept();
+
+        if (channel == null) {
+
+            return;
+        }
+
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        channel.register(selector, SelectionKey.OP_READ, new Connection());
+    }
+
+    private void serve(SelectionKey key) throws IOException {
+
+        SocketChannel channel = (SocketChannel) key.channel();
+        Connection connection = (Connection) key.attachment();
+
+        if (key.isReadable() && channel.read(connection.in) < 0) {
+
+            close(key);
+            return;
+        }
+
+        while (true) {
+
+            connection.in.flip();
+
+            while (connection.in.remaining() >= Protocol.REQUEST_SIZE
+                    && connection.out.remaining() >= Protocol.RESPONSE_SIZE) {
+
+                handle(connection.in, connection.out);
+            }
+
+            connection.in.compact();
+            connection.out.flip();
+            channel.write(connection.out);
+            connection.out.compact();
+
+            if (connection.out.position() > 0) {
+
+                key.interestOps(SelectionKey.OP_WRITE);
+                return;
+            }
+
+            if (connection.in.position() < Protocol.REQUEST_SIZE) {
+
+                key.interestOps(SelectionKey.OP_READ);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Descripción: Decodifica una trama de petición, la ejecuta sobre su sesión y escribe la respuesta.
+     * Pre: in debe tener una trama completa y out espacio para una respuesta.
+     * Pos: Se consume una petición y se produce exactamente una respuesta, en el mismo orden. Si la petición lanza
+     * una excepción se responde STATUS_BAD_REQUEST, de modo que una petición no puede detener el hilo del servidor.
+     * @param in Buffer con las peticiones recibidas.
+     * @param out Buffer con las respuestas pendientes de enviar.
+     */
+
+    private void handle(ByteBuffer in, ByteBuffer out) {
+
+        byte op = in.get();
+        int arg = in.get() & 0xFF;
+        in.getShort();
+        int id = in.getInt();
+        int x = in.getInt();
+        int y = in.getInt();
+        int start = out.position();
+
+        try {
+
+            dispatch(out, op, arg, id, x, y);
+
+        } catch (RuntimeException e) {
+
+            out.position(start);
+            reply(out, op, Protocol.STATUS_BAD_REQUEST, 0, 0);
+        }
+    }
+
+    private void dispatch(ByteBuffer out, byte op, int arg, int id, int x, int y) {
+
+        if (op == Protocol.OP_NEW_GAME) {
+
+            newGame(out, arg, id, x, y);
+            return;
+        }
+
+        while (true) {
+
+            GameSession session = sessions.getSession(id);
+
+            if (session == null) {
+
+                reply(out, op, Protocol.STATUS_UNKNOWN_SESSION, 0, 0);
+                return;
+            }
+
+            try {
+
+                execute(out, op, arg, id, x, y, session);
+                return;
+
+            } catch (IllegalStateException e) {
+
+                if (!session.isDetached()) {
+
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Descripción: Ejecuta una petición sobre una sesión ya encontrada.
+     * Pre: session no debe ser null.
+     * Pos: Se escribe una respuesta, salvo que la sesión se haya guardado en disco o cerrado desde que se la
+     * buscó: en ese caso no se escribe nada y handle la vuelve a buscar.
+     * @param out Buffer de respuestas.
+     * @param op Operación pedida.
+     * @param arg Argumento de la operación.
+     * @param id Identificador de la sesión.
+     * @param x Primer parámetro de la operación.
+     * @param y Segundo parámetro de la operación.
+     * @param session Sesión de la partida.
+     * @throws IllegalStateException si la sesión se desvinculó del administrador.
+     */
+
+    private void execute(ByteBuffer out, byte op, int arg, int id, int x, int y, GameSession session) {
+
+        switch (op) {
+            case Protocol.OP_PLACE:
+                place(out, session, arg, x, y);
+                break;
+            case Protocol.OP_ATTACK:
+                attack(out, session, x, y);
+                break;
+            case Protocol.OP_STATUS:
+                reply(out, op, Protocol.STATUS_OK, flags(session), 0);
+                break;
+            case Protocol.OP_CLOSE:
+                sessions.closeSession(id);
+                reply(out, op, Protocol.STATUS_OK, 0, 0);
+                break;
+            default:
+                reply(out, op, Protocol.STATUS_BAD_REQUEST, 0, 0);
+                break;
+        }
+    }
+
+    private void newGame(ByteBuffer out, int arg, int seed, int width, int height) {
+
+        if (width == 0) {
+            width = Board.SIZE;
+        }
+        if (height == 0) {
+            height = Board.SIZE;
+        }
+
+        if (width < 1 || width > Board.MAX_SIZE || height < 1 || height > Board.MAX_SIZE) {
+
+            reply(out, Protocol.OP_NEW_GAME, Protocol.STATUS_BAD_REQUEST, 0, 0);
+            return;
+        }
+
+        long id = seed == 0 ? sessions.createSession(width, height) : sessions.createSession(width, height, seed);
+        GameSession session = sessions.getSession(id);
+        boolean custom = (arg & Protocol.NEW_GAME_CUSTOM) != 0;
+        boolean ready;
+
+        if (custom) {
+
+            int count = arg >>> CUSTOM_COUNT_SHIFT;
+
+            ready = session.startCustomGame(count == 0 ? DEFAULT_CUSTOM_BOATS : count);
+
+        } else {
+
+            ready = session.startStandardGame();
+        }
+
+        if (ready && (arg & Protocol.NEW_GAME_RANDOM_FLEET) != 0) {
+
+            ready = session.placeRandomHumanBoats(custom);
+        }
+
+        if (!ready) {
+
+            sessions.closeSession(id);
+            reply(out, Protocol.OP_NEW_GAME, Protocol.STATUS_REJECTED, 0, 0);
+            return;
+        }
+
+        reply(out, Protocol.OP_NEW_GAME, Protocol.STATUS_OK, flags(session), (int) id);
+    }
+
+    private void place(ByteBuffer out, GameSession session, int arg, int x, int y) {
+
+        int size = arg & Protocol.PLACE_SIZE_MASK;
+        boolean placed;
+
+        if (size == 0) {
+
+            placed = session.placeStandardBoat(x, y);
+
+        } else {
+
+            placed = session.placeCustomBoat(x, y, size, (arg & Protocol.PLACE_VERTICAL) != 0);
+        }
+
+        reply(out, Protocol.OP_PLACE, placed ? Protocol.STATUS_OK : Protocol.STATUS_REJECTED, flags(session), 0);
+    }
+
+    /**
+     * Descripción: Resuelve el disparo del humano y la respuesta de la máquina bajo el bloqueo de la sesión.
+     * Pre: session no debe ser null.
+     * Pos: Se rechaza el disparo si la sesión responde NOT_IN_PLAY, es decir, si la flota del humano no está completa
+     * o la partida terminó; si el turno termina la partida, se registra su resultado en las estadísticas.
+     * @param out Buffer de respuestas.
+     * @param session Sesión atacada.
+     * @param x Coordenada X del disparo.
+     * @param y Coordenada Y del disparo.
+     */
+
+    private void attack(ByteBuffer out, GameSession session, int x, int y) {
+
+        synchronized (session) {
+
+            int result = session.humanAttack(x, y);
+
+            if (result == AttackResult.NOT_IN_PLAY) {
+
+                reply(out, Protocol.OP_ATTACK, Protocol.STATUS_REJECTED, flags(session), 0);
+                return;
+            }
+            int machineResult = Protocol.NO_MACHINE_MOVE;
+            int machineX = 0;
+            int machineY = 0;
+
+            if (AttackResult.isResolved(result) && !session.isGameOver()) {
+
+                Coordinate coord = session.machineAttack();
+
+                if (coord != null) {
+
+                    machineResult = session.getLastMachineAttackResult();
+                    machineX = coord.getX();
+                    machineY = coord.getY();
+                }
+            }
+
+            if (AttackResult.isResolved(result) && session.isGameOver()) {
+
+                sessions.recordGameResult(session);
+            }
+
+            Protocol.writeResponse(out, Protocol.OP_ATTACK, Protocol.STATUS_OK, flags(session), result,
+                    machineResult, machineX, machineY);
+        }
+    }
+
+    private static int flags(GameSession session) {
+
+        synchronized (session) {
+
+            int flags = 0;
+
+            if (session.isAllHumanBoatsPlaced()) {
+
+                flags |= Protocol.FLAG_FLEET_PLACED;
+            }
+
+            if (session.isAllHumanBoatsPlaced() && session.isGameOver()) {
+
+                flags |= Protocol.FLAG_GAME_OVER;
+
+                if (session.isHumanWinner()) {
+
+                    flags |= Protocol.FLAG_HUMAN_WINNER;
+                }
+            }
+            return flags;
+        }
+    }
+
+    private static void reply(ByteBuffer out, byte op, byte status, int flags, int result) {
+
+        Protocol.writeResponse(out, op, status, flags, result, Protocol.NO_MACHINE_MOVE, 0, 0);
+    }
+
+    private void close(SelectionKey key) {
+
+        key.cancel();
+
+        try {
+
+            key.channel().close();
+
+        } catch (IOException e) {
+
+            // La conexión ya estaba cerrada por el cliente.
+        }
+    }
+
+    private void closeAll() {
+
+        for (SelectionKey key : selector.keys()) {
+
+            close(key);
+        }
+
+        try {
+
+            selector.close();
+            server.close();
+
+        } catch (IOException e) {
+
+            // El servidor se está apagando; no hay a quién informar.
+        }
+    }
+
+    private static class Connection {
+        private final ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+}
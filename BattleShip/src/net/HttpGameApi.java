@@ -0,0 +1,575 @@
+package net;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import model.AttackResult;
+import model.Board;
+import model.Coordinate;
+import model.GameSession;
+import model.SessionManager;
+import model.TypeBoat;
+
+public class HttpGameApi {
+    public static final int DEFAULT_PORT = 8080;
+
+    private final SessionManager sessions;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ConcurrentHashMap<Long, BoardViews> views;
+
+    public HttpGameApi(InetSocketAddress address) throws IOException {
+        this(address, new SessionManager());
+    }
+
+    public HttpGameApi(InetSocketAddress address, SessionManager sessions) throws IOException {
+        this.sessions = sessions;
+        this.views = new ConcurrentHashMap<>();
+        this.sessions.addDropListener(views::remove);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server = HttpServer.create(address, 0);
+        this.server.createContext("/games", this::handleGames);
+        this.server.createContext("/stats", this::handleStats);
+        this.server.setExecutor(executor);
+    }
+
+    /**
+     * Descripción: Inicia la API. Cada petición se atiende en su propio hilo virtual.
+     * Pre: Ninguna.
+     * Pos: El servidor acepta peticiones en segundo plano hasta que se llame a stop.
+     */
+
+    public void start() {
+
+        server.start();
+    }
+
+    public void stop() {
+
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    public int getPort() {
+
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Descripción: Atiende las rutas de partidas.
+     * Pre: Ninguna.
+     * Pos: Rutas disponibles, con parámetros en la query string:
+     * POST /games?type=standard|custom&amp;boats=&amp;width=&amp;height=&amp;random=true&amp;seed= crea una partida y
+     * devuelve la semilla con que se puede repetir;
+     * GET /games/{id} consulta su estado; DELETE /games/{id} la cierra;
+     * POST /games/{id}/boats?x=&amp;y=[&amp;size=&amp;vertical=true] coloca un barco del humano;
+     * POST /games/{id}/attacks?x=&amp;y= juega un turno;
+     * GET /games/{id}/boards/human y GET /games/{id}/boards/machine devuelven las vistas de los tableros;
+     * GET /games/{id}/stats devuelve las estadísticas de la sesión.
+     * Una petición que lanza una excepción antes de responder recibe un 400.
+     * @param exchange Petición HTTP.
+     */
+
+    private void handleGames(HttpExchange exchange) throws IOException {
+
+        try {
+
+            String method = exchange.getRequestMethod();
+            String[] path = exchange.getRequestURI().getPath().split("/");
+            HashMap<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+            if (path.length == 2) {
+
+                if (method.equals("POST")) {
+
+                    createGame(exchange, query);
+
+                } else {
+
+                    sendError(exchange, 405, "Método no permitido");
+                }
+                return;
+            }
+
+            long id = parseLong(path[2], -1);
+
+            while (true) {
+
+                GameSession session = sessions.getSession(id);
+
+                if (session == null) {
+
+                    sendError(exchange, 404, "La partida no existe");
+                    return;
+                }
+
+                try {
+
+                    route(exchange, method, path, query, id, session);
+                    return;
+
+                } catch (IllegalStateException e) {
+
+                    if (!session.isDetached()) {
+
+                        throw e;
+                    }
+                }
+            }
+
+        } catch (RuntimeException e) {
+
+            if (exchange.getResponseCode() == -1) {
+
+                sendError(exchange, 400, "Petición inválida");
+            }
+
+        } finally {
+
+            exchange.close();
+        }
+    }
+
+    /**
+     * Descripción: Atiende una ruta de una partida ya encontrada.
+     * Pre: session no debe ser null.
+     * Pos: Se responde la petición, salvo que la sesión se haya guardado en disco o cerrado desde que se la buscó:
+     * en ese caso no se responde nada y handleGames la vuelve a buscar.
+     * @param exchange Petición HTTP.
+     * @param method Método HTTP.
+     * @param path Segmentos de la ruta.
+     * @param query Parámetros de la petición.
+     * @param id Identificador de la sesión.
+     * @param session Sesión de la partida.
+     * @throws IllegalStateException si la sesión se desvinculó del administrador.
+     */
+
+    private void route(HttpExchange exchange, String method, String[] path, HashMap<String, String> query, long id,
+            GameSession session) throws IOException {
+
+        String action = path.length > 3 ? path[3] : "";
+
+        if (action.isEmpty() && method.equals("GET")) {
+
+            send(exchange, 200, status(session).append('}'));
+
+        } else if (action.isEmpty() && method.equals("DELETE")) {
+
+            sessions.closeSession(id);
+            send(exchange, 200, new StringBuilder("{\"closed\":true}"));
+
+        } else if (action.equals("boats") && method.equals("POST")) {
+
+            placeBoat(exchange, session, query);
+
+        } else if (action.equals("attacks") && method.equals("POST")) {
+
+            attack(exchange, session, query);
+
+        } else if (action.equals("boards") && path.length == 5 && method.equals("GET")) {
+
+            sendBoard(exchange, id, session, path[4]);
+
+        } else if (action.equals("stats") && method.equals("GET")) {
+
+            send(exchange, 200, new StringBuilder("{\"statistics\":\"")
+                    .append(escape(session.showStatistics())).append("\"}"));
+
+        } else {
+
+            sendError(exchange, 404, "Ruta desconocida");
+        }
+    }
+
+    /**
+     * Descripción: Atiende GET /stats con las victorias acumuladas de todas las sesiones.
+     * Pre: Ninguna.
+     * Pos: Se responde con los contadores globales y la cantidad de sesiones abiertas.
+     * @param exchange Petición HTTP.
+     */
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+
+        try {
+
+            StringBuilder json = new StringBuilder();
+
+            json.append("{\"sessions\":").append(sessions.getSessionCount())
+                .append(",\"standard\":{\"human\":").append(sessions.getStandardHumanWins())
+                .append(",\"machine\":").append(sessions.getStandardMachineWins())
+                .append("},\"custom\":{\"human\":").append(sessions.getCustomHumanWins())
+                .append(",\"machine\":").append(sessions.getCustomMachineWins()).append("}}");
+
+            send(exchange, 200, json);
+
+        } finally {
+
+            exchange.close();
+        }
+    }
+
+    private void createGame(HttpExchange exchange, HashMap<String, String> query) throws IOException {
+
+        int width = (int) parseLong(query.get("width"), Board.SIZE);
+        int height = (int) parseLong(query.get("height"), Board.SIZE);
+        boolean custom = "custom".equals(query.get("type"));
+        boolean random = "true".equals(query.get("random"));
+        String seed = query.get("seed");
+
+        if (width < 1 || width > Board.MAX_SIZE || height < 1 || height > Board.MAX_SIZE) {
+
+            sendError(exchange, 400, "Dimensiones de tablero inválidas");
+            return;
+        }
+
+        long id = seed == null ? sessions.createSession(width, height)
+                : sessions.createSession(width, height, parseLong(seed, 0));
+        GameSession session = sessions.getSession(id);
+        boolean ready;
+
+        if (custom) {
+
+            ready = session.startCustomGame((int) parseLong(query.get("boats"), GameServer.DEFAULT_CUSTOM_BOATS));
+
+        } else {
+
+            ready = session.startStandardGame();
+        }
+
+        if (ready && random) {
+
+            ready = session.placeRandomHumanBoats(custom);
+        }
+
+        if (!ready) {
+
+            sessions.closeSession(id);
+            sendError(exchange, 409, "La flota no cabe en el tablero");
+            return;
+        }
+
+        send(exchange, 201, new StringBuilder("{\"session\":").append(id)
+                .append(",\"seed\":").append(session.getGameSeed()).append('}'));
+    }
+
+    private void placeBoat(HttpExchange exchange, GameSession session, HashMap<String, String> query)
+            throws IOException {
+
+        int x = (int) parseLong(query.get("x"), 0);
+        int y = (int) parseLong(query.get("y"), 0);
+        int size = (int) parseLong(query.get("size"), 0);
+        StringBuilder json;
+
+        synchronized (session) {
+
+            boolean placed;
+
+            if (size == 0) {
+
+                placed = session.placeStandardBoat(x, y);
+
+            } else {
+
+                placed = session.placeCustomBoat(x, y, size, "true".equals(query.get("vertical")));
+            }
+
+            json = status(session).append(",\"placed\":").append(placed).append('}');
+        }
+
+        send(exchange, 200, json);
+    }
+
+    /**
+     * Descripción: Juega un turno: disparo del humano y respuesta de la máquina.
+     * Pre: Ninguna.
+     * Pos: Se responde 409 si la sesión rechaza el disparo con NOT_IN_PLAY; si el turno termina la partida, se
+     * registra su resultado en las estadísticas.
+     * @param exchange Petición HTTP.
+     * @param session Sesión de la partida.
+     * @param query Parámetros x e y del disparo.
+     */
+
+    private void attack(HttpExchange exchange, GameSession session, HashMap<String, String> query)
+            throws IOException {
+
+        int x = (int) parseLong(query.get("x"), 0);
+        int y = (int) parseLong(query.get("y"), 0);
+        StringBuilder json = new StringBuilder();
+        boolean accepted;
+
+        synchronized (session) {
+
+            int result = session.humanAttack(x, y);
+
+            accepted = result != AttackResult.NOT_IN_PLAY;
+
+            if (accepted) {
+
+                json.append("{\"result\":");
+                appendResult(json, result);
+
+                if (AttackResult.isResolved(result) && !session.isGameOver()) {
+
+                    Coordinate coord = session.machineAttack();
+
+                    if (coord != null) {
+
+                        json.append(",\"machine\":{\"x\":").append(coord.getX()).append(",\"y\":")
+                            .append(coord.getY()).append(",\"result\":");
+                        appendResult(json, session.getLastMachineAttackResult());
+                        json.append('}');
+                    }
+                }
+
+                if (AttackResult.isResolved(result) && session.isGameOver()) {
+
+                    sessions.recordGameResult(session);
+                }
+
+                StringBuilder state = status(session);
+
+                json.append(',').append(state, 1, state.length()).append('}');
+            }
+        }
+
+        if (!accepted) {
+
+            sendError(exchange, 409, "La partida no admite disparos");
+            return;
+        }
+
+        send(exchange, 200, json);
+    }
+
+    /**
+     * Descripción: Envía la vista de un tablero desde su instantánea serializada.
+     * Pre: which debe ser "human" o "machine".
+     * Pos: La instantánea solo se vuelve a serializar si la generación de la sesión o la versión del tablero
+     * cambiaron desde la última petición, porque la versión vuelve a empezar cuando la partida se recupera del disco;
+     * se envía con ETag y se responde 304 si el cliente ya tiene esa generación y versión. La vista de la máquina
+     * oculta sus barcos. La respuesta se escribe después de soltar el bloqueo de la sesión, y la vista guardada se
+     * descarta cuando el administrador cierra o guarda la sesión.
+     * @param exchange Petición HTTP.
+     * @param id Identificador de la sesión.
+     * @param session Sesión de la partida.
+     * @param which Tablero pedido.
+     */
+
+    private void sendBoard(HttpExchange exchange, long id, GameSession session, String which) throws IOException {
+
+        boolean human = which.equals("human");
+
+        if (!human && !which.equals("machine")) {
+
+            sendError(exchange, 404, "Tablero desconocido");
+            return;
+        }
+
+        BoardViews cached = views.computeIfAbsent(id, key -> new BoardViews());
+        Snapshot snapshot = null;
+
+        synchronized (session) {
+
+            if (session.isDetached()) {
+
+                views.remove(id, cached);
+            }
+
+            if (session.getBoardWidth() * (long) session.getBoardHeight() <= Board.DENSE_MAX_CELLS) {
+
+                long generation = session.getGeneration();
+                long version = human ? session.getHumanBoardVersion() : session.getMachineBoardVersion();
+
+                snapshot = human ? cached.human : cached.machine;
+
+                if (snapshot == null || snapshot.generation != generation || snapshot.version != version) {
+
+                    snapshot = new Snapshot(generation, version, serialize(human ? session.getHumanBoard()
+                            : session.getMachineBoard(), !human, version));
+
+                    if (human) {
+
+                        cached.human = snapshot;
+
+                    } else {
+
+                        cached.machine = snapshot;
+                    }
+                }
+            }
+        }
+
+        if (snapshot == null) {
+
+            sendError(exchange, 409, "El tablero es demasiado grande para una vista completa");
+            return;
+        }
+
+        String etag = "\"" + which.charAt(0) + snapshot.generation + "-" + snapshot.version + "\"";
+
+        exchange.getResponseHeaders().set("ETag", etag);
+
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+
+        send(exchange, 200, snapshot.json);
+    }
+
+    private static byte[] serialize(int[][] grid, boolean hideBoats, long version) {
+
+        StringBuilder json = new StringBuilder(grid.length * grid[0].length * 2 + 64);
+
+        json.append("{\"width\":").append(grid[0].length).append(",\"height\":").append(grid.length)
+            .append(",\"version\":").append(version).append(",\"rows\":[");
+
+        for (int row = 0; row < grid.length; row++) {
+
+            json.append(row == 0 ? "[" : ",[");
+
+            for (int column = 0; column < grid[row].length; column++) {
+
+                int value = grid[row][column];
+
+                if (hideBoats && value == 1) {
+
+                    value = 0;
+                }
+
+                if (column > 0) {
+
+                    json.append(',');
+                }
+                json.append(value);
+            }
+            json.append(']');
+        }
+
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static StringBuilder status(GameSession session) {
+
+        StringBuilder json = new StringBuilder("{\"session\":").append(session.getId());
+
+        synchronized (session) {
+
+            boolean placed = session.isAllHumanBoatsPlaced();
+            boolean over = placed && session.isGameOver();
+
+            json.append(",\"width\":").append(session.getBoardWidth())
+                .append(",\"height\":").append(session.getBoardHeight())
+                .append(",\"fleetPlaced\":").append(placed)
+                .append(",\"gameOver\":").append(over);
+
+            if (over) {
+
+                json.append(",\"winner\":\"").append(escape(session.getWinnerName())).append('"');
+            }
+        }
+        return json;
+    }
+
+    private static void appendResult(StringBuilder json, int code) {
+
+        json.append('"').append(AttackResult.getType(code).name()).append('"');
+
+        TypeBoat boat = AttackResult.getSunkBoat(code);
+
+        if (boat != null) {
+
+            json.append(",\"sunk\":\"").append(escape(boat.getName())).append("\",\"sunkSize\":")
+                .append(AttackResult.getSunkSize(code));
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, StringBuilder json) throws IOException {
+
+        send(exchange, status, json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+
+        try (OutputStream out = exchange.getResponseBody()) {
+
+            out.write(body);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+
+        send(exchange, status, new StringBuilder("{\"error\":\"").append(escape(message)).append("\"}"));
+    }
+
+    private static String escape(String text) {
+
+        return text.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static HashMap<String, String> parseQuery(String query) {
+
+        HashMap<String, String> params = new HashMap<>();
+
+        if (query == null) {
+
+            return params;
+        }
+
+        for (String pair : query.split("&")) {
+
+            int eq = pair.indexOf('=');
+
+            if (eq > 0) {
+
+                params.put(pair.substring(0, eq), pair.substring(eq + 1));
+            }
+        }
+        return params;
+    }
+
+    private static long parseLong(String text, long fallback) {
+
+        if (text == null) {
+
+            return fallback;
+        }
+
+        try {
+
+            return Long.parseLong(text);
+
+        } catch (NumberFormatException e) {
+
+            return fallback;
+        }
+    }
+
+    private static class Snapshot {
+        private final long generation;
+        private final long version;
+        private final byte[] json;
+
+        Snapshot(long generation, long version, byte[] json) {
+            this.generation = generation;
+            this.version = version;
+            this.json = json;
+        }
+    }
+
+    private static class BoardViews {
+        private Snapshot human;
+        private Snapshot machine;
+    }
+}
@@ -0,0 +1,193 @@
+package net;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.SplittableRandom;
+import model.Board;
+import model.LatencyHistogram;
+
+public class LoadGenerator implements Runnable {
+    private static final int CELLS = Board.SIZE * Board.SIZE;
+
+    private final InetSocketAddress address;
+    private final int depth;
+    private final long deadline;
+    private final SplittableRandom random;
+    private final LatencyHistogram histogram;
+    private final int[] sessions;
+    private final int[][] order;
+    private final int[] shots;
+    private long games;
+    private IOException failure;
+
+    public LoadGenerator(InetSocketAddress address, int depth, long deadline, long seed) {
+        this.address = address;
+        this.depth = depth;
+        this.deadline = deadline;
+        this.random = new SplittableRandom(seed);
+        this.histogram = new LatencyHistogram();
+        this.sessions = new int[depth];
+        this.order = new int[depth][CELLS];
+        this.shots = new int[depth];
+    }
+
+    /**
+     * Descripción: Juega partidas contra el servidor por una conexión, encadenando depth ataques por viaje.
+     * Pre: El servidor debe estar escuchando en address.
+     * Pos: Cada ranura del lote juega su propia partida de 10x10 disparando a casillas sin repetir; al terminar una
+     * partida se abre otra. Se mide la latencia de cada ataque desde que se envía el lote hasta que llega su respuesta.
+     */
+
+    @Override
+    public void run() {
+
+        try (SocketChannel channel = SocketChannel.open(address)) {
+
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+
+            ByteBuffer request = ByteBuffer.allocateDirect(depth * Protocol.REQUEST_SIZE);
+            ByteBuffer response = ByteBuffer.allocateDirect(depth * Protocol.RESPONSE_SIZE);
+
+            for (int slot = 0; slot < depth; slot++) {
+
+                newGame(channel, request, response, slot);
+            }
+
+            while (System.nanoTime() < deadline) {
+
+                request.clear();
+
+                for (int slot = 0; slot < depth; slot++) {
+
+                    int cell = order[slot][shots[slot]++];
+
+                    Protocol.writeRequest(request, Protocol.OP_ATTACK, 0, sessions[slot],
+                            cell % Board.SIZE + 1, cell / Board.SIZE + 1);
+                }
+
+                request.flip();
+                long sent = System.nanoTime();
+
+                while (request.hasRemaining()) {
+
+                    channel.write(request);
+                }
+
+                response.clear();
+                int received = 0;
+
+                while (received < depth) {
+
+                    if (channel.read(response) < 0) {
+
+                        throw new IOException("El servidor cerró la conexión");
+                    }
+
+                    long now = System.nanoTime();
+
+                    while (received < depth && response.position() >= (received + 1) * Protocol.RESPONSE_SIZE) {
+
+                        histogram.record(now - sent);
+                        received++;
+                    }
+                }
+
+                for (int slot = 0; slot < depth; slot++) {
+
+                    int flags = response.getShort(slot * Protocol.RESPONSE_SIZE + 2);
+
+                    if ((flags & Protocol.FLAG_GAME_OVER) != 0 || shots[slot] == CELLS) {
+
+                        games++;
+                        close(channel, request, response, slot);
+                        newGame(channel, request, response, slot);
+                    }
+                }
+            }
+
+        } catch (IOException e) {
+
+            failure = e;
+        }
+    }
+
+    public LatencyHistogram getHistogram() {
+
+        return histogram;
+    }
+
+    public long getGames() {
+
+        return games;
+    }
+
+    /**
+     * Descripción: Obtiene el error de entrada/salida que detuvo al generador.
+     * Pre: run debe haber terminado.
+     * Pos: Retorna null si el generador terminó por tiempo.
+     * @return IOException que detuvo al generador, o null.
+     */
+
+    public IOException getFailure() {
+
+        return failure;
+    }
+
+    private void newGame(SocketChannel channel, ByteBuffer request, ByteBuffer response, int slot) throws IOException {
+
+        roundTrip(channel, request, response, Protocol.OP_NEW_GAME, Protocol.NEW_GAME_RANDOM_FLEET, 0);
+
+        sessions[slot] = response.getInt(4);
+        shots[slot] = 0;
+
+        int[] cells = order[slot];
+
+        for (int i = 0; i < CELLS; i++) {
+
+            cells[i] = i;
+        }
+
+        for (int i = CELLS - 1; i > 0; i--) {
+
+            int j = random.nextInt(i + 1);
+            int swap = cells[i];
+
+            cells[i] = cells[j];
+            cells[j] = swap;
+        }
+    }
+
+    private void close(SocketChannel channel, ByteBuffer request, ByteBuffer response, int slot) throws IOException {
+
+        roundTrip(channel, request, response, Protocol.OP_CLOSE, 0, sessions[slot]);
+    }
+
+    private static void roundTrip(SocketChannel channel, ByteBuffer request, ByteBuffer response,
+            byte op, int arg, int session) throws IOException {
+
+        request.clear();
+        Protocol.writeRequest(request, op, arg, session, 0, 0);
+        request.flip();
+
+        while (request.hasRemaining()) {
+
+            channel.write(request);
+        }
+
+        response.clear();
+        response.limit(Protocol.RESPONSE_SIZE);
+
+        while (response.hasRemaining()) {
+
+            if (channel.read(response) < 0) {
+
+                throw new IOException("El servidor cerró la conexión");
+            }
+        }
+
+        response.clear();
+    }
+}
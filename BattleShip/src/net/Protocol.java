@@ -0,0 +1,81 @@
+package net;
+
+import java.nio.ByteBuffer;
+
+public class Protocol {
+    public static final int REQUEST_SIZE = 16;
+    public static final int RESPONSE_SIZE = 20;
+
+    public static final byte OP_NEW_GAME = 1;
+    public static final byte OP_PLACE = 2;
+    public static final byte OP_ATTACK = 3;
+    public static final byte OP_STATUS = 4;
+    public static final byte OP_CLOSE = 5;
+
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_UNKNOWN_SESSION = 1;
+    public static final byte STATUS_REJECTED = 2;
+    public static final byte STATUS_BAD_REQUEST = 3;
+
+    public static final int NEW_GAME_CUSTOM = 1;
+    public static final int NEW_GAME_RANDOM_FLEET = 2;
+    public static final int PLACE_VERTICAL = 0x80;
+    public static final int PLACE_SIZE_MASK = 0x7F;
+
+    public static final int FLAG_GAME_OVER = 1;
+    public static final int FLAG_HUMAN_WINNER = 2;
+    public static final int FLAG_FLEET_PLACED = 4;
+
+    public static final int NO_MACHINE_MOVE = -1;
+
+    private Protocol() {
+    }
+
+    /**
+     * Descripción: Escribe una trama de petición de tamaño fijo.
+     * Pre: out debe tener al menos REQUEST_SIZE bytes libres.
+     * Pos: Se escriben op, arg, 2 bytes reservados, session, x e y, todos en orden big-endian.
+     * @param out Buffer de salida.
+     * @param op Operación (OP_*).
+     * @param arg Argumento de la operación: banderas de NEW_GAME o tamaño y orientación de PLACE.
+     * @param session Identificador de la sesión; en NEW_GAME, semilla de la partida (0 para una al azar).
+     * @param x Coordenada X, o ancho del tablero en NEW_GAME (0 para el clásico de 10).
+     * @param y Coordenada Y, o alto del tablero en NEW_GAME (0 para el clásico de 10).
+     */
+
+    public static void writeRequest(ByteBuffer out, byte op, int arg, int session, int x, int y) {
+
+        out.put(op);
+        out.put((byte) arg);
+        out.putShort((short) 0);
+        out.putInt(session);
+        out.putInt(x);
+        out.putInt(y);
+    }
+
+    /**
+     * Descripción: Escribe una trama de respuesta de tamaño fijo.
+     * Pre: out debe tener al menos RESPONSE_SIZE bytes libres.
+     * Pos: Se escriben op, status, flags, result, machineResult, machineX y machineY, en orden big-endian.
+     * @param out Buffer de salida.
+     * @param op Operación respondida.
+     * @param status Estado (STATUS_*).
+     * @param flags Banderas de la partida (FLAG_*).
+     * @param result Código de AttackResult del humano, o el identificador de sesión en NEW_GAME.
+     * @param machineResult Código de AttackResult de la respuesta de la máquina, o NO_MACHINE_MOVE.
+     * @param machineX Coordenada X atacada por la máquina.
+     * @param machineY Coordenada Y atacada por la máquina.
+     */
+
+    public static void writeResponse(ByteBuffer out, byte op, byte status, int flags, int result,
+            int machineResult, int machineX, int machineY) {
+
+        out.put(op);
+        out.put(status);
+        out.putShort((short) flags);
+        out.putInt(result);
+        out.putInt(machineResult);
+        out.putInt(machineX);
+        out.putInt(machineY);
+    }
+}
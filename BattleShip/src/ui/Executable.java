@@ -1,21 +1,43 @@
 package ui;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Scanner;
+import model.AttackResult;
 import model.Controller;
 import model.Coordinate;
+import model.MonteCarloStrategy;
+import model.StatisticsStore;
+import model.TypeAttackResult;
 
 public class Executable {
+    public static final String STATISTICS_FILE = "estadisticas.bss";
+
     private Scanner input;
     private Controller controller;
+    private StatisticsStore statistics;
 
     public static void main(String[] args) {
         Executable exe = new Executable();
         exe.menu();
     }
 
+    /**
+     * Descripción: Prepara el juego de consola con las estadísticas guardadas en STATISTICS_FILE.
+     * Pre: Ninguna.
+     * Pos: Si el archivo no se puede abrir, las estadísticas se llevan solo en memoria.
+     */
+
     public Executable() {
         input = new Scanner(System.in);
         controller = new Controller();
+
+        try {
+            statistics = new StatisticsStore(Path.of(STATISTICS_FILE));
+            controller.setStatisticsStore(statistics);
+        } catch (IOException e) {
+            System.out.println("No se pudieron abrir las estadísticas: " + e.getMessage());
+        }
     }
 
     /**
@@ -31,6 +53,7 @@ public class Executable {
             System.out.println("1) Juego estándar");
             System.out.println("2) Juego personalizado");
             System.out.println("3) Mostrar estadísticas");
+            System.out.println("4) Activar/desactivar máquina experta");
             System.out.println("0) Salir"); 
             System.out.print("Seleccione una opción: ");
             option = input.nextInt();
@@ -46,7 +69,11 @@ public class Executable {
                 case 3:
                     showStatistics();
                     break;
+                case 4:
+                    toggleExpertMode();
+                    break;
                 case 0:
+                    closeStatistics();
                     System.out.println("Gracias por disfrutar de nuestros servicios, feliz dia/tarde/noche :D.");
                     break;
                 default:
@@ -99,9 +126,9 @@ public class Executable {
 
             while(!placed) {
                 
-                System.out.print("Ingrese coordenada x (1-10): ");
+                System.out.print("Ingrese coordenada x (1-" + controller.getBoardWidth() + "): ");
                 int x = input.nextInt();
-                System.out.print("Ingrese coordenada y (1-10): ");
+                System.out.print("Ingrese coordenada y (1-" + controller.getBoardHeight() + "): ");
                 int y = input.nextInt();
                 input.nextLine();
                 
@@ -147,9 +174,9 @@ public class Executable {
             System.out.print("Orientación (H para Horizontal, V para Vertical): ");
             boolean isVertical = input.nextLine().equalsIgnoreCase("V");
             
-            System.out.print("Ingrese coordenada x (1-10): ");
+            System.out.print("Ingrese coordenada x (1-" + controller.getBoardWidth() + "): ");
             int x = input.nextInt();
-            System.out.print("Ingrese coordenada y (1-10): ");
+            System.out.print("Ingrese coordenada y (1-" + controller.getBoardHeight() + "): ");
             int y = input.nextInt();
             input.nextLine();
             
@@ -209,35 +236,33 @@ public class Executable {
 
         printMachineBoard();
         
-        int x = 0;
-        int y = 0;
-        boolean validCoords = false;
-        
-        while (!validCoords) {
+        int result = AttackResult.OUT_OF_BOUNDS;
+
+        while (!AttackResult.isResolved(result)) {
 
-            System.out.print("Ingrese coordenada x para atacar (1-10): ");
-            x = input.nextInt();
-            System.out.print("Ingrese coordenada y para atacar (1-10): ");
-            y = input.nextInt();
+            System.out.print("Ingrese coordenada x para atacar (1-" + controller.getBoardWidth() + "): ");
+            int x = input.nextInt();
+            System.out.print("Ingrese coordenada y para atacar (1-" + controller.getBoardHeight() + "): ");
+            int y = input.nextInt();
             input.nextLine();
-            
-            if (x < 1 || x > 10 || y < 1 || y > 10) {
 
-                System.out.println("Coordenadas fuera del tablero. Intente nuevamente.");
+            result = controller.humanAttack(x, y);
 
-            } else if (controller.isCoordinateAlreadyAttacked(x, y)) {
+            if (AttackResult.getType(result) == TypeAttackResult.OUT_OF_BOUNDS) {
 
-                System.out.println("Ya has atacado esta coordenada. Intente nuevamente.");
+                System.out.println("Coordenadas fuera del tablero. Intente nuevamente.");
 
-            } else {
+            } else if (AttackResult.getType(result) == TypeAttackResult.ALREADY_ATTACKED) {
 
-                validCoords = true;
+                System.out.println("Ya has atacado esta coordenada. Intente nuevamente.");
             }
         }
-        
-        boolean hit = controller.humanAttack(x, y);
 
-        if (hit) {
+        if (AttackResult.isSunk(result)) {
+
+            System.out.println("¡Impacto! Barco hundido: " + AttackResult.getSunkBoat(result).getName() + ".");
+
+        } else if (AttackResult.isHit(result)) {
 
             System.out.println("¡Impacto!");
 
@@ -261,9 +286,13 @@ public class Executable {
 
         System.out.println("La máquina ataca en: " + attack.getX() + "," + attack.getY());
         
-        boolean hit = controller.isMachineAttackHit();
+        int result = controller.getLastMachineAttackResult();
 
-        if (hit) {
+        if (AttackResult.isSunk(result)) {
+
+            System.out.println("¡La máquina hundió tu " + AttackResult.getSunkBoat(result).getName() + "!");
+
+        } else if (AttackResult.isHit(result)) {
 
             System.out.println("¡La máquina impactó en tu barco!");
 
@@ -288,11 +317,11 @@ public class Executable {
 
         System.out.println("\nTu Tablero:");
 
-        for (int i = 0; i < 10; i++) {
+        for (int i = 0; i < grid.length; i++) {
 
             System.out.print(" | ");
 
-            for (int j = 0; j < 10; j++) {
+            for (int j = 0; j < grid[i].length; j++) {
 
                 System.out.print(grid[i][j] + " | ");
             }
@@ -314,9 +343,9 @@ public class Executable {
 
         System.out.println("\nTablero Enemigo:");
 
-        for (int i = 0; i < 10; i++) {
+        for (int i = 0; i < grid.length; i++) {
 
-            for (int j = 0; j < 10; j++) {
+            for (int j = 0; j < grid[i].length; j++) {
 
                 if (grid[i][j] == 1) {
 
@@ -331,6 +360,27 @@ public class Executable {
         }
     }
 
+    /**
+     * Descripción: Alterna el modo experto de la máquina.
+     * Pre: El controlador debe estar inicializado.
+     * Pos: La máquina pasa a usar (o deja de usar) el muestreo Monte Carlo con un presupuesto de 5 ms por jugada.
+     * @return void, cambia la dificultad de la máquina.
+     */
+
+    public void toggleExpertMode() {
+
+        controller.setExpertMode(!controller.isExpertMode(), MonteCarloStrategy.DEFAULT_BUDGET_NANOS);
+
+        if (controller.isExpertMode()) {
+
+            System.out.println("Máquina experta activada.");
+
+        } else {
+
+            System.out.println("Máquina experta desactivada.");
+        }
+    }
+
     /**
      * Descripción: Muestra las estadísticas de partidas jugadas, ganadas y perdidas.
      * Pre: El controlador debe estar inicializado.
@@ -341,5 +391,33 @@ public class Executable {
     public void showStatistics() {
 
         System.out.println(controller.showStatistics());
+
+        if (statistics != null && statistics.getFlushError() != null) {
+
+            System.out.println("No se pudieron guardar las estadísticas: " + statistics.getFlushError().getMessage());
+        }
+    }
+
+    /**
+     * Descripción: Guarda las estadísticas por última vez antes de salir.
+     * Pre: Ninguna.
+     * Pos: Si falla el guardado se avisa; los totales del último guardado periódico siguen en el archivo.
+     */
+
+    private void closeStatistics() {
+
+        if (statistics == null) {
+
+            return;
+        }
+
+        try {
+
+            statistics.close();
+
+        } catch (IOException e) {
+
+            System.out.println("No se pudieron guardar las estadísticas: " + e.getMessage());
+        }
     }
 }
@@ -0,0 +1,53 @@
+package ui;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import model.SessionManager;
+import model.StatisticsStore;
+import net.HttpGameApi;
+
+public class HttpServerExecutable {
+
+    /**
+     * Descripción: Inicia la API HTTP/JSON de partidas.
+     * Pre: Argumentos opcionales: puerto (por defecto HttpGameApi.DEFAULT_PORT) y archivo de estadísticas.
+     * Pos: La API atiende peticiones hasta que se detenga el proceso. Con archivo de estadísticas las victorias
+     * se conservan entre ejecuciones y se guardan por última vez al detener el proceso.
+     * @param args Argumentos de la línea de comandos.
+     */
+
+    public static void main(String[] args) throws IOException {
+
+        int port = HttpGameApi.DEFAULT_PORT;
+
+        if (args.length > 0) {
+            port = Integer.parseInt(args[0]);
+        }
+
+        SessionManager sessions = new SessionManager();
+
+        if (args.length > 1) {
+
+            StatisticsStore statistics = new StatisticsStore(Path.of(args[1]));
+
+            sessions.setStatisticsStore(statistics);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+
+                try {
+
+                    statistics.close();
+
+                } catch (IOException e) {
+
+                    System.out.println("No se pudieron guardar las estadísticas: " + e.getMessage());
+                }
+            }));
+        }
+
+        HttpGameApi api = new HttpGameApi(new InetSocketAddress(port), sessions);
+        api.start();
+
+        System.out.println("API de Batalla Naval escuchando en http://localhost:" + api.getPort() + "/games");
+    }
+}
@@ -0,0 +1,93 @@
+package ui;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import model.LatencyHistogram;
+import net.GameServer;
+import net.LoadGenerator;
+
+public class LoadGeneratorExecutable {
+
+    /**
+     * Descripción: Genera carga contra el servidor de partidas por la interfaz de loopback.
+     * Pre: Argumentos opcionales: conexiones, ataques encadenados por viaje, segundos y puerto. Con puerto 0 se
+     * inicia un servidor en el mismo proceso.
+     * Pos: Se imprimen los movimientos por segundo y los percentiles p50/p99 de latencia por movimiento.
+     * @param args Argumentos de la línea de comandos.
+     */
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+
+        int connections = 4;
+        int depth = 16;
+        int seconds = 10;
+        int port = 0;
+
+        if (args.length > 0) {
+            connections = Integer.parseInt(args[0]);
+        }
+        if (args.length > 1) {
+            depth = Integer.parseInt(args[1]);
+        }
+        if (args.length > 2) {
+            seconds = Integer.parseInt(args[2]);
+        }
+        if (args.length > 3) {
+            port = Integer.parseInt(args[3]);
+        }
+
+        GameServer server = null;
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+
+        if (port == 0) {
+
+            server = new GameServer(new InetSocketAddress(loopback, 0));
+            port = server.getPort();
+
+            Thread serverThread = new Thread(server, "game-server");
+            serverThread.setDaemon(true);
+            serverThread.start();
+        }
+
+        System.out.println("Generando carga: " + connections + " conexiones, " + depth
+                + " ataques por viaje, " + seconds + " s, puerto " + port);
+
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        LoadGenerator[] generators = new LoadGenerator[connections];
+        Thread[] threads = new Thread[connections];
+
+        for (int i = 0; i < connections; i++) {
+
+            generators[i] = new LoadGenerator(new InetSocketAddress(loopback, port), depth, deadline, i);
+            threads[i] = new Thread(generators[i], "load-" + i);
+            threads[i].start();
+        }
+
+        LatencyHistogram total = new LatencyHistogram();
+        long games = 0;
+
+        for (int i = 0; i < connections; i++) {
+
+            threads[i].join();
+            total.merge(generators[i].getHistogram());
+            games += generators[i].getGames();
+
+            if (generators[i].getFailure() != null) {
+
+                System.out.println("Conexión " + i + " falló: " + generators[i].getFailure().getMessage());
+            }
+        }
+
+        if (server != null) {
+
+            server.stop();
+        }
+
+        System.out.println("Movimientos: " + total.getCount() + " | Movimientos/s: " + total.getCount() / seconds
+                + " | Partidas terminadas: " + games);
+        System.out.println("Latencia por movimiento - p50: " + total.getPercentileNanos(50) / 1000.0 + " us"
+                + " | p99: " + total.getPercentileNanos(99) / 1000.0 + " us"
+                + " | max: " + total.getMaxNanos() / 1000.0 + " us");
+    }
+}
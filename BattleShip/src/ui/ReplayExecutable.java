@@ -0,0 +1,165 @@
+package ui;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+import model.BatchSimulator;
+import model.Board;
+import model.BoardEvent;
+import model.BoardSnapshot;
+import model.GameJournalReader;
+import model.GameJournalWriter;
+import model.SimulationResult;
+
+public class ReplayExecutable {
+
+    /**
+     * Descripción: Archiva un lote de partidas simuladas en un diario y luego las repite todas desde el archivo.
+     * Pre: Argumentos opcionales: partidas, archivo del diario, hilos, ancho y alto del tablero.
+     * Pos: Se imprime el tamaño medio por partida, la velocidad de grabación y de repetición, cuántas jugadas
+     * repetidas no coinciden con lo grabado y cuántas posiciones alcanzadas saltando con las fotos difieren de la
+     * repetición jugada por jugada (ambos deben ser 0).
+     * @param args Argumentos de la línea de comandos.
+     */
+
+    public static void main(String[] args) throws IOException {
+
+        long games = 100_000;
+        Path path = Paths.get("partidas.bsj");
+        int threads = Runtime.getRuntime().availableProcessors();
+        int width = Board.SIZE;
+        int height = Board.SIZE;
+
+        if (args.length > 0) {
+            games = Long.parseLong(args[0]);
+        }
+        if (args.length > 1) {
+            path = Paths.get(args[1]);
+        }
+        if (args.length > 2) {
+            threads = Integer.parseInt(args[2]);
+        }
+        if (args.length > 4) {
+            width = Integer.parseInt(args[3]);
+            height = Integer.parseInt(args[4]);
+        }
+
+        Files.deleteIfExists(path);
+
+        BatchSimulator simulator = new BatchSimulator(threads, width, height);
+        GameJournalWriter writer = new GameJournalWriter(path);
+
+        simulator.setJournal(writer);
+
+        SimulationResult result = simulator.run(games, 0);
+
+        simulator.shutdown();
+        writer.close();
+
+        System.out.println("Grabadas " + writer.getGamesWritten() + " partidas de " + width + "x" + height + " a "
+                + (long) result.getGamesPerSecond() + " partidas/s | " + writer.getBytesWritten() / writer.getGamesWritten()
+                + " bytes por partida | archivo: " + Files.size(path) + " bytes");
+
+        long moves = 0;
+        long unfinished = 0;
+        long start = System.nanoTime();
+
+        try (GameJournalReader reader = new GameJournalReader(path)) {
+
+            while (reader.nextGame()) {
+
+                while (reader.nextMove() != GameJournalReader.END_OF_GAME) {
+
+                    moves++;
+                }
+
+                if (!reader.getBoard(BoardEvent.SOURCE_HUMAN).allBoatsSunk()
+                        && !reader.getBoard(BoardEvent.SOURCE_MACHINE).allBoatsSunk()) {
+
+                    unfinished++;
+                }
+            }
+
+            long elapsed = System.nanoTime() - start;
+
+            System.out.println("Repetidas " + reader.getGamesRead() + " partidas (" + moves + " jugadas) en "
+                    + elapsed / 1_000_000 + " ms | " + (long) (reader.getGamesRead() * 1e9 / Math.max(1, elapsed))
+                    + " partidas/s | jugadas distintas: " + reader.getMismatches() + " | partidas sin terminar: "
+                    + unfinished);
+        }
+
+        checkSeeks(path, width, height);
+    }
+
+    /**
+     * Descripción: Salta a jugadas al azar de cada partida y compara la posición con la repetición desde el inicio.
+     * Pre: path debe ser un diario con partidas de las dimensiones indicadas.
+     * Pos: Se imprime el tiempo medio de un salto y de una repetición completa, y las posiciones distintas.
+     * @param path Archivo del diario.
+     * @param width Ancho de los tableros.
+     * @param height Alto de los tableros.
+     */
+
+    private static void checkSeeks(Path path, int width, int height) throws IOException {
+
+        SplittableRandom random = new SplittableRandom(7);
+        BoardSnapshot[] seeked = {new BoardSnapshot(width, height), new BoardSnapshot(width, height)};
+        BoardSnapshot[] replayed = {new BoardSnapshot(width, height), new BoardSnapshot(width, height)};
+        long seeks = 0;
+        long seekNanos = 0;
+        long replayNanos = 0;
+        int different = 0;
+
+        try (GameJournalReader reader = new GameJournalReader(path)) {
+
+            while (reader.nextGame()) {
+
+                long start = System.nanoTime();
+
+                reader.advanceTo(Integer.MAX_VALUE);
+                replayNanos += System.nanoTime() - start;
+
+                int total = reader.getMoveCount();
+
+                for (int i = 0; i < 4; i++) {
+
+                    int move = random.nextInt(total + 1);
+
+                    start = System.nanoTime();
+                    reader.advanceTo(move);
+                    seekNanos += System.nanoTime() - start;
+                    seeks++;
+
+                    for (int source = 0; source < 2; source++) {
+
+                        reader.getBoard(source).snapshot(seeked[source]);
+                    }
+
+                    reader.advanceTo(0);
+
+                    while (reader.getMoveCount() < move) {
+
+                        reader.nextMove();
+                    }
+
+                    for (int source = 0; source < 2; source++) {
+
+                        reader.getBoard(source).snapshot(replayed[source]);
+
+                        if (!seeked[source].equals(replayed[source])) {
+
+                            different++;
+                        }
+                    }
+                }
+            }
+
+            System.out.println("Saltos: " + seeks + " | tiempo medio por salto: " + seekNanos / Math.max(1, seeks)
+                    + " ns | repetición completa: " + replayNanos / Math.max(1, reader.getGamesRead())
+                    + " ns | fotos cada " + reader.getSnapshotInterval() + " jugadas | posiciones distintas: "
+                    + different);
+        }
+    }
+}
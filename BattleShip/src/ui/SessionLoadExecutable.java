@@ -0,0 +1,93 @@
+package ui;
+
+import java.util.SplittableRandom;
+import model.Board;
+import model.GameSession;
+import model.LatencyHistogram;
+import model.SessionManager;
+
+public class SessionLoadExecutable {
+
+    /**
+     * Descripción: Crea muchas sesiones simultáneas y juega turnos sobre ellas desde varios hilos, midiendo la latencia.
+     * Pre: Argumentos opcionales: cantidad de sesiones, hilos y segundos de carga.
+     * Pos: Se imprime el total de turnos, turnos por segundo y los percentiles p50/p99 de latencia por turno.
+     * @param args Argumentos de la línea de comandos.
+     */
+
+    public static void main(String[] args) throws InterruptedException {
+
+        int sessions = 100_000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int seconds = 10;
+
+        if (args.length > 0) {
+            sessions = Integer.parseInt(args[0]);
+        }
+        if (args.length > 1) {
+            threads = Integer.parseInt(args[1]);
+        }
+        if (args.length > 2) {
+            seconds = Integer.parseInt(args[2]);
+        }
+
+        SessionManager manager = new SessionManager(sessions);
+        long[] ids = new long[sessions];
+        long start = System.nanoTime();
+
+        for (int i = 0; i < sessions; i++) {
+
+            ids[i] = manager.createSession();
+
+            GameSession session = manager.getSession(ids[i]);
+            session.startStandardGame();
+            session.placeRandomHumanBoats(false);
+        }
+
+        System.out.println("Sesiones creadas: " + manager.getSessionCount() + " en "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        LatencyHistogram[] histograms = new LatencyHistogram[threads];
+        Thread[] workers = new Thread[threads];
+
+        for (int t = 0; t < threads; t++) {
+
+            LatencyHistogram histogram = new LatencyHistogram();
+            SplittableRandom random = new SplittableRandom(t);
+
+            histograms[t] = histogram;
+            workers[t] = new Thread(() -> {
+
+                while (System.nanoTime() < deadline) {
+
+                    GameSession session = manager.getSession(ids[random.nextInt(ids.length)]);
+                    int x = random.nextInt(Board.SIZE) + 1;
+                    int y = random.nextInt(Board.SIZE) + 1;
+                    long before = System.nanoTime();
+
+                    if (!session.isGameOver()) {
+
+                        session.playTurn(x, y);
+                    }
+
+                    histogram.record(System.nanoTime() - before);
+                }
+            });
+            workers[t].start();
+        }
+
+        LatencyHistogram total = new LatencyHistogram();
+
+        for (int t = 0; t < threads; t++) {
+
+            workers[t].join();
+            total.merge(histograms[t]);
+        }
+
+        System.out.println("Turnos: " + total.getCount() + " | Turnos/s: " + total.getCount() / seconds
+                + " | p50: " + total.getPercentileNanos(50) / 1000.0 + " us"
+                + " | p99: " + total.getPercentileNanos(99) / 1000.0 + " us"
+                + " | max: " + total.getMaxNanos() / 1000.0 + " us");
+    }
+}
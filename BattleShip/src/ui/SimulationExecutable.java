@@ -0,0 +1,53 @@
+package ui;
+
+import model.BatchSimulator;
+import model.Board;
+import model.SimulationResult;
+
+public class SimulationExecutable {
+
+    /**
+     * Descripción: Ejecuta un lote de partidas simuladas sin consola interactiva.
+     * Pre: Argumentos opcionales: cantidad de partidas, modo (0 ambos, 1 estándar, 2 personalizado), hilos, ancho y
+     * alto del tablero, y semilla.
+     * Pos: Se imprime el resumen de la simulación y la semilla, que con los mismos argumentos repite las partidas.
+     * @param args Argumentos de la línea de comandos.
+     */
+
+    public static void main(String[] args) {
+
+        long games = 100_000;
+        int gameType = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int width = Board.SIZE;
+        int height = Board.SIZE;
+
+        if (args.length > 0) {
+            games = Long.parseLong(args[0]);
+        }
+        if (args.length > 1) {
+            gameType = Integer.parseInt(args[1]);
+        }
+        if (args.length > 2) {
+            threads = Integer.parseInt(args[2]);
+        }
+        if (args.length > 4) {
+            width = Integer.parseInt(args[3]);
+            height = Integer.parseInt(args[4]);
+        }
+
+        BatchSimulator simulator = new BatchSimulator(threads, width, height);
+
+        if (args.length > 5) {
+            simulator.setSeed(Long.parseLong(args[5]));
+        }
+
+        System.out.println("Simulando " + games + " partidas de " + width + "x" + height + " con " + threads
+                + " hilos (semilla " + simulator.getSeed() + ")...");
+
+        SimulationResult result = simulator.run(games, gameType);
+        simulator.shutdown();
+
+        System.out.println(result.getSummary());
+    }
+}
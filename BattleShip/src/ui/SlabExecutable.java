@@ -0,0 +1,257 @@
+package ui;
+
+import model.AttackResult;
+import model.Board;
+import model.BoardSlabStore;
+import model.BoardSnapshot;
+import model.Boat;
+import model.GameRandom;
+import model.PlacementTable;
+import model.TypeBoat;
+
+public class SlabExecutable {
+    private static final int MAX_NODES = 100000;
+
+    /**
+     * Descripción: Guarda muchos tableros fuera del heap y los juega directamente sobre sus ranuras.
+     * Pre: Argumentos opcionales: tableros, ancho, alto, semilla y tableros a verificar.
+     * Pos: Se imprime el heap y la memoria directa usados por el almacén frente a los mismos tableros como objetos
+     * Board, los disparos por segundo jugando sobre las ranuras y cuántas jugadas o fotos no coinciden con Board
+     * (debe ser 0).
+     * @param args Argumentos de la línea de comandos.
+     */
+
+    public static void main(String[] args) {
+
+        int boards = 100000;
+        int width = 10;
+        int height = 10;
+        long seed = 42;
+        int checks = 1000;
+
+        if (args.length > 0) {
+            boards = Integer.parseInt(args[0]);
+        }
+        if (args.length > 2) {
+            width = Integer.parseInt(args[1]);
+            height = Integer.parseInt(args[2]);
+        }
+        if (args.length > 3) {
+            seed = Long.parseLong(args[3]);
+        }
+        if (args.length > 4) {
+            checks = Integer.parseInt(args[4]);
+        }
+
+        TypeBoat[] types = standardTypes();
+        int[] sizes = new int[types.length];
+        boolean[] vertical = new boolean[types.length];
+
+        for (int i = 0; i < types.length; i++) {
+
+            sizes[i] = types[i].getDefaultSize();
+            vertical[i] = types[i].isDefaultVertical();
+        }
+
+        PlacementTable table = PlacementTable.forSize(width, height);
+
+        if (table == null) {
+
+            System.out.println("El tablero de " + width + "x" + height + " es demasiado grande para ubicar flotas.");
+            return;
+        }
+
+        long[] occupancy = new long[(width * height + 63) >>> 6];
+        int[] starts = new int[types.length];
+        int[][] candidates = new int[types.length][table.getCells()];
+        GameRandom random = new GameRandom(seed);
+
+        long heapBefore = usedHeap();
+        BoardSlabStore store = new BoardSlabStore(width, height, types.length, boards);
+
+        for (int i = 0; i < boards; i++) {
+
+            int slot = store.allocate();
+
+            if (table.planFleet(occupancy, sizes, vertical, types.length, random, starts, candidates, MAX_NODES)) {
+
+                for (int b = 0; b < types.length; b++) {
+
+                    store.placeBoat(slot, types[b], starts[b] % width + 1, starts[b] / width + 1, sizes[b],
+                            vertical[b]);
+                }
+            }
+        }
+
+        long slabHeap = usedHeap() - heapBefore;
+        long shots = 0;
+        long sunkBoats = 0;
+        long start = System.nanoTime();
+
+        for (int slot = 0; slot < boards; slot++) {
+
+            while (!store.allBoatsSunk(slot)) {
+
+                int result = store.receiveAttack(slot, store.generateRandomAttackCell(slot, random));
+
+                if (AttackResult.isSunk(result)) {
+
+                    sunkBoats++;
+                }
+                shots++;
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+
+        heapBefore = usedHeap();
+
+        Board[] onHeap = new Board[boards];
+        GameRandom heapRandom = new GameRandom(seed);
+
+        for (int i = 0; i < boards; i++) {
+
+            onHeap[i] = new Board(width, height);
+
+            if (table.planFleet(occupancy, sizes, vertical, types.length, heapRandom, starts, candidates,
+                    MAX_NODES)) {
+
+                for (int b = 0; b < types.length; b++) {
+
+                    Boat boat = onHeap[i].obtainBoat();
+
+                    boat.initializeStandardBoat(types[b], starts[b] % width + 1, starts[b] / width + 1);
+                    onHeap[i].placeBoat(boat);
+                }
+            }
+        }
+
+        long boardHeap = usedHeap() - heapBefore;
+        int mismatches = verify(width, height, types, sizes, vertical, Math.min(checks, boards), seed);
+
+        System.out.println("Tableros de " + width + "x" + height + ": " + boards + " | Bytes por ranura: "
+                + store.getSlotBytes());
+        System.out.println("Almacén - heap: " + slabHeap / 1024 + " KB | memoria directa: "
+                + store.getOffHeapBytes() / 1024 + " KB");
+        System.out.println("Objetos Board - heap: " + boardHeap / 1024 + " KB ("
+                + (onHeap.length == 0 ? 0 : boardHeap / onHeap.length) + " bytes por tablero)");
+        System.out.println("Disparos sobre ranuras: " + shots + " | Barcos hundidos: " + sunkBoats
+                + " | Disparos por segundo: " + (long) (shots * 1e9 / Math.max(1, elapsed)));
+        System.out.println("Jugadas o fotos distintas de Board: " + mismatches);
+    }
+
+    /**
+     * Descripción: Juega las mismas partidas en ranuras y en objetos Board y compara cada resultado.
+     * Pre: count no debe superar la capacidad pedida.
+     * Pos: También se comparan las fotos finales y las de una copia guardada con store y otra recuperada con load.
+     * @param width Ancho del tablero.
+     * @param height Alto del tablero.
+     * @param types Tipos de la flota.
+     * @param sizes Tamaño de cada barco.
+     * @param vertical Orientación de cada barco.
+     * @param count Cantidad de partidas a comparar.
+     * @param seed Semilla de las partidas.
+     * @return int Cantidad de disparos o fotos que no coinciden.
+     */
+
+    private static int verify(int width, int height, TypeBoat[] types, int[] sizes, boolean[] vertical, int count,
+            long seed) {
+
+        BoardSlabStore store = new BoardSlabStore(width, height, types.length, 2);
+        PlacementTable table = PlacementTable.forSize(width, height);
+        long[] occupancy = new long[(width * height + 63) >>> 6];
+        int[] starts = new int[types.length];
+        GameRandom random = new GameRandom(seed);
+        BoardSnapshot expected = new BoardSnapshot(width, height);
+        BoardSnapshot actual = new BoardSnapshot(width, height);
+        int played = store.allocate();
+        int copy = store.allocate();
+        int mismatches = 0;
+
+        for (int game = 0; game < count; game++) {
+
+            Board board = new Board(width, height);
+
+            store.clear(played);
+
+            if (!table.planFleet(occupancy, sizes, vertical, random, starts, MAX_NODES)) {
+
+                continue;
+            }
+
+            for (int b = 0; b < types.length; b++) {
+
+                Boat boat = board.obtainBoat();
+                int x = starts[b] % width + 1;
+                int y = starts[b] / width + 1;
+
+                boat.initializeStandardBoat(types[b], x, y);
+                board.placeBoat(boat);
+                store.placeBoat(played, types[b], x, y, sizes[b], vertical[b]);
+            }
+
+            int shots = random.nextInt(width * height + 1);
+
+            for (int i = 0; i < shots; i++) {
+
+                int cell = store.generateRandomAttackCell(played, random);
+
+                if (store.receiveAttack(played, cell) != board.receiveAttack(cell)) {
+
+                    mismatches++;
+                }
+            }
+
+            board.snapshot(expected);
+            store.snapshot(played, actual);
+
+            if (!expected.equals(actual) || store.allBoatsSunk(played) != board.allBoatsSunk()) {
+
+                mismatches++;
+            }
+
+            store.store(copy, board);
+            store.snapshot(copy, actual);
+
+            if (!expected.equals(actual)) {
+
+                mismatches++;
+            }
+
+            store.load(played).snapshot(actual);
+
+            if (!expected.equals(actual)) {
+
+                mismatches++;
+            }
+        }
+        return mismatches;
+    }
+
+    private static TypeBoat[] standardTypes() {
+
+        TypeBoat[] all = TypeBoat.values();
+        TypeBoat[] types = new TypeBoat[all.length - 1];
+        int count = 0;
+
+        for (TypeBoat type : all) {
+
+            if (type != TypeBoat.PERSONALIZADO) {
+
+                types[count++] = type;
+            }
+        }
+        return types;
+    }
+
+    private static long usedHeap() {
+
+        Runtime runtime = Runtime.getRuntime();
+
+        for (int i = 0; i < 3; i++) {
+
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
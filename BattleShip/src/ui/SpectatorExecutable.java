@@ -0,0 +1,178 @@
+package ui;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import model.Board;
+import model.BoardEvent;
+import model.BoardSnapshot;
+import model.GameSession;
+import model.LatencyHistogram;
+import model.SessionManager;
+import model.Spectator;
+
+public class SpectatorExecutable {
+
+    /**
+     * Descripción: Juega partidas en vivo mientras muchos espectadores las siguen desde otros hilos.
+     * Pre: Argumentos opcionales: espectadores, hilos lectores, partidas, ancho y alto del tablero.
+     * Pos: Se imprime la latencia por turno del hilo de juego con y sin espectadores, las resincronizaciones
+     * por foto y cuántas vistas de espectador no coinciden con el tablero final (debe ser 0).
+     * @param args Argumentos de la línea de comandos.
+     */
+
+    public static void main(String[] args) throws InterruptedException {
+
+        int spectators = 2000;
+        int readers = 2;
+        int games = 5;
+        int width = 30;
+        int height = 30;
+
+        if (args.length > 0) {
+            spectators = Integer.parseInt(args[0]);
+        }
+        if (args.length > 1) {
+            readers = Integer.parseInt(args[1]);
+        }
+        if (args.length > 2) {
+            games = Integer.parseInt(args[2]);
+        }
+        if (args.length > 4) {
+            width = Integer.parseInt(args[3]);
+            height = Integer.parseInt(args[4]);
+        }
+
+        if ((long) width * height > Board.DENSE_MAX_CELLS) {
+
+            System.out.println("El tablero de " + width + "x" + height + " es demasiado grande para seguirlo con "
+                    + "espectadores.");
+            return;
+        }
+
+        SessionManager manager = new SessionManager();
+        LatencyHistogram alone = new LatencyHistogram();
+        LatencyHistogram watched = new LatencyHistogram();
+        long resyncs = 0;
+        long applied = 0;
+        int mismatches = 0;
+
+        for (int game = 0; game < games; game++) {
+
+            playGame(manager, width, height, 0, 0, null, alone);
+        }
+
+        for (int game = 0; game < games; game++) {
+
+            ArrayList<Spectator> watching = new ArrayList<>();
+            GameSession session = playGame(manager, width, height, spectators, readers, watching, watched);
+
+            BoardSnapshot human = new BoardSnapshot(width, height);
+            BoardSnapshot machine = new BoardSnapshot(width, height);
+
+            session.snapshot(human, machine);
+
+            for (Spectator spectator : watching) {
+
+                spectator.update();
+                resyncs += spectator.getResyncs();
+                applied += spectator.getEventsApplied();
+
+                if (!spectator.getBoard(BoardEvent.SOURCE_HUMAN).equals(human)
+                        || !spectator.getBoard(BoardEvent.SOURCE_MACHINE).equals(machine)) {
+
+                    mismatches++;
+                }
+            }
+        }
+
+        System.out.println("Partidas de " + width + "x" + height + ": " + games + " | Espectadores: " + spectators
+                + " | Hilos lectores: " + readers);
+        System.out.println("Turno sin espectadores - p50: " + alone.getPercentileNanos(50) / 1000.0
+                + " us | p99: " + alone.getPercentileNanos(99) / 1000.0 + " us");
+        System.out.println("Turno con espectadores - p50: " + watched.getPercentileNanos(50) / 1000.0
+                + " us | p99: " + watched.getPercentileNanos(99) / 1000.0 + " us");
+        System.out.println("Eventos aplicados: " + applied + " | Resincronizaciones por foto: " + resyncs
+                + " | Vistas distintas del tablero: " + mismatches);
+    }
+
+    /**
+     * Descripción: Juega una partida aleatoria completa mientras hilos lectores actualizan a los espectadores.
+     * Pre: watching es null cuando spectators es 0.
+     * Pos: La partida termina; los espectadores creados quedan en watching.
+     * @param manager Administrador de sesiones.
+     * @param width Ancho del tablero.
+     * @param height Alto del tablero.
+     * @param spectators Cantidad de espectadores.
+     * @param readers Cantidad de hilos que actualizan a los espectadores.
+     * @param watching Lista donde se guardan los espectadores.
+     * @param turns Histograma de la latencia de cada turno en el hilo de juego.
+     * @return GameSession de la partida jugada.
+     */
+
+    private static GameSession playGame(SessionManager manager, int width, int height, int spectators,
+            int readers, ArrayList<Spectator> watching, LatencyHistogram turns) throws InterruptedException {
+
+        GameSession session = manager.getSession(manager.createSession(width, height));
+
+        for (int i = 0; i < spectators; i++) {
+
+            watching.add(new Spectator(session));
+        }
+
+        session.startStandardGame();
+        session.placeRandomHumanBoats(false);
+
+        Thread[] threads = new Thread[Math.min(spectators, readers)];
+        int perThread = threads.length == 0 ? 0 : (spectators + threads.length - 1) / threads.length;
+        boolean[] done = new boolean[1];
+
+        for (int t = 0; t < threads.length; t++) {
+
+            int from = t * perThread;
+            int to = Math.min(spectators, from + perThread);
+
+            threads[t] = new Thread(() -> {
+
+                while (!isDone(done)) {
+
+                    for (int i = from; i < to; i++) {
+
+                        watching.get(i).update();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+
+        SplittableRandom random = new SplittableRandom(session.getId());
+
+        while (!session.isGameOver()) {
+
+            long start = System.nanoTime();
+
+            session.playTurn(random.nextInt(width) + 1, random.nextInt(height) + 1);
+            turns.record(System.nanoTime() - start);
+        }
+
+        synchronized (done) {
+
+            done[0] = true;
+        }
+
+        for (Thread thread : threads) {
+
+            thread.join();
+        }
+
+        manager.closeSession(session.getId());
+        return session;
+    }
+
+    private static boolean isDone(boolean[] done) {
+
+        synchronized (done) {
+
+            return done[0];
+        }
+    }
+}
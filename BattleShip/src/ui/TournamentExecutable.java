@@ -0,0 +1,71 @@
+package ui;
+
+import java.util.ArrayList;
+import java.util.function.Supplier;
+import model.AttackStrategy;
+import model.HuntTargetStrategy;
+import model.MonteCarloStrategy;
+import model.ParityStrategy;
+import model.ProbabilityDensityStrategy;
+import model.RandomStrategy;
+import model.StrategyStats;
+import model.Tournament;
+
+public class TournamentExecutable {
+
+    /**
+     * Descripción: Ejecuta el torneo de estrategias de ataque sobre flotas fijas.
+     * Pre: Argumentos opcionales: cantidad de flotas, partidas por flota, semilla, hilos y presupuesto en ms de la
+     * estrategia Monte Carlo (0 la excluye).
+     * Pos: Se imprime, por estrategia, la media de disparos para ganar con su intervalo de confianza y los movimientos por segundo.
+     * @param args Argumentos de la línea de comandos.
+     */
+
+    public static void main(String[] args) {
+
+        int layouts = 1_000;
+        int gamesPerLayout = 10;
+        long seed = 2025;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long expertBudgetMillis = 0;
+
+        if (args.length > 0) {
+            layouts = Integer.parseInt(args[0]);
+        }
+        if (args.length > 1) {
+            gamesPerLayout = Integer.parseInt(args[1]);
+        }
+        if (args.length > 2) {
+            seed = Long.parseLong(args[2]);
+        }
+        if (args.length > 3) {
+            threads = Integer.parseInt(args[3]);
+        }
+        if (args.length > 4) {
+            expertBudgetMillis = Long.parseLong(args[4]);
+        }
+
+        ArrayList<Supplier<AttackStrategy>> strategies = new ArrayList<>();
+        strategies.add(RandomStrategy::new);
+        strategies.add(ParityStrategy::new);
+        strategies.add(HuntTargetStrategy::new);
+        strategies.add(ProbabilityDensityStrategy::new);
+
+        if (expertBudgetMillis > 0) {
+
+            long budget = expertBudgetMillis * 1_000_000L;
+            strategies.add(() -> new MonteCarloStrategy(budget));
+        }
+
+        System.out.println("Torneo: " + layouts + " flotas x " + gamesPerLayout + " partidas, " + threads + " hilos");
+
+        Tournament tournament = new Tournament(threads);
+        ArrayList<StrategyStats> results = tournament.run(strategies, layouts, gamesPerLayout, seed);
+        tournament.shutdown();
+
+        for (int i = 0; i < results.size(); i++) {
+
+            System.out.println(results.get(i).getSummary());
+        }
+    }
+}